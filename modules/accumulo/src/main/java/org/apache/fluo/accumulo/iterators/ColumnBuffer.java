@@ -15,7 +15,6 @@
 
 package org.apache.fluo.accumulo.iterators;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.function.LongPredicate;
 
@@ -24,30 +23,54 @@ import org.apache.accumulo.core.data.PartialKey;
 import org.apache.accumulo.core.data.Value;
 
 /**
- * This class buffers Keys that all have the same row+column. Internally it only stores one Key, a
- * list of timestamps and a list of values. At iteration time it materializes each Key+Value.
+ * This class buffers Keys that all have the same row+column. Internally it only stores one Key, an
+ * array of timestamps and one byte array holding all values. At iteration time it materializes each
+ * Key+Value. The arrays are reused after {@link #clear()}, so buffering a column does not allocate
+ * once they are large enough.
  */
 class ColumnBuffer {
 
   private Key key;
-  private ArrayList<Long> timeStamps;
-  private ArrayList<byte[]> values;
+  private int size;
+  private long[] timeStamps;
+  // value i is stored in data from valueEnds[i - 1] (or 0) to valueEnds[i]
+  private int[] valueEnds;
+  private byte[] data;
 
   public ColumnBuffer() {
 
     this.key = null;
-    this.timeStamps = new ArrayList<>();
-    this.values = new ArrayList<>();
+    this.size = 0;
+    this.timeStamps = new long[16];
+    this.valueEnds = new int[16];
+    this.data = new byte[256];
+  }
+
+  private int valueStart(int pos) {
+    return pos == 0 ? 0 : valueEnds[pos - 1];
   }
 
   /**
    * @param timestamp Timestamp to be added to buffer
-   * @param v Value to be added to buffer
+   * @param v Array holding the value to be added to buffer
+   * @param off Offset of the value in v
+   * @param len Length of the value
    */
-  private void add(long timestamp, byte[] v) {
+  private void add(long timestamp, byte[] v, int off, int len) {
+    if (size == timeStamps.length) {
+      timeStamps = Arrays.copyOf(timeStamps, size * 2);
+      valueEnds = Arrays.copyOf(valueEnds, size * 2);
+    }
 
-    timeStamps.add(timestamp);
-    values.add(v);
+    int start = valueStart(size);
+    if (start + len > data.length) {
+      data = Arrays.copyOf(data, Math.max(data.length * 2, start + len));
+    }
+    System.arraycopy(v, off, data, start, len);
+
+    timeStamps[size] = timestamp;
+    valueEnds[size] = start + len;
+    size++;
   }
 
   /**
@@ -58,16 +81,13 @@ class ColumnBuffer {
    * @param vByte Value to be added to buffer
    */
   public void add(Key k, byte[] vByte) throws IllegalArgumentException {
-    vByte = Arrays.copyOf(vByte, vByte.length);
-
     if (key == null) {
       key = new Key(k);
-      add(k.getTimestamp(), vByte);
-    } else if (key.equals(k, PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
-      add(k.getTimestamp(), vByte);
-    } else {
+    } else if (!key.equals(k, PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
       throw new IllegalArgumentException();
     }
+
+    add(k.getTimestamp(), vByte, 0, vByte.length);
   }
 
   /**
@@ -95,17 +115,17 @@ class ColumnBuffer {
       dest.key = new Key(key);
     }
 
-    for (int i = 0; i < timeStamps.size(); i++) {
-      long time = timeStamps.get(i);
+    for (int i = 0; i < size; i++) {
+      long time = timeStamps[i];
       if (timestampTest.test(time)) {
-        dest.add(time, values.get(i));
+        int start = valueStart(i);
+        dest.add(time, data, start, valueEnds[i] - start);
       }
     }
   }
 
   public void clear() {
-    timeStamps.clear();
-    values.clear();
+    size = 0;
     key = null;
   }
 
@@ -113,7 +133,7 @@ class ColumnBuffer {
    * @return the size of the current buffer
    */
   public int size() {
-    return timeStamps.size();
+    return size;
   }
 
   /**
@@ -122,7 +142,7 @@ class ColumnBuffer {
    */
   public Key getKey(int pos) {
     Key tmpKey = new Key(key);
-    tmpKey.setTimestamp(timeStamps.get(pos));
+    tmpKey.setTimestamp(timeStamps[pos]);
     return tmpKey;
   }
 
@@ -131,6 +151,7 @@ class ColumnBuffer {
    * @return The value at a given position
    */
   public Value getValue(int pos) {
-    return new Value(values.get(pos));
+    int start = valueStart(pos);
+    return new Value(data, start, valueEnds[pos] - start);
   }
 }
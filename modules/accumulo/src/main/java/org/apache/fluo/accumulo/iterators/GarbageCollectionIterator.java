@@ -17,7 +17,7 @@ package org.apache.fluo.accumulo.iterators;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -29,12 +29,13 @@ import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.OptionDescriber;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.fluo.accumulo.util.ColumnConstants;
 import org.apache.fluo.accumulo.util.ColumnType;
+import org.apache.fluo.accumulo.util.GcTimestampCache;
 import org.apache.fluo.accumulo.util.NotificationUtil;
 import org.apache.fluo.accumulo.util.ReadLockUtil;
-import org.apache.fluo.accumulo.util.ZookeeperUtil;
 import org.apache.fluo.accumulo.values.DelLockValue;
 import org.apache.fluo.accumulo.values.DelReadLockValue;
 import org.apache.fluo.accumulo.values.WriteValue;
@@ -43,19 +44,22 @@ import org.apache.fluo.accumulo.values.WriteValue;
  * This iterator cleans up old versions and unneeded column metadata. It's intended to be used only
  * at compaction time.
  */
-public class GarbageCollectionIterator implements SortedKeyValueIterator<Key, Value> {
+public class GarbageCollectionIterator
+    implements SortedKeyValueIterator<Key, Value>, OptionDescriber {
 
   @VisibleForTesting
   static final String GC_TIMESTAMP_OPT = "timestamp.gc";
 
   private static final String ZOOKEEPER_CONNECT_OPT = "zookeeper.connect";
+  private static final String GC_TIMESTAMP_MAX_AGE_OPT = "timestamp.gc.max.age.ms";
+  public static final long GC_TIMESTAMP_MAX_AGE_DEFAULT = 10000;
   private Long gcTimestamp;
   private SortedKeyValueIterator<Key, Value> source;
 
   private ColumnBuffer keys = new ColumnBuffer();
   private ColumnBuffer keysFiltered = new ColumnBuffer();
-  private HashSet<Long> completeTxs = new HashSet<>();
-  private HashSet<Long> rolledback = new HashSet<>();
+  private LongHashSet completeTxs = new LongHashSet();
+  private LongHashSet rolledback = new LongHashSet();
   private Key curCol = new Key();
   private long truncationTime;
   private int position = 0;
@@ -79,10 +83,47 @@ public class GarbageCollectionIterator implements SortedKeyValueIterator<Key, Va
       if (zookeepers == null) {
         throw new IllegalArgumentException("A configuration item for GC iterator was not set");
       }
-      gcTimestamp = ZookeeperUtil.getGcTimestamp(zookeepers);
+      gcTimestamp = GcTimestampCache.getGcTimestamp(zookeepers, getGcTimestampMaxAge(options));
     }
   }
 
+  private static long getGcTimestampMaxAge(Map<String, String> options) {
+    String maxAge = options.get(GC_TIMESTAMP_MAX_AGE_OPT);
+    if (maxAge == null) {
+      return GC_TIMESTAMP_MAX_AGE_DEFAULT;
+    }
+
+    try {
+      long millis = Long.parseLong(maxAge);
+      if (millis >= 0) {
+        return millis;
+      }
+    } catch (NumberFormatException e) {
+      // handled below
+    }
+    throw new IllegalArgumentException("Bad value for " + GC_TIMESTAMP_MAX_AGE_OPT + " " + maxAge);
+  }
+
+  @Override
+  public IteratorOptions describeOptions() {
+    Map<String, String> options = new HashMap<>();
+    options.put(GC_TIMESTAMP_OPT, "GC timestamp to use instead of reading it from Zookeeper");
+    options.put(ZOOKEEPER_CONNECT_OPT, "Zookeeper connection string used to read the GC timestamp");
+    options.put(GC_TIMESTAMP_MAX_AGE_OPT,
+        "Max age in milliseconds of a cached GC timestamp, 0 always reads Zookeeper");
+    return new IteratorOptions("fluo-gc", "Removes old versions and unneeded column metadata",
+        options, null);
+  }
+
+  @Override
+  public boolean validateOptions(Map<String, String> options) {
+    if (options.get(GC_TIMESTAMP_OPT) == null && options.get(ZOOKEEPER_CONNECT_OPT) == null) {
+      throw new IllegalArgumentException("A configuration item for GC iterator was not set");
+    }
+    getGcTimestampMaxAge(options);
+    return true;
+  }
+
   @Override
   public boolean hasTop() {
     return position < keysFiltered.size() || source.hasTop();
@@ -346,4 +387,12 @@ public class GarbageCollectionIterator implements SortedKeyValueIterator<Key, Va
   public static void setZookeepers(IteratorSetting gcIter, String zookeepers) {
     gcIter.addOption(ZOOKEEPER_CONNECT_OPT, zookeepers);
   }
+
+  /**
+   * Sets how long, in milliseconds, a GC timestamp read from Zookeeper may be cached and shared by
+   * compactions in the same tablet server. A value of 0 reads Zookeeper for every compaction.
+   */
+  public static void setGcTimestampMaxAge(IteratorSetting gcIter, long maxAge) {
+    gcIter.addOption(GC_TIMESTAMP_MAX_AGE_OPT, Long.toString(maxAge));
+  }
 }
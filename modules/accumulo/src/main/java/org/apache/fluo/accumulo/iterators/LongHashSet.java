@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.accumulo.iterators;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs that avoids boxing. It uses open addressing with linear probing and is
+ * intended to be cleared and reused, like the sets the {@link GarbageCollectionIterator} keeps for
+ * each column.
+ */
+class LongHashSet {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 16;
+  // when cleared, tables larger than this are replaced so one large column does not make clearing
+  // expensive for all following columns
+  private static final int MAX_RETAINED_CAPACITY = 1 << 12;
+
+  private long[] table;
+  private int mask;
+  private int size;
+  private boolean containsEmpty;
+
+  LongHashSet() {
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    table = new long[capacity];
+    Arrays.fill(table, EMPTY);
+    mask = capacity - 1;
+  }
+
+  private int index(long v) {
+    return (int) ((v * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+  }
+
+  /**
+   * @return true if the value was not already in the set
+   */
+  boolean add(long v) {
+    if (v == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      size++;
+      return true;
+    }
+
+    int i = index(v);
+    while (table[i] != EMPTY) {
+      if (table[i] == v) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+
+    table[i] = v;
+    size++;
+
+    if (size * 2 > table.length) {
+      grow();
+    }
+
+    return true;
+  }
+
+  boolean contains(long v) {
+    if (v == EMPTY) {
+      return containsEmpty;
+    }
+
+    int i = index(v);
+    while (table[i] != EMPTY) {
+      if (table[i] == v) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * @return true if the value was in the set
+   */
+  boolean remove(long v) {
+    if (v == EMPTY) {
+      if (!containsEmpty) {
+        return false;
+      }
+      containsEmpty = false;
+      size--;
+      return true;
+    }
+
+    int gap = index(v);
+    while (table[gap] != v) {
+      if (table[gap] == EMPTY) {
+        return false;
+      }
+      gap = (gap + 1) & mask;
+    }
+
+    // shift following values back into the gap when it is between their slot and where they are
+    int j = (gap + 1) & mask;
+    while (table[j] != EMPTY) {
+      int home = index(table[j]);
+      if (((j - home) & mask) >= ((j - gap) & mask)) {
+        table[gap] = table[j];
+        gap = j;
+      }
+      j = (j + 1) & mask;
+    }
+
+    table[gap] = EMPTY;
+    size--;
+    return true;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    if (table.length > MAX_RETAINED_CAPACITY) {
+      allocate(INITIAL_CAPACITY);
+    } else if (size > 0) {
+      Arrays.fill(table, EMPTY);
+    }
+    size = 0;
+    containsEmpty = false;
+  }
+
+  private void grow() {
+    long[] old = table;
+    allocate(old.length * 2);
+    for (long v : old) {
+      if (v != EMPTY) {
+        int i = index(v);
+        while (table[i] != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        table[i] = v;
+      }
+    }
+  }
+}
@@ -34,9 +34,11 @@ import org.apache.fluo.accumulo.values.WriteValue;
 
 public class RollbackCheckIterator implements SortedKeyValueIterator<Key, Value> {
   private static final String TIMESTAMP_OPT = "timestampOpt";
+  private static final String TIMESTAMP_FROM_RANGE_OPT = "timestampFromRange";
 
   private TimestampSkippingIterator source;
   private long lockTime;
+  private boolean lockTimeFromRange = false;
 
   boolean hasTop = false;
   boolean checkAck = false;
@@ -48,11 +50,24 @@ public class RollbackCheckIterator implements SortedKeyValueIterator<Key, Value>
     cfg.addOption(TIMESTAMP_OPT, time + "");
   }
 
+  /**
+   * Configures the iterator to take the lock time from the timestamp of each range's start key
+   * instead of from a single option. This allows a batch scanner to check many transactions, each
+   * with its own start time, in one pass. Each range should cover exactly one column.
+   */
+  public static void setLocktimeFromRange(IteratorSetting cfg) {
+    cfg.addOption(TIMESTAMP_FROM_RANGE_OPT, "true");
+  }
+
   @Override
   public void init(SortedKeyValueIterator<Key, Value> source, Map<String, String> options,
       IteratorEnvironment env) throws IOException {
     this.source = new TimestampSkippingIterator(source);
-    this.lockTime = Long.parseLong(options.get(TIMESTAMP_OPT));
+    if (Boolean.parseBoolean(options.get(TIMESTAMP_FROM_RANGE_OPT))) {
+      this.lockTimeFromRange = true;
+    } else {
+      this.lockTime = Long.parseLong(options.get(TIMESTAMP_OPT));
+    }
   }
 
   @Override
@@ -68,6 +83,19 @@ public class RollbackCheckIterator implements SortedKeyValueIterator<Key, Value>
   @Override
   public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive)
       throws IOException {
+    if (lockTimeFromRange) {
+      hasTop = false;
+      if (range.isInfiniteStartKey() || !range.isStartKeyInclusive()) {
+        // at most one entry is returned per range, so a range that resumes after a returned key
+        // has nothing left to check
+        return;
+      }
+      lockTime = range.getStartKey().getTimestamp();
+      if (lockTime < 0 || (ColumnConstants.PREFIX_MASK & lockTime) != 0) {
+        throw new IllegalArgumentException("Bad lock time in range " + range);
+      }
+    }
+
     range = IteratorUtil.maximizeStartKeyTimeStamp(range);
 
     if (columnFamilies.isEmpty() && !inclusive) {
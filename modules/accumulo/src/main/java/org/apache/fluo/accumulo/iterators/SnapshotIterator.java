@@ -56,6 +56,10 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
 
   private final Key curCol = new Key();
 
+  // Set once skipping within curCol needed a seek. Hot columns can have thousands of uncollected
+  // entries of each type, so after that further skips in the column seek without stepping first.
+  private boolean longHistory = false;
+
   private Key readLockIgnore;
   private Key readLockKey;
   private Value readLockValue;
@@ -79,6 +83,26 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
     readLockIgnore = null;
   }
 
+  private void skipToTimestamp(long timestamp) throws IOException {
+    if (longHistory) {
+      source.seekToTimestamp(curCol, timestamp);
+    } else {
+      longHistory = source.skipToTimestamp(curCol, timestamp);
+    }
+  }
+
+  private void skipToPrefix(ColumnType colType) throws IOException {
+    skipToTimestamp(colType.first());
+  }
+
+  private void skipColumn() throws IOException {
+    if (longHistory) {
+      source.seekPastColumn(curCol);
+    } else {
+      source.skipColumn(curCol);
+    }
+  }
+
   private void findTop() throws IOException {
     outer: while (source.hasTop() && readLockKey == null) {
       long invalidationTime = -1;
@@ -89,6 +113,7 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
       }
 
       curCol.set(source.getTopKey());
+      longHistory = false;
 
       while (source.hasTop()
           && curCol.equals(source.getTopKey(), PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
@@ -97,7 +122,7 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
 
         switch (colType) {
           case TX_DONE: {
-            source.skipToPrefix(curCol, ColumnType.WRITE);
+            skipToPrefix(ColumnType.WRITE);
             continue;
           }
           case WRITE: {
@@ -110,10 +135,10 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
             if (dataPointer == -1) {
               if (ts <= snaptime) {
                 dataPointer = timePtr;
-                source.skipToPrefix(curCol, ColumnType.DEL_LOCK);
+                skipToPrefix(ColumnType.DEL_LOCK);
                 continue;
               } else {
-                source.skipToTimestamp(curCol, ColumnType.WRITE.encode(snaptime));
+                skipToTimestamp(ColumnType.WRITE.encode(snaptime));
                 continue;
               }
             }
@@ -124,9 +149,9 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
               invalidationTime = ts;
             }
             if (returnReadLockPresent) {
-              source.skipToPrefix(curCol, ColumnType.RLOCK);
+              skipToPrefix(ColumnType.RLOCK);
             } else {
-              source.skipToPrefix(curCol, ColumnType.LOCK);
+              skipToPrefix(ColumnType.LOCK);
             }
             continue;
           }
@@ -135,7 +160,7 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
               rememberReadLock(source.getTopKey(), source.getTopValue());
             }
 
-            source.skipToPrefix(curCol, ColumnType.LOCK);
+            skipToPrefix(ColumnType.LOCK);
             continue;
           }
           case LOCK: {
@@ -144,10 +169,10 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
               return;
             } else {
               if (dataPointer == -1) {
-                source.skipColumn(curCol);
+                skipColumn();
                 continue outer;
               } else {
-                source.skipToTimestamp(curCol, ColumnType.DATA.encode(dataPointer));
+                skipToTimestamp(ColumnType.DATA.encode(dataPointer));
                 continue;
               }
             }
@@ -159,22 +184,22 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
             }
 
             if (ts < dataPointer || dataPointer == -1) {
-              source.skipColumn(curCol);
+              skipColumn();
               continue outer;
             }
 
             if (ts > dataPointer) {
-              source.skipToTimestamp(curCol, ColumnType.DATA.encode(dataPointer));
+              skipToTimestamp(ColumnType.DATA.encode(dataPointer));
               continue;
             }
             break;
           }
           case ACK: {
             if (dataPointer == -1) {
-              source.skipColumn(curCol);
+              skipColumn();
               continue outer;
             } else {
-              source.skipToTimestamp(curCol, ColumnType.DATA.encode(dataPointer));
+              skipToTimestamp(ColumnType.DATA.encode(dataPointer));
               continue;
             }
           }
@@ -207,8 +232,11 @@ public class SnapshotIterator implements SortedKeyValueIterator<Key, Value> {
     if (readLockKey != null) {
       clearReadLock();
     } else {
-      curCol.set(source.getTopKey());
-      source.skipColumn(curCol);
+      if (!curCol.equals(source.getTopKey(), PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
+        curCol.set(source.getTopKey());
+        longHistory = false;
+      }
+      skipColumn();
 
       findTop();
     }
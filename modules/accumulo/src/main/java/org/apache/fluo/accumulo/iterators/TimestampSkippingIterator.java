@@ -61,7 +61,13 @@ public class TimestampSkippingIterator implements SortedKeyValueIterator<Key, Va
     source.next();
   }
 
-  public void skipToTimestamp(Key curCol, long timestamp) throws IOException {
+  /**
+   * Advances to the first key in the current column with a timestamp less than or equal to the
+   * given timestamp. Steps through a few keys before falling back to a seek.
+   *
+   * @return true if a seek was needed, which indicates the column has a long history
+   */
+  public boolean skipToTimestamp(Key curCol, long timestamp) throws IOException {
     source.next();
     int count = 0;
     while (source.hasTop()
@@ -69,42 +75,71 @@ public class TimestampSkippingIterator implements SortedKeyValueIterator<Key, Va
         && timestamp < source.getTopKey().getTimestamp()) {
       if (count == 10) {
         // seek to prefix
-        Key seekKey = new Key(curCol);
-        seekKey.setTimestamp(timestamp);
-        Range newRange = new Range(seekKey, true, range.getEndKey(), range.isEndKeyInclusive());
-        seek(newRange);
-        break;
+        seekToTimestamp(curCol, timestamp);
+        return true;
       }
       source.next();
       count++;
     }
+    return false;
   }
 
-  public void skipToPrefix(Key curCol, ColumnType colType) throws IOException {
-    skipToTimestamp(curCol, colType.first());
+  /**
+   * Same as {@link #skipToTimestamp(Key, long)}, except it seeks immediately without stepping
+   * through keys. Callers should use this when they know many keys are in the way.
+   */
+  public void seekToTimestamp(Key curCol, long timestamp) throws IOException {
+    Key seekKey = new Key(curCol);
+    seekKey.setTimestamp(timestamp);
+    seekFrom(seekKey);
   }
 
-  public void skipColumn(Key curCol) throws IOException {
+  public boolean skipToPrefix(Key curCol, ColumnType colType) throws IOException {
+    return skipToTimestamp(curCol, colType.first());
+  }
+
+  public void seekToPrefix(Key curCol, ColumnType colType) throws IOException {
+    seekToTimestamp(curCol, colType.first());
+  }
+
+  /**
+   * Advances to the first key after the current column. Steps through a few keys before falling
+   * back to a seek.
+   *
+   * @return true if a seek was needed, which indicates the column has a long history
+   */
+  public boolean skipColumn(Key curCol) throws IOException {
     source.next();
     int count = 0;
     while (source.hasTop()
         && curCol.equals(source.getTopKey(), PartialKey.ROW_COLFAM_COLQUAL_COLVIS)) {
       if (count == 10) {
-        Key seekKey = curCol.followingKey(PartialKey.ROW_COLFAM_COLQUAL_COLVIS);
-        Range newRange;
-        if (range.afterEndKey(seekKey)) {
-          // this range will force source.hasTop() to return false, because nothing can exist in the
-          // range.
-          newRange = new Range(range.getEndKey(), true, range.getEndKey(), false);
-        } else {
-          newRange = new Range(seekKey, true, range.getEndKey(), range.isEndKeyInclusive());
-        }
-        seek(newRange);
-        break;
+        seekPastColumn(curCol);
+        return true;
       }
       source.next();
       count++;
     }
+    return false;
+  }
+
+  /**
+   * Same as {@link #skipColumn(Key)}, except it seeks immediately without stepping through keys.
+   */
+  public void seekPastColumn(Key curCol) throws IOException {
+    seekFrom(curCol.followingKey(PartialKey.ROW_COLFAM_COLQUAL_COLVIS));
+  }
+
+  private void seekFrom(Key seekKey) throws IOException {
+    Range newRange;
+    if (range.afterEndKey(seekKey)) {
+      // this range will force source.hasTop() to return false, because nothing can exist in the
+      // range.
+      newRange = new Range(range.getEndKey(), true, range.getEndKey(), false);
+    } else {
+      newRange = new Range(seekKey, true, range.getEndKey(), range.isEndKeyInclusive());
+    }
+    seek(newRange);
   }
 
   private void seek(Range range) throws IOException {
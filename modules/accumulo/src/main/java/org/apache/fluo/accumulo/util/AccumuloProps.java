@@ -26,5 +26,6 @@ public class AccumuloProps {
   public static final String TABLE_DELETE_BEHAVIOR_VALUE = "fail";
   public static final String TABLE_FORMATTER_CLASS = "table.formatter";
   public static final String TABLE_MAJC_RATIO = "table.compaction.major.ratio";
+  public static final String TABLE_SPLIT_THRESHOLD = "table.split.threshold";
   public static final String VFS_CONTEXT_CLASSPATH_PROPERTY = "general.vfs.context.classpath.";
 }
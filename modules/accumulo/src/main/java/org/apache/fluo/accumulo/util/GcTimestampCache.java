@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.accumulo.util;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the GC timestamp set by the Oracle for each Zookeeper connection string, so that every
+ * compaction in a JVM does not open its own Zookeeper session. Each connection string gets one
+ * shared session. A watch on the timestamp node marks the cached value stale when the Oracle
+ * changes it, and a cached value is never used longer than the max age passed in.
+ *
+ * <p>
+ * Using a stale value is safe. The GC timestamp only increases, so an older value makes the garbage
+ * collection iterator keep more than needed, never less.
+ */
+public class GcTimestampCache {
+
+  private static final Logger log = LoggerFactory.getLogger(GcTimestampCache.class);
+
+  private static final ConcurrentHashMap<String, GcTimestampCache> caches =
+      new ConcurrentHashMap<>();
+
+  private final String zookeepers;
+  private ZooKeeper zk = null;
+  private volatile long gcTimestamp = ZookeeperUtil.OLDEST_POSSIBLE;
+  // time in nanos when gcTimestamp was read, 0 when it must be read again
+  private volatile long readTime = 0;
+  // incremented by every watch event, so a read that raced with an event is not cached
+  private final AtomicLong generation = new AtomicLong(0);
+
+  // Watches the timestamp node and the session. Any event makes the next get read Zookeeper again,
+  // which also sets a new watch. When the session expired, the next get creates a new session.
+  @VisibleForTesting
+  final Watcher watcher = event -> {
+    generation.incrementAndGet();
+    readTime = 0;
+  };
+
+  @VisibleForTesting
+  GcTimestampCache(String zookeepers) {
+    this.zookeepers = zookeepers;
+  }
+
+  /**
+   * Gets the GC timestamp, reading it from Zookeeper when the cached value is older than maxAge or
+   * the Oracle changed it.
+   *
+   * @param zookeepers Zookeeper connection string
+   * @param maxAge Max age in milliseconds of a cached value, 0 always reads Zookeeper
+   * @return Oldest active timestamp or oldest possible ts (-1) if not found
+   */
+  public static long getGcTimestamp(String zookeepers, long maxAge) {
+    return caches.computeIfAbsent(zookeepers, GcTimestampCache::new).get(maxAge);
+  }
+
+  @VisibleForTesting
+  long get(long maxAge) {
+    long rt = readTime;
+    if (rt != 0 && System.nanoTime() - rt < TimeUnit.MILLISECONDS.toNanos(maxAge)) {
+      return gcTimestamp;
+    }
+
+    synchronized (this) {
+      // another thread may have read it while waiting for the lock
+      rt = readTime;
+      if (rt != 0 && System.nanoTime() - rt < TimeUnit.MILLISECONDS.toNanos(maxAge)) {
+        return gcTimestamp;
+      }
+
+      try {
+        long gen = generation.get();
+        long start = System.nanoTime();
+        gcTimestamp = readGcTimestamp();
+        // when the node changed while reading, the value read may already be stale
+        if (generation.get() == gen) {
+          readTime = start;
+        }
+        return gcTimestamp;
+      } catch (KeeperException | InterruptedException | IOException e) {
+        log.warn("Failed to get oldest timestamp of Oracle from Zookeeper", e);
+        closeZookeeper();
+        return ZookeeperUtil.OLDEST_POSSIBLE;
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long readGcTimestamp() throws KeeperException, InterruptedException, IOException {
+    byte[] d = getZookeeper().getData(ZookeeperPath.ORACLE_GC_TIMESTAMP, watcher, null);
+    return LongUtil.fromByteArray(d);
+  }
+
+  private ZooKeeper getZookeeper() throws IOException {
+    if (zk == null || !zk.getState().isAlive()) {
+      closeZookeeper();
+      zk = new ZooKeeper(zookeepers, 30000, watcher);
+
+      // wait until zookeeper is connected
+      long start = System.currentTimeMillis();
+      while (!zk.getState().isConnected() && System.currentTimeMillis() - start < 30000) {
+        Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+      }
+    }
+    return zk;
+  }
+
+  private void closeZookeeper() {
+    if (zk != null) {
+      try {
+        zk.close();
+      } catch (InterruptedException e) {
+        log.error("Failed to close zookeeper client", e);
+      }
+      zk = null;
+    }
+  }
+}
@@ -20,6 +20,8 @@ import org.apache.accumulo.core.data.Value;
 import org.junit.Assert;
 import org.junit.Test;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class ColumnBufferTest {
 
   @Test
@@ -33,4 +35,26 @@ public class ColumnBufferTest {
 
     }
   }
+
+  @Test
+  public void testCopyTo() {
+    ColumnBuffer columnBuffer = new ColumnBuffer();
+    for (int i = 0; i < 100; i++) {
+      columnBuffer.add(new Key("row1", "f", "q", i), new Value(("v" + i).getBytes(UTF_8)));
+    }
+
+    ColumnBuffer dest = new ColumnBuffer();
+    columnBuffer.copyTo(dest, ts -> ts % 2 == 0);
+    Assert.assertEquals(50, dest.size());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(new Key("row1", "f", "q", i * 2), dest.getKey(i));
+      Assert.assertEquals(new Value(("v" + i * 2).getBytes(UTF_8)), dest.getValue(i));
+    }
+
+    // reusing the buffer after clear should not see old entries
+    columnBuffer.clear();
+    columnBuffer.add(new Key("row2", "f", "q", 7), new Value(new byte[0]));
+    Assert.assertEquals(1, columnBuffer.size());
+    Assert.assertEquals(0, columnBuffer.getValue(0).getSize());
+  }
 }
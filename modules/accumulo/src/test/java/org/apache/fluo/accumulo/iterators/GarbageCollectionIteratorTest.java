@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
 import org.apache.accumulo.core.iterators.SortedMapIterator;
@@ -697,4 +698,33 @@ public class GarbageCollectionIteratorTest {
     output = new TestData(newGCI(input2, 30, false));
     Assert.assertEquals(expected, output);
   }
+
+  @Test
+  public void testValidateOptions() {
+    GarbageCollectionIterator gci = new GarbageCollectionIterator();
+
+    IteratorSetting setting = new IteratorSetting(10, GarbageCollectionIterator.class);
+    GarbageCollectionIterator.setZookeepers(setting, "localhost/fluo");
+    Assert.assertTrue(gci.validateOptions(setting.getOptions()));
+    GarbageCollectionIterator.setGcTimestampMaxAge(setting, 0);
+    Assert.assertTrue(gci.validateOptions(setting.getOptions()));
+
+    for (String maxAge : new String[] {"-1", "ten"}) {
+      Map<String, String> options = new HashMap<>(setting.getOptions());
+      options.put("timestamp.gc.max.age.ms", maxAge);
+      try {
+        gci.validateOptions(options);
+        Assert.fail("Expected exception for " + maxAge);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+
+    try {
+      gci.validateOptions(new HashMap<>());
+      Assert.fail("Expected exception");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
 }
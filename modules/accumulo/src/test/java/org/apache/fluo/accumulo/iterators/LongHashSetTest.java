@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.accumulo.iterators;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void testBasic() {
+    LongHashSet set = new LongHashSet();
+    Assert.assertTrue(set.add(5));
+    Assert.assertFalse(set.add(5));
+    Assert.assertTrue(set.add(Long.MIN_VALUE));
+    Assert.assertTrue(set.contains(5));
+    Assert.assertTrue(set.contains(Long.MIN_VALUE));
+    Assert.assertFalse(set.contains(6));
+    Assert.assertEquals(2, set.size());
+
+    Assert.assertTrue(set.remove(Long.MIN_VALUE));
+    Assert.assertFalse(set.remove(Long.MIN_VALUE));
+    Assert.assertFalse(set.remove(6));
+    Assert.assertEquals(1, set.size());
+
+    set.clear();
+    Assert.assertEquals(0, set.size());
+    Assert.assertFalse(set.contains(5));
+  }
+
+  @Test
+  public void testRandom() {
+    Random rand = new Random(42);
+    LongHashSet set = new LongHashSet();
+    HashSet<Long> expected = new HashSet<>();
+
+    for (int round = 0; round < 10; round++) {
+      // small range of values so adds and removes often collide
+      for (int i = 0; i < 10000; i++) {
+        long v = rand.nextInt(2000) - 1000;
+        if (rand.nextBoolean()) {
+          Assert.assertEquals(expected.add(v), set.add(v));
+        } else {
+          Assert.assertEquals(expected.remove(v), set.remove(v));
+        }
+        Assert.assertEquals(expected.size(), set.size());
+      }
+
+      for (long v = -1000; v < 1000; v++) {
+        Assert.assertEquals(expected.contains(v), set.contains(v));
+      }
+
+      set.clear();
+      expected.clear();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.fluo.accumulo.iterators;
+
+import java.io.IOException;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RollbackCheckIteratorTest {
+
+  RollbackCheckIterator newRCI(TestData input, Long lockTime) {
+    RollbackCheckIterator rci = new RollbackCheckIterator();
+
+    IteratorEnvironment env = TestIteratorEnv.create(IteratorScope.scan, false);
+
+    try {
+      IteratorSetting cfg = new IteratorSetting(10, RollbackCheckIterator.class);
+      if (lockTime == null) {
+        RollbackCheckIterator.setLocktimeFromRange(cfg);
+      } else {
+        RollbackCheckIterator.setLocktime(cfg, lockTime);
+      }
+      rci.init(input.getIterator(), cfg.getOptions(), env);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return rci;
+  }
+
+  private static Range columnRange(String row, long lockTime) {
+    Key start = new Key(row, "f", "q", lockTime);
+    return new Range(start, true, start.followingKey(PartialKey.ROW_COLFAM_COLQUAL_COLVIS), false);
+  }
+
+  private static Range columnRange(String row) {
+    return new Range(new Key(row, "f", "q"), true,
+        new Key(row, "f", "q").followingKey(PartialKey.ROW_COLFAM_COLQUAL_COLVIS), false);
+  }
+
+  @Test
+  public void testLocktimeFromRange() {
+    TestData input = new TestData();
+
+    // committed
+    input.add("0 f q TX_DONE 16", "11");
+    input.add("0 f q WRITE 16", "11 PRIMARY");
+    input.add("0 f q LOCK 11", "0 f q");
+    input.add("0 f q DATA 11", "15");
+
+    // rolled back
+    input.add("1 f q DEL_LOCK 11", "ABORT PRIMARY");
+    input.add("1 f q LOCK 11", "1 f q");
+
+    // still locked
+    input.add("2 f q WRITE 9", "5 PRIMARY");
+    input.add("2 f q LOCK 11", "2 f q");
+
+    // locked by another transaction
+    input.add("3 f q LOCK 13", "3 f q");
+    input.add("3 f q DEL_LOCK 11", "ABORT PRIMARY");
+    input.add("3 f q LOCK 11", "3 f q");
+
+    for (String row : new String[] {"0", "1", "2", "3"}) {
+      for (long lockTime : new long[] {5, 11, 13}) {
+        TestData expected = new TestData(newRCI(input, lockTime), columnRange(row));
+        TestData output = new TestData(newRCI(input, null), columnRange(row, lockTime), true);
+        Assert.assertEquals(row + " " + lockTime, expected, output);
+      }
+    }
+
+    TestData expected = new TestData().add("1 f q DEL_LOCK 11", "ABORT PRIMARY");
+    Assert.assertEquals(expected, new TestData(newRCI(input, null), columnRange("1", 11)));
+
+    expected = new TestData().add("2 f q LOCK 11", "2 f q");
+    Assert.assertEquals(expected, new TestData(newRCI(input, null), columnRange("2", 11)));
+  }
+}
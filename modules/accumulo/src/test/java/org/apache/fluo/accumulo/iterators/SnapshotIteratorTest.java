@@ -24,8 +24,6 @@ import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
-import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
-import org.apache.accumulo.core.iterators.SortedMapIterator;
 import org.apache.fluo.accumulo.util.ColumnType;
 import org.junit.Assert;
 import org.junit.Test;
@@ -41,8 +39,7 @@ public class SnapshotIteratorTest {
     IteratorEnvironment env = TestIteratorEnv.create(IteratorScope.scan, true);
 
     try {
-      SortedKeyValueIterator<Key, Value> source = new SortedMapIterator(input.data);
-      si.init(source, options, env);
+      si.init(input.getIterator(), options, env);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -313,6 +310,47 @@ public class SnapshotIteratorTest {
     }
   }
 
+  @Test
+  public void testLongHistorySkipping() {
+    TestData input = new TestData();
+
+    for (int i = 0; i < 1000; i++) {
+      int startTs = 10 + i * 10;
+      int commitTs = startTs + 5;
+      input.add("0 f q TX_DONE " + commitTs, "" + startTs);
+      input.add("0 f q WRITE " + commitTs, "" + startTs + " PRIMARY");
+      input.add("0 f q DEL_LOCK " + startTs, "" + commitTs + " PRIMARY");
+      input.add("0 f q DEL_RLOCK " + (startTs + 1), "" + (startTs + 2));
+      input.add("0 f q RLOCK " + (startTs + 1), " 0 f q");
+      input.add("0 f q LOCK " + startTs, "0 f q");
+      input.add("0 f q DATA " + startTs, "v" + i);
+    }
+
+    input.add("1 f q WRITE 16", "11");
+    input.add("1 f q DATA 11", "15");
+
+    TestData output = new TestData(newSI(input, 20000, false), new Range());
+    TestData expected = new TestData();
+    expected.add("0 f q DATA 10000", "v999");
+    expected.add("1 f q DATA 11", "15");
+    Assert.assertEquals(expected, output);
+    // skipping the TX_DONE entries steps through 11 before seeking, after that the column is known
+    // to have a long history and the WRITE, DEL_LOCK, LOCK, DATA and next column are seeked to
+    // directly. The remaining 2 are for the second column.
+    Assert.assertEquals(13, input.counter.nextCalls);
+    Assert.assertEquals(6, input.counter.seeks);
+
+    input.counter.reset();
+    output = new TestData(newSI(input, 5000, false), new Range());
+    expected = new TestData();
+    expected.add("0 f q DATA 4990", "v498");
+    expected.add("1 f q DATA 11", "15");
+    Assert.assertEquals(expected, output);
+    // also seeks past the WRITE entries newer than the snapshot
+    Assert.assertEquals(13, input.counter.nextCalls);
+    Assert.assertEquals(7, input.counter.seeks);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testNegativeTime() {
     SnapshotIterator.setSnaptime(null, -3);
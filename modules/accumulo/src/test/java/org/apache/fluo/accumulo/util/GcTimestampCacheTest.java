@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.accumulo.util;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests GcTimestampCache
+ */
+public class GcTimestampCacheTest {
+
+  /**
+   * Returns the current timestamp instead of reading Zookeeper, or fails when it is negative.
+   */
+  private static class TestCache extends GcTimestampCache {
+    volatile long timestamp = 5;
+    volatile boolean changeWhileReading = false;
+    int reads = 0;
+
+    TestCache() {
+      super("localhost");
+    }
+
+    @Override
+    long readGcTimestamp() throws KeeperException {
+      reads++;
+      if (timestamp < 0) {
+        throw new KeeperException.ConnectionLossException();
+      }
+      if (changeWhileReading) {
+        // the node changes after it was read, but before the read time is set
+        long read = timestamp;
+        timestamp++;
+        changed();
+        return read;
+      }
+      return timestamp;
+    }
+
+    void changed() {
+      watcher.process(new WatchedEvent(EventType.NodeDataChanged, KeeperState.SyncConnected,
+          ZookeeperPath.ORACLE_GC_TIMESTAMP));
+    }
+  }
+
+  @Test
+  public void testExpiry() throws Exception {
+    TestCache cache = new TestCache();
+
+    Assert.assertEquals(5, cache.get(60000));
+    cache.timestamp = 7;
+    // without a watch event the cached value is used until it is older than the max age
+    Assert.assertEquals(5, cache.get(60000));
+    Assert.assertEquals(1, cache.reads);
+
+    Thread.sleep(20);
+    Assert.assertEquals(7, cache.get(10));
+    Assert.assertEquals(2, cache.reads);
+
+    // a max age of 0 always reads
+    Assert.assertEquals(7, cache.get(0));
+    Assert.assertEquals(7, cache.get(0));
+    Assert.assertEquals(4, cache.reads);
+  }
+
+  @Test
+  public void testRefresh() {
+    TestCache cache = new TestCache();
+
+    Assert.assertEquals(5, cache.get(60000));
+    cache.timestamp = 7;
+    cache.changed();
+    Assert.assertEquals(7, cache.get(60000));
+    Assert.assertEquals(7, cache.get(60000));
+    Assert.assertEquals(2, cache.reads);
+  }
+
+  @Test
+  public void testReadFailure() {
+    TestCache cache = new TestCache();
+
+    cache.timestamp = -1;
+    Assert.assertEquals(ZookeeperUtil.OLDEST_POSSIBLE, cache.get(60000));
+
+    // a failed read is not cached
+    cache.timestamp = 5;
+    Assert.assertEquals(5, cache.get(60000));
+    Assert.assertEquals(2, cache.reads);
+  }
+
+  @Test
+  public void testChangeWhileReading() {
+    TestCache cache = new TestCache();
+
+    cache.changeWhileReading = true;
+    Assert.assertEquals(5, cache.get(60000));
+    cache.changeWhileReading = false;
+
+    // the watch event during the read is not lost, so the new value is read
+    Assert.assertEquals(6, cache.get(60000));
+    Assert.assertEquals(6, cache.get(60000));
+    Assert.assertEquals(2, cache.reads);
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.api.observer;
+
+import java.util.List;
+
+import org.apache.fluo.api.client.TransactionBase;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.Observer.NotificationType;
+
+/**
+ * Implemented by users to process multiple notifications on the same {@link Column} in a single
+ * transaction. This is useful for observers that make many small updates to a few shared rows, like
+ * counters, where the cost of a transaction per notification dominates.
+ *
+ * <p>
+ * Batch observers can only observe columns with {@link NotificationType#WEAK} notifications. If the
+ * transaction for a batch fails to commit because of a collision, each notification in the batch is
+ * processed again in its own transaction, so the batch passed to this method may have a single row.
+ *
+ * @see ObserverProvider.Registry.ObserverArgument#useBatchObserver(BatchObserver)
+ * @since 1.3.0
+ */
+@FunctionalInterface
+public interface BatchObserver {
+
+  /**
+   * Implemented by users to process a batch of notifications. After this method returns, the
+   * {@link TransactionBase} will be committed and closed by Fluo. All notifications in the batch
+   * are considered processed if and only if the transaction commits.
+   *
+   * @param tx Used to read and write to Fluo
+   * @param rows The distinct rows where a notification occurred for the column
+   * @param col The observed column
+   */
+  void process(TransactionBase tx, List<Bytes> rows, Column col) throws Exception;
+}
@@ -51,4 +51,13 @@ class ColumnProviderRegistry implements ObserverProvider.Registry.ObserverArgume
     useObserver(observer);
   }
 
+  @Override
+  public void useBatchObserver(BatchObserver observer) {
+    if (nt != NotificationType.WEAK) {
+      throw new IllegalArgumentException(
+          "Batch observer registered for column " + col + " that is not weakly notified");
+    }
+    colRegistry.accept(col, nt);
+  }
+
 }
@@ -98,6 +98,23 @@ public interface ObserverProvider {
        * </pre>
        */
       void useStrObserver(StringObserver observer);
+
+      /**
+       * Calling this method registers the given batch observer using the parameters previously
+       * passed to the Fluent API. Batch observers can only be registered for columns with
+       * {@link NotificationType#WEAK} notifications.
+       *
+       * <p>
+       * The default implementation throws {@link UnsupportedOperationException}, so that
+       * implementations of this interface written before 1.3.0 still compile. The registries Fluo
+       * passes to {@link ObserverProvider#provide(Registry, Context)} support batch observers.
+       *
+       * @since 1.3.0
+       */
+      default void useBatchObserver(BatchObserver observer) {
+        throw new UnsupportedOperationException(
+            "Batch observers are not supported by " + getClass().getName());
+      }
     }
 
     /**
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import org.apache.accumulo.core.client.sample.SamplerConfiguration;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.security.Authorizations;
+
+/**
+ * Minimal iterator environment for running Fluo's iterators outside of a tablet server. Only the
+ * scope and compaction type are supported.
+ */
+class BenchmarkIteratorEnv implements IteratorEnvironment {
+
+  private final IteratorScope scope;
+  private final boolean fullMajc;
+
+  BenchmarkIteratorEnv(IteratorScope scope, boolean fullMajc) {
+    this.scope = scope;
+    this.fullMajc = fullMajc;
+  }
+
+  @Override
+  public IteratorScope getIteratorScope() {
+    return scope;
+  }
+
+  @Override
+  public boolean isFullMajorCompaction() {
+    return fullMajc;
+  }
+
+  @Override
+  public SortedKeyValueIterator<Key, Value> reserveMapFileReader(String mapFileName) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public org.apache.accumulo.core.conf.AccumuloConfiguration getConfig() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isUserCompaction() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void registerSideChannel(SortedKeyValueIterator<Key, Value> iter) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Authorizations getAuthorizations() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public IteratorEnvironment cloneWithSamplingEnabled() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isSamplingEnabled() {
+    return false;
+  }
+
+  @Override
+  public SamplerConfiguration getSamplerConfiguration() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fluo.api.data.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creating, comparing and hashing {@link Bytes}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BytesBenchmark {
+
+  @Param({"8", "32", "256"})
+  public int size;
+
+  private byte[] data;
+  private String str;
+  private Bytes bytes1;
+  private Bytes bytes2;
+
+  @Setup
+  public void setup() {
+    Random rand = new Random(42);
+    data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      // printable ascii so the string and byte forms have the same length
+      data[i] = (byte) ('a' + rand.nextInt(26));
+    }
+    str = new String(data, StandardCharsets.UTF_8);
+
+    bytes1 = Bytes.of(data);
+    // same content as bytes1 except the last byte, so comparisons must look at every byte
+    byte[] data2 = data.clone();
+    data2[size - 1]++;
+    bytes2 = Bytes.of(data2);
+  }
+
+  @Benchmark
+  public Bytes createFromArray() {
+    return Bytes.of(data);
+  }
+
+  @Benchmark
+  public Bytes createFromString() {
+    return Bytes.of(str);
+  }
+
+  @Benchmark
+  public int compareTo() {
+    return bytes1.compareTo(bytes2);
+  }
+
+  @Benchmark
+  public boolean equalTo() {
+    return bytes1.equals(bytes2);
+  }
+
+  @Benchmark
+  public int hash() {
+    // Bytes caches its hash code, so a new object is needed to measure computing it
+    return Bytes.of(data).hashCode();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.core.util.CachedColumnConverter;
+import org.apache.fluo.core.util.ColumnUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares converting Accumulo keys to columns with {@link ColumnUtil#convert(Key)} and with a
+ * {@link CachedColumnConverter}, for both cached and uncached columns.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnConversionBenchmark {
+
+  @Param({"10"})
+  public int numColumns;
+
+  private Key[] keys;
+  private CachedColumnConverter cachedConverter;
+  private CachedColumnConverter emptyConverter;
+
+  @Setup
+  public void setup() {
+    List<Column> columns = new ArrayList<>();
+    keys = new Key[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      Column col = new Column("family" + i, "qualifier" + i);
+      columns.add(col);
+      keys[i] = new Key(("row" + i).getBytes(StandardCharsets.UTF_8), col.getFamily().toArray(),
+          col.getQualifier().toArray(), new byte[0], 42L);
+    }
+
+    cachedConverter = new CachedColumnConverter(columns);
+    emptyConverter = new CachedColumnConverter(new ArrayList<>());
+  }
+
+  @Benchmark
+  public void convert(Blackhole bh) {
+    for (Key key : keys) {
+      bh.consume(ColumnUtil.convert(key));
+    }
+  }
+
+  @Benchmark
+  public void cachedHit(Blackhole bh) {
+    for (Key key : keys) {
+      bh.consume(cachedConverter.apply(key));
+    }
+  }
+
+  @Benchmark
+  public void cachedMiss(Blackhole bh) {
+    for (Key key : keys) {
+      bh.consume(emptyConverter.apply(key));
+    }
+  }
+}
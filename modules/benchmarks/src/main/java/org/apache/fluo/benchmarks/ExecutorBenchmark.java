@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fluo.core.util.FluoExecutors;
+import org.apache.fluo.core.util.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares fixed pools of platform and virtual threads, created the same way as the worker and
+ * loader pools, running tasks that block like an observer doing a snapshot read. Virtual threads
+ * require running the benchmark on Java 21 or later, otherwise the virtual case fails. Run with
+ * {@code -prof gc} to compare memory allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutorBenchmark {
+
+  private static final int NUM_TASKS = 1000;
+
+  @Param({"false", "true"})
+  public boolean virtual;
+
+  @Param({"64", "1024"})
+  public int threads;
+
+  // simulated latency of a read from Accumulo
+  @Param({"1"})
+  public long blockMillis;
+
+  private ExecutorService executor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if (virtual && !VirtualThreads.isSupported()) {
+      throw new IllegalStateException(
+          "Virtual threads not supported by Java " + System.getProperty("java.version"));
+    }
+    executor = FluoExecutors.newFixedThreadPool(threads, "bench", virtual);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_TASKS)
+  public void blockingTasks() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(NUM_TASKS);
+    for (int i = 0; i < NUM_TASKS; i++) {
+      executor.execute(() -> {
+        try {
+          Thread.sleep(blockMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          latch.countDown();
+        }
+      });
+    }
+    latch.await();
+  }
+}
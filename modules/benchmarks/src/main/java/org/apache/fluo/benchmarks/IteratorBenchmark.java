@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.fluo.accumulo.iterators.GarbageCollectionIterator;
+import org.apache.fluo.accumulo.iterators.SnapshotIterator;
+import org.apache.fluo.accumulo.util.ColumnType;
+import org.apache.fluo.accumulo.values.DelLockValue;
+import org.apache.fluo.accumulo.values.LockValue;
+import org.apache.fluo.accumulo.values.WriteValue;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full pass of {@link SnapshotIterator} and {@link GarbageCollectionIterator} over
+ * synthetic data. Each column has a history of committed transactions, where every transaction left
+ * behind data, lock, delete lock and write entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IteratorBenchmark {
+
+  // must match GarbageCollectionIterator.GC_TIMESTAMP_OPT, setting it avoids reading Zookeeper
+  private static final String GC_TIMESTAMP_OPT = "timestamp.gc";
+
+  @Param({"100"})
+  public int rows;
+
+  @Param({"10"})
+  public int columnsPerRow;
+
+  @Param({"1", "10", "50"})
+  public int versions;
+
+  private TreeMap<Key, Value> data;
+  private Map<String, String> snapshotOptions;
+  private Map<String, String> gcOptions;
+
+  @Setup
+  public void setup() {
+    data = new TreeMap<>();
+
+    Bytes primaryRow = Bytes.of("r0000");
+    Column primaryCol = new Column("f", "q0");
+
+    for (int r = 0; r < rows; r++) {
+      byte[] row = String.format("r%04d", r).getBytes(StandardCharsets.UTF_8);
+      for (int c = 0; c < columnsPerRow; c++) {
+        byte[] fam = "f".getBytes(StandardCharsets.UTF_8);
+        byte[] qual = ("q" + c).getBytes(StandardCharsets.UTF_8);
+        for (int v = 0; v < versions; v++) {
+          long startTs = 10 + v * 10;
+          long commitTs = startTs + 5;
+
+          put(row, fam, qual, ColumnType.DATA.encode(startTs),
+              ("v" + v).getBytes(StandardCharsets.UTF_8));
+          put(row, fam, qual, ColumnType.LOCK.encode(startTs),
+              LockValue.encode(primaryRow, primaryCol, true, false, false, 1L));
+          put(row, fam, qual, ColumnType.DEL_LOCK.encode(startTs),
+              DelLockValue.encodeCommit(commitTs, false));
+          put(row, fam, qual, ColumnType.WRITE.encode(commitTs),
+              WriteValue.encode(startTs, false, false));
+        }
+      }
+    }
+
+    long latestTs = 10 + versions * 10;
+
+    IteratorSetting snapshotCfg = new IteratorSetting(10, SnapshotIterator.class);
+    SnapshotIterator.setSnaptime(snapshotCfg, latestTs);
+    snapshotOptions = snapshotCfg.getOptions();
+
+    // half of each column's history is older than the gc timestamp and can be dropped
+    gcOptions = new HashMap<>();
+    gcOptions.put(GC_TIMESTAMP_OPT, Long.toString(10 + (versions / 2) * 10));
+  }
+
+  private void put(byte[] row, byte[] fam, byte[] qual, long ts, byte[] val) {
+    data.put(new Key(row, fam, qual, new byte[0], ts), new Value(val));
+  }
+
+  private static int consume(SortedKeyValueIterator<Key, Value> iter) throws IOException {
+    iter.seek(new Range(), Collections.emptySet(), false);
+    int count = 0;
+    while (iter.hasTop()) {
+      count++;
+      iter.next();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int snapshotScan() throws IOException {
+    SnapshotIterator iter = new SnapshotIterator();
+    iter.init(new SortedMapIterator(data), snapshotOptions,
+        new BenchmarkIteratorEnv(IteratorScope.scan, false));
+    return consume(iter);
+  }
+
+  @Benchmark
+  public int gcFullMajc() throws IOException {
+    GarbageCollectionIterator iter = new GarbageCollectionIterator();
+    iter.init(new SortedMapIterator(data), gcOptions,
+        new BenchmarkIteratorEnv(IteratorScope.majc, true));
+    return consume(iter);
+  }
+
+  @Benchmark
+  public int gcPartialMajc() throws IOException {
+    GarbageCollectionIterator iter = new GarbageCollectionIterator();
+    iter.init(new SortedMapIterator(data), gcOptions,
+        new BenchmarkIteratorEnv(IteratorScope.majc, false));
+    return consume(iter);
+  }
+}
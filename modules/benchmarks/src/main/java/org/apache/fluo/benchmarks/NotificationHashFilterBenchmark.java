@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.fluo.accumulo.iterators.NotificationHashFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link NotificationHashFilter#accept(ByteSequence, ByteSequence, int, int)}, which is
+ * called for every notification scanned by every worker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotificationHashFilterBenchmark {
+
+  private static final int NUM_NOTIFICATIONS = 1000;
+
+  private ByteSequence[] rows;
+  private ByteSequence[] qualifiers;
+
+  @Setup
+  public void setup() {
+    rows = new ByteSequence[NUM_NOTIFICATIONS];
+    qualifiers = new ByteSequence[NUM_NOTIFICATIONS];
+    for (int i = 0; i < NUM_NOTIFICATIONS; i++) {
+      rows[i] = new ArrayByteSequence(
+          String.format("%08x:document", i * 7919).getBytes(StandardCharsets.UTF_8));
+      // notification qualifiers are an encoded family and qualifier
+      qualifiers[i] =
+          new ArrayByteSequence(("content\u0000hash" + (i % 10)).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Benchmark
+  public void accept(Blackhole bh) {
+    for (int i = 0; i < NUM_NOTIFICATIONS; i++) {
+      bh.consume(NotificationHashFilter.accept(rows[i], qualifiers[i], 7, 3));
+    }
+  }
+}
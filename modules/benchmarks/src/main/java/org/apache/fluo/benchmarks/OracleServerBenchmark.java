@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.accumulo.minicluster.MiniAccumuloCluster;
+import org.apache.accumulo.minicluster.MiniAccumuloConfig;
+import org.apache.fluo.api.client.FluoAdmin;
+import org.apache.fluo.api.client.FluoAdmin.InitializationOptions;
+import org.apache.fluo.api.client.FluoFactory;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.oracle.OracleServer;
+import org.apache.fluo.core.thrift.Stamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link OracleServer#getTimestamps(String, int)} called directly by an increasing number
+ * of threads, showing how well the oracle scales under contention. The oracle runs against a
+ * MiniAccumuloCluster, because it persists its timestamp allocations in Zookeeper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OracleServerBenchmark {
+
+  private static final String USER = "root";
+  private static final String PASSWORD = "secret";
+
+  private Path dataDir;
+  private MiniAccumuloCluster cluster;
+  private Environment env;
+  private OracleServer oserver;
+  private String appId;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    dataDir = Files.createTempDirectory("fluo-oracle-bench");
+    cluster = new MiniAccumuloCluster(new MiniAccumuloConfig(dataDir.toFile(), PASSWORD));
+    cluster.start();
+
+    FluoConfiguration config = new FluoConfiguration();
+    config.setApplicationName("oracle-bench");
+    config.setAccumuloInstance(cluster.getInstanceName());
+    config.setAccumuloUser(USER);
+    config.setAccumuloPassword(PASSWORD);
+    config.setAccumuloZookeepers(cluster.getZooKeepers());
+    config.setInstanceZookeepers(cluster.getZooKeepers() + "/fluo");
+    config.setAccumuloTable("fluo");
+
+    try (FluoAdmin admin = FluoFactory.newAdmin(config)) {
+      admin.initialize(new InitializationOptions());
+    }
+
+    env = new Environment(config);
+    oserver = new OracleServer(env);
+    oserver.start();
+
+    while (!oserver.isLeader()) {
+      Thread.sleep(100);
+    }
+
+    appId = env.getFluoApplicationID();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws Exception {
+    oserver.stop();
+    env.close();
+    cluster.stop();
+    try (Stream<Path> paths = Files.walk(dataDir)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Stamps getTimestamps1Thread() throws Exception {
+    return oserver.getTimestamps(appId, 1);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Stamps getTimestamps4Threads() throws Exception {
+    return oserver.getTimestamps(appId, 1);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Stamps getTimestamps16Threads() throws Exception {
+    return oserver.getTimestamps(appId, 1);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Condition;
+import org.apache.fluo.accumulo.iterators.PrewriteIterator;
+import org.apache.fluo.accumulo.util.ColumnType;
+import org.apache.fluo.accumulo.values.LockValue;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.core.util.ConditionalFlutation;
+import org.apache.fluo.core.util.FluoCondition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the conditional mutation for prewriting a row. This mirrors what
+ * TransactionImpl.prewrite() does for a write to each column in a row. Columns have no visibility,
+ * so no {@code Environment} is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PrewriteBenchmark {
+
+  @Param({"1", "10"})
+  public int columnsPerRow;
+
+  @Param({"16", "1024"})
+  public int valueSize;
+
+  private final long startTs = 1_000_000L;
+  private final long transactorId = 7L;
+
+  private Bytes row;
+  private List<Column> columns;
+  private Bytes value;
+  private Bytes primaryRow;
+  private Column primaryColumn;
+
+  @Setup
+  public void setup() {
+    row = Bytes.of("row000123");
+    columns = new ArrayList<>();
+    for (int i = 0; i < columnsPerRow; i++) {
+      columns.add(new Column("family", "qualifier" + i));
+    }
+    value = Bytes.of(new byte[valueSize]);
+    primaryRow = Bytes.of("row000001");
+    primaryColumn = new Column("family", "qualifier0");
+  }
+
+  @Benchmark
+  public ConditionalFlutation prewriteRow() {
+    ConditionalFlutation cm = null;
+
+    for (Column col : columns) {
+      IteratorSetting iterConf = new IteratorSetting(10, PrewriteIterator.class);
+      PrewriteIterator.setSnaptime(iterConf, startTs);
+
+      Condition cond = new FluoCondition(null, col).setIterators(iterConf);
+
+      if (cm == null) {
+        cm = new ConditionalFlutation(null, row, cond);
+      } else {
+        cm.addCondition(cond);
+      }
+
+      cm.put(col, ColumnType.DATA.encode(startTs), value.toArray());
+      cm.put(col, ColumnType.LOCK.encode(startTs),
+          LockValue.encode(primaryRow, primaryColumn, true, false, false, transactorId));
+    }
+
+    return cm;
+  }
+}
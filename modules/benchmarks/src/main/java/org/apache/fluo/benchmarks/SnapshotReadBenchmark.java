@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.fluo.accumulo.iterators.SnapshotIterator;
+import org.apache.fluo.accumulo.util.ColumnType;
+import org.apache.fluo.accumulo.util.ReadLockUtil;
+import org.apache.fluo.accumulo.values.DelLockValue;
+import org.apache.fluo.accumulo.values.DelReadLockValue;
+import org.apache.fluo.accumulo.values.LockValue;
+import org.apache.fluo.accumulo.values.ReadLockValue;
+import org.apache.fluo.accumulo.values.WriteValue;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of reading a single hot column through {@link SnapshotIterator} as the
+ * amount of uncollected history in the column grows. Every transaction in the history left behind
+ * transaction done, write, delete lock, lock, data and read lock entries, like a primary column
+ * that is frequently updated and read before a compaction runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SnapshotReadBenchmark {
+
+  @Param({"1", "10", "100", "1000", "10000"})
+  public int historyDepth;
+
+  private TreeMap<Key, Value> data;
+  private Range hotColumn;
+  private Map<String, String> latestOptions;
+  private Map<String, String> oldOptions;
+
+  @Setup
+  public void setup() {
+    data = new TreeMap<>();
+
+    Bytes primaryRow = Bytes.of("r1");
+    Column primaryCol = new Column("f", "q");
+    byte[] fam = "f".getBytes(StandardCharsets.UTF_8);
+    byte[] qual = "q".getBytes(StandardCharsets.UTF_8);
+    byte[] lockVal = LockValue.encode(primaryRow, primaryCol, true, false, false, 1L);
+    byte[] rlockVal = ReadLockValue.encode(primaryRow, primaryCol, 1L);
+
+    // neighboring rows with short histories, so the scan of the hot column is not at the edges
+    for (String row : new String[] {"r0", "r1", "r2"}) {
+      int versions = row.equals("r1") ? historyDepth : 1;
+      byte[] rowBytes = row.getBytes(StandardCharsets.UTF_8);
+      for (int v = 0; v < versions; v++) {
+        long startTs = 10 + v * 10;
+        long commitTs = startTs + 5;
+
+        put(rowBytes, fam, qual, ColumnType.TX_DONE.encode(commitTs), new byte[0]);
+        put(rowBytes, fam, qual, ColumnType.WRITE.encode(commitTs),
+            WriteValue.encode(startTs, true, false));
+        put(rowBytes, fam, qual, ColumnType.DEL_LOCK.encode(startTs),
+            DelLockValue.encodeCommit(commitTs, true));
+        long readTs = startTs + 1;
+        put(rowBytes, fam, qual, ColumnType.RLOCK.encode(ReadLockUtil.encodeTs(readTs, false)),
+            rlockVal);
+        put(rowBytes, fam, qual, ColumnType.RLOCK.encode(ReadLockUtil.encodeTs(readTs, true)),
+            DelReadLockValue.encodeCommit(readTs + 1));
+        put(rowBytes, fam, qual, ColumnType.LOCK.encode(startTs), lockVal);
+        put(rowBytes, fam, qual, ColumnType.DATA.encode(startTs),
+            ("v" + v).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    hotColumn = Range.exact("r1", "f", "q");
+
+    IteratorSetting latestCfg = new IteratorSetting(10, SnapshotIterator.class);
+    SnapshotIterator.setSnaptime(latestCfg, 10 + historyDepth * 10);
+    latestOptions = latestCfg.getOptions();
+
+    // a long running transaction that started half way through the column's history
+    IteratorSetting oldCfg = new IteratorSetting(10, SnapshotIterator.class);
+    SnapshotIterator.setSnaptime(oldCfg, 10 + (historyDepth / 2) * 10 + 8);
+    oldOptions = oldCfg.getOptions();
+  }
+
+  private void put(byte[] row, byte[] fam, byte[] qual, long ts, byte[] val) {
+    data.put(new Key(row, fam, qual, new byte[0], ts), new Value(val));
+  }
+
+  private int read(Map<String, String> options) throws IOException {
+    SnapshotIterator iter = new SnapshotIterator();
+    iter.init(new SortedMapIterator(data), options,
+        new BenchmarkIteratorEnv(IteratorScope.scan, false));
+    iter.seek(hotColumn, Collections.emptySet(), false);
+    int size = 0;
+    while (iter.hasTop()) {
+      size += iter.getTopValue().getSize();
+      iter.next();
+    }
+    return size;
+  }
+
+  @Benchmark
+  public int readLatest() throws IOException {
+    return read(latestOptions);
+  }
+
+  @Benchmark
+  public int readOld() throws IOException {
+    return read(oldOptions);
+  }
+}
@@ -101,7 +101,8 @@ public abstract class AppRunner {
   public long countNotifications(Environment env) {
     Scanner scanner = null;
     try {
-      scanner = env.getAccumuloClient().createScanner(env.getTable(), env.getAuthorizations());
+      scanner = env.getAccumuloClient().createScanner(env.getNotificationTable(),
+          env.getAuthorizations());
     } catch (TableNotFoundException e) {
       log.error("An exception was thrown -", e);
       throw new FluoException(e);
@@ -41,16 +41,16 @@ public class FluoWait {
 
   private static List<TableRange> getRanges(Environment env)
       throws TableNotFoundException, AccumuloSecurityException, AccumuloException {
-    List<TableRange> ranges =
-        TableRange.fromTexts(env.getAccumuloClient().tableOperations().listSplits(env.getTable()));
+    List<TableRange> ranges = TableRange.fromTexts(
+        env.getAccumuloClient().tableOperations().listSplits(env.getNotificationTable()));
     Collections.shuffle(ranges);
     return ranges;
   }
 
   private static boolean hasNotifications(Environment env, TableRange range)
       throws TableNotFoundException {
-    try (Scanner scanner =
-        env.getAccumuloClient().createScanner(env.getTable(), env.getAuthorizations())) {
+    try (Scanner scanner = env.getAccumuloClient().createScanner(env.getNotificationTable(),
+        env.getAuthorizations())) {
       scanner.setRange(range.getRange());
       Notification.configureScanner(scanner);
 
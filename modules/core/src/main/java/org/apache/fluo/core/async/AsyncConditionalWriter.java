@@ -15,62 +15,248 @@
 
 package org.apache.fluo.core.async;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableList.Builder;
 import org.apache.accumulo.core.client.ConditionalWriter;
 import org.apache.accumulo.core.client.ConditionalWriter.Result;
+import org.apache.accumulo.core.data.Condition;
 import org.apache.accumulo.core.data.ConditionalMutation;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.data.Bytes;
 import org.apache.fluo.core.impl.Environment;
 import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.util.FluoExecutors;
+import org.apache.fluo.core.util.Hex;
 import org.apache.fluo.core.util.Limit;
+import org.apache.fluo.core.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Writes conditional mutations asynchronously. Mutations from concurrent calls to
+ * {@link #apply(Collection)} are gathered into groups that are written to the conditional writer
+ * together, and the results are handed back to each caller's future. This lets many small
+ * transactions share a write call and a thread waiting on its results.
+ *
+ * <p>
+ * Callers block when the estimated bytes of mutations queued or being written exceed the configured
+ * memory limit. Callers that already reserved memory for their mutations, like transactions
+ * committed through the {@link CommitManager}, are not counted against this limit.
+ */
 public class AsyncConditionalWriter {
 
+  private static final Logger log = LoggerFactory.getLogger(AsyncConditionalWriter.class);
+
+  // the maximum number of mutations written in one group
+  private static final int MAX_GROUP_SIZE = 1000;
+
+  private static class PendingWrite {
+    final Collection<ConditionalMutation> mutations;
+    final CompletableFuture<Iterator<Result>> future = new CompletableFuture<>();
+    final List<Result> results;
+    final int memory;
+    final int limited;
+
+    PendingWrite(Collection<ConditionalMutation> mutations, int memory, int limited) {
+      this.mutations = mutations;
+      this.results = new ArrayList<>(mutations.size());
+      this.memory = memory;
+      this.limited = limited;
+    }
+  }
+
   private final ConditionalWriter cw;
   private final ExecutorService es;
-  private final Limit semaphore;
-
+  private final Limit memoryLimit;
+  private final AtomicLong memory = new AtomicLong(0);
+  private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+  private final long groupWindow;
+  private final boolean taskPerGroup;
 
   public AsyncConditionalWriter(Environment env, ConditionalWriter cw) {
+    this(env.getConfiguration(), cw);
+  }
+
+  AsyncConditionalWriter(FluoConfiguration conf, ConditionalWriter cw) {
     this.cw = cw;
-    int numThreads = env.getConfiguration().getInt(FluoConfigurationImpl.ASYNC_CW_THREADS,
+    int numThreads = conf.getInt(FluoConfigurationImpl.ASYNC_CW_THREADS,
         FluoConfigurationImpl.ASYNC_CW_THREADS_DEFAULT);
-    int permits = env.getConfiguration().getInt(FluoConfigurationImpl.ASYNC_CW_LIMIT,
-        FluoConfigurationImpl.ASYNC_CW_LIMIT_DEFAULT);
-    this.es = FluoExecutors.newFixedThreadPool(numThreads, "asyncCw");
-    // the conditional writer currently has not memory limits... give it too much and it blows out
-    // memory.. need to fix this in conditional writer
-    // for now this needs to be memory based
-    this.semaphore = new Limit(permits);
+    this.groupWindow = FluoConfigurationImpl.getAsyncCWGroupWindow(conf);
+    // With virtual threads, one thread gathers groups and each group is written by its own
+    // virtual thread, so the number of groups written at once is not limited by the thread count.
+    this.taskPerGroup =
+        FluoConfigurationImpl.getVirtualThreads(conf) && VirtualThreads.isSupported();
+    if (taskPerGroup) {
+      this.es = FluoExecutors.newVirtualThreadPerTaskExecutor("asyncCw");
+    } else {
+      this.es = FluoExecutors.newFixedThreadPool(numThreads, "asyncCw");
+    }
+    // the conditional writer currently has no memory limits... give it too much and it blows out
+    // memory, so limit the bytes handed to it here
+    this.memoryLimit = new Limit(FluoConfigurationImpl.getAsyncCWMemory(conf));
+
+    for (int i = 0; i < (taskPerGroup ? 1 : numThreads); i++) {
+      es.execute(this::writeGroups);
+    }
   }
 
   public CompletableFuture<Iterator<Result>> apply(Collection<ConditionalMutation> input) {
+    return apply(input, false);
+  }
+
+  /**
+   * @param memoryReserved true if the caller already reserved memory for the mutations, in which
+   *        case they are not counted against this writer's memory limit
+   */
+  public CompletableFuture<Iterator<Result>> apply(Collection<ConditionalMutation> input,
+      boolean memoryReserved) {
     if (input.isEmpty()) {
       return CompletableFuture.completedFuture(Collections.<Result>emptyList().iterator());
     }
 
-    semaphore.acquire(input.size());
-    Iterator<Result> iter = cw.write(input.iterator());
-    return CompletableFuture.supplyAsync(() -> {
-      try {
-        Builder<Result> imlb = ImmutableList.builder();
-        while (iter.hasNext()) {
-          Result result = iter.next();
-          imlb.add(result);
+    int size = 0;
+    for (ConditionalMutation cm : input) {
+      size = (int) Math.min(Integer.MAX_VALUE, (long) size + estimateSize(cm));
+    }
+
+    int limited = memoryReserved ? 0 : size;
+    if (limited > 0) {
+      // Limit blocks any acquire while it is exhausted, even of zero permits
+      memoryLimit.acquire(limited);
+    }
+    memory.addAndGet(size);
+    PendingWrite pending = new PendingWrite(input, size, limited);
+    queue.add(pending);
+    return pending.future;
+  }
+
+  /**
+   * @return estimated bytes of mutations currently queued or being written
+   */
+  public long getMemory() {
+    return memory.get();
+  }
+
+  static long estimateSize(ConditionalMutation cm) {
+    long size = cm.estimatedMemoryUsed();
+    for (Condition c : cm.getConditions()) {
+      size += c.getFamily().length() + c.getQualifier().length() + c.getVisibility().length();
+      if (c.getValue() != null) {
+        size += c.getValue().length();
+      }
+    }
+    return size;
+  }
+
+  private void release(PendingWrite pending) {
+    memory.addAndGet(-pending.memory);
+    if (pending.limited > 0) {
+      memoryLimit.release(pending.limited);
+    }
+  }
+
+  private void writeGroups() {
+    List<PendingWrite> group = new ArrayList<>();
+    try {
+      while (true) {
+        PendingWrite first = queue.take();
+        group.add(first);
+        int size = first.mutations.size();
+
+        // wait up to the window for more mutations to write with the first
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupWindow);
+        while (size < MAX_GROUP_SIZE) {
+          long remaining = deadline - System.nanoTime();
+          PendingWrite next =
+              remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          group.add(next);
+          size += next.mutations.size();
+        }
+
+        if (taskPerGroup) {
+          List<PendingWrite> toWrite = group;
+          int toWriteSize = size;
+          es.execute(() -> write(toWrite, toWriteSize));
+        } else {
+          write(group, size);
+        }
+        group = new ArrayList<>();
+      }
+    } catch (InterruptedException | RejectedExecutionException e) {
+      // closing, fail the writes taken from the queue that were not handed to the writer
+      for (PendingWrite pending : group) {
+        release(pending);
+        pending.future.completeExceptionally(new IllegalStateException("Writer closed"));
+      }
+    }
+  }
+
+  private void write(List<PendingWrite> group, int size) {
+    RuntimeException error = null;
+    try {
+      if (group.size() == 1) {
+        PendingWrite pending = group.get(0);
+        cw.write(pending.mutations.iterator()).forEachRemaining(pending.results::add);
+      } else {
+        // the results contain copies of the mutations written, so match them by content
+        Map<ConditionalMutation, ArrayDeque<PendingWrite>> owners = new HashMap<>();
+        List<ConditionalMutation> mutations = new ArrayList<>(size);
+        for (PendingWrite pending : group) {
+          for (ConditionalMutation cm : pending.mutations) {
+            owners.computeIfAbsent(new ConditionalMutation(cm), k -> new ArrayDeque<>())
+                .add(pending);
+            mutations.add(cm);
+          }
+        }
+
+        Iterator<Result> results = cw.write(mutations.iterator());
+        while (results.hasNext()) {
+          Result result = results.next();
+          ArrayDeque<PendingWrite> candidates =
+              owners.get(new ConditionalMutation(result.getMutation()));
+          if (candidates == null || candidates.isEmpty()) {
+            log.warn("Ignoring result for a conditional mutation that was not written, row : {}",
+                Hex.encNonAscii(Bytes.of(result.getMutation().getRow())));
+            continue;
+          }
+          candidates.remove().results.add(result);
         }
-        return imlb.build().iterator();
-      } finally {
-        semaphore.release(input.size());
       }
-    }, es);
+    } catch (RuntimeException e) {
+      log.error("Failed to write group of {} conditional mutations", size, e);
+      error = e;
+    }
+
+    // a caller whose results all arrived succeeds even if other results in the group are missing
+    for (PendingWrite pending : group) {
+      release(pending);
+      if (pending.results.size() == pending.mutations.size()) {
+        pending.future.complete(pending.results.iterator());
+      } else if (error != null) {
+        pending.future.completeExceptionally(error);
+      } else {
+        pending.future.completeExceptionally(
+            new IllegalStateException("Conditional writer returned " + pending.results.size()
+                + " results for " + pending.mutations.size() + " mutations"));
+      }
+    }
   }
 
   public void close() {
@@ -80,5 +266,12 @@ public class AsyncConditionalWriter {
     } catch (InterruptedException e) {
       throw new RuntimeException(e);
     }
+
+    List<PendingWrite> unwritten = new ArrayList<>();
+    queue.drainTo(unwritten);
+    for (PendingWrite pending : unwritten) {
+      release(pending);
+      pending.future.completeExceptionally(new IllegalStateException("Writer closed"));
+    }
   }
 }
@@ -24,4 +24,11 @@ public interface AsyncTransaction extends Transaction {
   int getSize();
 
   void commitAsync(AsyncCommitObserver commitCallback);
+
+  /**
+   * @param memoryReserved true if the caller already reserved {@link #getSize()} bytes of memory
+   *        for this commit, so that the conditional mutations it writes are not counted against the
+   *        async conditional writer's memory limit
+   */
+  void commitAsync(AsyncCommitObserver commitCallback, boolean memoryReserved);
 }
@@ -28,7 +28,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class manage asynchronous commits of transactions. It blocks when transactions currently
- * asynchronously committing are using too much memory.
+ * asynchronously committing are using too much memory. Since the memory of each transaction is
+ * reserved here, the conditional mutations written while committing it are not counted again by the
+ * {@link AsyncConditionalWriter}.
  *
  * <p>
  * This class also close transactions when finished and manages commit statistics so that each user
@@ -131,7 +133,7 @@ public class CommitManager {
     commitingTransactions.incrementAndGet();
     CQCommitObserver myAco = new CQCommitObserver(tx, aco, alias, size);
     tx.getStats().setCommitBeginTime(System.currentTimeMillis());
-    tx.commitAsync(myAco);
+    tx.commitAsync(myAco, true);
   }
 
   /**
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.async;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.exceptions.FluoException;
+import org.apache.fluo.core.exceptions.CommitUnknownException;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.fluo.core.util.FluoThreadFactory;
+
+/**
+ * Determines the outcome of commit steps whose conditional mutations had an unknown status. Each
+ * attempt first checks the state of the transaction and, when that does not decide the outcome,
+ * writes the mutation again. Attempts are separated by a backoff that starts at
+ * {@link FluoConfigurationImpl#COMMIT_UNKNOWN_BACKOFF_MIN} and doubles up to
+ * {@link FluoConfigurationImpl#COMMIT_UNKNOWN_BACKOFF_MAX} milliseconds. After the configured
+ * number of retries the state is checked one last time. If it is still undecided the outcome fails
+ * with a {@link CommitUnknownException}.
+ *
+ * <p>
+ * Outcomes that are still pending when this is closed fail with a {@link FluoException}.
+ */
+public class CommitRetryExecutor implements AutoCloseable {
+
+  private final ScheduledExecutorService executor;
+  private final int maxRetries;
+  private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+  public CommitRetryExecutor(FluoConfiguration conf) {
+    this.maxRetries = FluoConfigurationImpl.getCommitUnknownRetries(conf);
+    this.executor = Executors.newScheduledThreadPool(1, new FluoThreadFactory("commit-retries"));
+  }
+
+  /**
+   * @param check determines the outcome from the state of the transaction, completes with null when
+   *        the state does not decide it
+   * @param retry writes the mutation again, completes with null when the outcome is still unknown
+   * @param description describes what is being resolved, used in exception messages
+   */
+  public <T> CompletableFuture<T> resolve(Supplier<CompletableFuture<T>> check,
+      Supplier<CompletableFuture<T>> retry, String description) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    pending.add(future);
+    future.whenComplete((v, t) -> pending.remove(future));
+    attempt(future, check, retry, description, 0);
+    return future;
+  }
+
+  private <T> void attempt(CompletableFuture<T> future, Supplier<CompletableFuture<T>> check,
+      Supplier<CompletableFuture<T>> retry, String description, int attempt) {
+    if (future.isDone()) {
+      return;
+    }
+
+    run(check).thenCompose(outcome -> {
+      if (outcome != null) {
+        return CompletableFuture.completedFuture(outcome);
+      }
+      if (attempt >= maxRetries) {
+        CompletableFuture<T> unknown = new CompletableFuture<>();
+        unknown.completeExceptionally(new CommitUnknownException(
+            "Unable to determine outcome of " + description + " after " + attempt + " retries"));
+        return unknown;
+      }
+      return run(retry);
+    }).whenComplete((outcome, t) -> {
+      if (t != null) {
+        future.completeExceptionally(unwrap(t));
+      } else if (outcome != null) {
+        future.complete(outcome);
+      } else {
+        long delay =
+            Math.min(FluoConfigurationImpl.COMMIT_UNKNOWN_BACKOFF_MIN << Math.min(attempt, 16),
+                FluoConfigurationImpl.COMMIT_UNKNOWN_BACKOFF_MAX);
+        try {
+          executor.schedule(() -> attempt(future, check, retry, description, attempt + 1), delay,
+              TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          future.completeExceptionally(closedException(description));
+        }
+      }
+    });
+  }
+
+  private static <T> CompletableFuture<T> run(Supplier<CompletableFuture<T>> op) {
+    try {
+      return op.get();
+    } catch (RuntimeException e) {
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    while (t instanceof CompletionException && t.getCause() != null) {
+      t = t.getCause();
+    }
+    return t;
+  }
+
+  private static FluoException closedException(String description) {
+    return new FluoException("Closed while determining outcome of " + description);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    for (CompletableFuture<?> future : pending) {
+      future.completeExceptionally(closedException("commit"));
+    }
+  }
+}
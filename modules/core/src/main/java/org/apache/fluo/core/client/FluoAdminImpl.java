@@ -125,10 +125,17 @@ public class FluoAdminImpl implements FluoAdmin {
 
   private void initialize(InitializationOptions opts, AccumuloClient client)
       throws TableExistsException, AlreadyInitializedException {
+    String ntfyTable = FluoConfigurationImpl.getNotificationTable(config);
+    boolean separateNtfyTable = !ntfyTable.equals(config.getAccumuloTable());
+
     boolean tableExists = client.tableOperations().exists(config.getAccumuloTable());
     if (tableExists && !opts.getClearTable()) {
       throw new TableExistsException("Accumulo table already exists " + config.getAccumuloTable());
     }
+    boolean ntfyTableExists = separateNtfyTable && client.tableOperations().exists(ntfyTable);
+    if (ntfyTableExists && !opts.getClearTable()) {
+      throw new TableExistsException("Accumulo table already exists " + ntfyTable);
+    }
 
     // With preconditions met, it's now OK to delete table & zookeeper root (if they exist)
 
@@ -142,6 +149,16 @@ public class FluoAdminImpl implements FluoAdmin {
       }
     }
 
+    if (ntfyTableExists) {
+      logger.info("The Accumulo table '{}' will be dropped and created as requested by user",
+          ntfyTable);
+      try {
+        client.tableOperations().delete(ntfyTable);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     try {
       if (rootCurator.checkExists().forPath(appRootDir) != null) {
         logger.info("Clearing Fluo '{}' application in Zookeeper at {}",
@@ -211,6 +228,10 @@ public class FluoAdminImpl implements FluoAdmin {
       ntc.setProperties(ntcProps);
       client.tableOperations().create(config.getAccumuloTable(), ntc);
 
+      if (separateNtfyTable) {
+        createNotificationTable(client, ntfyTable, ntcProps.get(AccumuloProps.TABLE_CLASSPATH));
+      }
+
       updateSharedConfig();
     } catch (NodeExistsException nee) {
       throw new AlreadyInitializedException();
@@ -222,10 +243,40 @@ public class FluoAdminImpl implements FluoAdmin {
     }
   }
 
+  /**
+   * Creates a table that only holds notifications. It has no Fluo data, so it does not need the
+   * garbage collection iterator or summaries. It is small and compacted more often than the data
+   * table, which bounds how many deleted notifications scans have to read.
+   */
+  private void createNotificationTable(AccumuloClient client, String table, String context)
+      throws Exception {
+    Map<String, String> ntcProps = new HashMap<>();
+    if (context != null) {
+      ntcProps.put(AccumuloProps.TABLE_CLASSPATH, context);
+    }
+    ntcProps.put(AccumuloProps.TABLE_BLOCKCACHE_ENABLED, "true");
+    ntcProps.put(AccumuloProps.TABLE_DELETE_BEHAVIOR, AccumuloProps.TABLE_DELETE_BEHAVIOR_VALUE);
+    ntcProps.put(AccumuloProps.TABLE_MAJC_RATIO,
+        Double.toString(FluoConfigurationImpl.getNotificationTableMajcRatio(config)));
+    ntcProps.put(AccumuloProps.TABLE_SPLIT_THRESHOLD,
+        config.getString(FluoConfigurationImpl.NOTIFY_TABLE_SPLIT_THRESHOLD_PROP,
+            FluoConfigurationImpl.NOTIFY_TABLE_SPLIT_THRESHOLD_DEFAULT));
+
+    IteratorSetting ntfyIter =
+        new IteratorSetting(11, ColumnConstants.NOTIFY_CF.toString(), NotificationIterator.class);
+    NewTableConfiguration ntc = new NewTableConfiguration().withoutDefaultIterators();
+    ntc.attachIterator(ntfyIter,
+        EnumSet.of(IteratorUtil.IteratorScope.majc, IteratorUtil.IteratorScope.minc));
+    ntc.setProperties(ntcProps);
+    client.tableOperations().create(table, ntc);
+  }
+
   private void configureIterators(NewTableConfiguration ntc) {
     IteratorSetting gcIter =
         new IteratorSetting(10, ColumnConstants.GC_CF.toString(), GarbageCollectionIterator.class);
     GarbageCollectionIterator.setZookeepers(gcIter, config.getAppZookeepers());
+    GarbageCollectionIterator.setGcTimestampMaxAge(gcIter,
+        FluoConfigurationImpl.getGcTimestampMaxAge(config));
     // the order relative to gc iter should not matter
     IteratorSetting ntfyIter =
         new IteratorSetting(11, ColumnConstants.NOTIFY_CF.toString(), NotificationIterator.class);
@@ -265,6 +316,17 @@ public class FluoAdminImpl implements FluoAdmin {
           throw new RuntimeException(e);
         }
       }
+
+      String ntfyTable = FluoConfigurationImpl.getNotificationTable(config);
+      if (!ntfyTable.equals(config.getAccumuloTable())
+          && client.tableOperations().exists(ntfyTable)) {
+        logger.info("The Accumulo table '{}' will be dropped", ntfyTable);
+        try {
+          client.tableOperations().delete(ntfyTable);
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
     }
 
     try {
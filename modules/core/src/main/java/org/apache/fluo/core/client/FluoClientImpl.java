@@ -92,7 +92,7 @@ public class FluoClientImpl implements FluoClient {
       public void commit() {
         super.commit();
         // wait for any async mutations that transaction write to flush
-        env.getSharedResources().getBatchWriter().waitForAsyncFlush();
+        env.getSharedResources().waitForAsyncFlush();
       }
     };
     if (TracingTransaction.isTracingEnabled()) {
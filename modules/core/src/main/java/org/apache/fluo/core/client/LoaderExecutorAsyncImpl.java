@@ -31,6 +31,7 @@ import org.apache.fluo.api.metrics.MetricsReporter;
 import org.apache.fluo.core.async.AsyncCommitObserver;
 import org.apache.fluo.core.async.AsyncTransaction;
 import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.impl.TransactionImpl;
 import org.apache.fluo.core.log.TracingTransaction;
 import org.apache.fluo.core.util.Counter;
@@ -178,7 +179,8 @@ public class LoaderExecutorAsyncImpl implements LoaderExecutor {
     if (numThreads == 0) {
       this.executor = MoreExecutors.newDirectExecutorService();
     } else {
-      this.executor = FluoExecutors.newFixedThreadPool(numThreads, "loader");
+      this.executor = FluoExecutors.newFixedThreadPool(numThreads, "loader",
+          FluoConfigurationImpl.getVirtualThreads(config));
     }
   }
 
@@ -238,7 +240,7 @@ public class LoaderExecutorAsyncImpl implements LoaderExecutor {
       }
 
       // wait for any async mutations that transactions write to flush
-      env.getSharedResources().getBatchWriter().waitForAsyncFlush();
+      env.getSharedResources().waitForAsyncFlush();
     }
   }
 }
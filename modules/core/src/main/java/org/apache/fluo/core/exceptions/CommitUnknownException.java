@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.exceptions;
+
+import org.apache.fluo.api.exceptions.FluoException;
+
+/**
+ * This exception is thrown when the outcome of a commit could not be determined, for example
+ * because tablet servers kept failing. The transaction may or may not have committed. Any locks it
+ * left behind are rolled back or forward by the transactions that later encounter them.
+ */
+public class CommitUnknownException extends FluoException {
+
+  private static final long serialVersionUID = 1L;
+
+  public CommitUnknownException(String msg) {
+    super(msg);
+  }
+}
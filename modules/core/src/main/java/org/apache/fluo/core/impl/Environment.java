@@ -46,6 +46,7 @@ import org.apache.fluo.core.util.CuratorUtil;
 public class Environment implements AutoCloseable {
 
   private String table;
+  private String notificationTable;
   private Authorizations auths = new Authorizations();
   private String accumuloInstance;
   private RegisteredObservers observers;
@@ -117,6 +118,7 @@ public class Environment implements AutoCloseable {
   @VisibleForTesting
   public Environment(Environment env) throws Exception {
     this.table = env.table;
+    this.notificationTable = env.notificationTable;
     this.auths = env.auths;
     this.accumuloInstance = env.accumuloInstance;
     this.observers = env.observers;
@@ -152,6 +154,9 @@ public class Environment implements AutoCloseable {
 
       config = FluoAdminImpl.mergeZookeeperConfig(config);
 
+      // the notification table is chosen at initialization and stored in the shared config
+      notificationTable = FluoConfigurationImpl.getNotificationTable(config);
+
       // make sure not to include config passed to env, only want config from zookeeper
       appConfig = config.getAppConfiguration();
     } catch (Exception e) {
@@ -196,6 +201,18 @@ public class Environment implements AutoCloseable {
     return table;
   }
 
+  /**
+   * @return the table notifications are stored in, which is the data table unless a separate
+   *         notification table was configured at initialization
+   */
+  public String getNotificationTable() {
+    return notificationTable;
+  }
+
+  public boolean hasSeparateNotificationTable() {
+    return !notificationTable.equals(table);
+  }
+
   public AccumuloClient getAccumuloClient() {
     return client;
   }
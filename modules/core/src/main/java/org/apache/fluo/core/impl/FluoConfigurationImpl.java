@@ -17,7 +17,11 @@ package org.apache.fluo.core.impl;
 
 import java.util.concurrent.TimeUnit;
 
+import org.apache.fluo.accumulo.iterators.GarbageCollectionIterator;
 import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.worker.NotificationAdmissionPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Contains implementation-related Fluo properties that should not be exposed in the API in
@@ -25,9 +29,53 @@ import org.apache.fluo.api.config.FluoConfiguration;
  */
 public class FluoConfigurationImpl {
 
+  private static final Logger log = LoggerFactory.getLogger(FluoConfigurationImpl.class);
+
   public static final String FLUO_IMPL_PREFIX = FluoConfiguration.FLUO_PREFIX + ".impl";
 
   public static final String ORACLE_PORT_PROP = FLUO_IMPL_PREFIX + ".oracle.port";
+
+  // Number of connections each oracle client uses to request timestamps. Each connection can have
+  // one batch of timestamp requests outstanding at the oracle, so values greater than one pipeline
+  // requests instead of waiting for the previous response before sending the next batch.
+  public static final String ORACLE_CLIENT_SLOTS_PROP = FLUO_IMPL_PREFIX + ".oracle.client.slots";
+  public static final int ORACLE_CLIENT_SLOTS_DEFAULT = 1;
+
+  public static int getOracleClientSlots(FluoConfiguration conf) {
+    int slots = conf.getInt(ORACLE_CLIENT_SLOTS_PROP, ORACLE_CLIENT_SLOTS_DEFAULT);
+    if (slots <= 0) {
+      throw new IllegalArgumentException("Bad value for " + ORACLE_CLIENT_SLOTS_PROP + " " + slots);
+    }
+    return slots;
+  }
+
+  // Number of timestamps a client leases from the oracle at once for use as transaction start
+  // timestamps. Leased timestamps are handed out without contacting the oracle until the lease is
+  // exhausted or expires. A transaction may not see commits that happened after its leased start
+  // timestamp was obtained, so the lease time bounds how stale a snapshot can be. Zero disables
+  // leasing.
+  public static final String ORACLE_LEASE_SIZE_PROP = FLUO_IMPL_PREFIX + ".oracle.lease.size";
+  public static final int ORACLE_LEASE_SIZE_DEFAULT = 0;
+  public static final String ORACLE_LEASE_TIME_PROP = FLUO_IMPL_PREFIX + ".oracle.lease.time.ms";
+  public static final long ORACLE_LEASE_TIME_DEFAULT = 100;
+
+  public static int getOracleLeaseSize(FluoConfiguration conf) {
+    int size = conf.getInt(ORACLE_LEASE_SIZE_PROP, ORACLE_LEASE_SIZE_DEFAULT);
+    if (size < 0) {
+      throw new IllegalArgumentException("Bad value for " + ORACLE_LEASE_SIZE_PROP + " " + size);
+    }
+    return size;
+  }
+
+  public static long getOracleLeaseTime(FluoConfiguration conf, TimeUnit tu) {
+    long millis = conf.getLong(ORACLE_LEASE_TIME_PROP, ORACLE_LEASE_TIME_DEFAULT);
+    if (millis <= 0) {
+      throw new IllegalArgumentException(
+          "Lease time must be positive for " + ORACLE_LEASE_TIME_PROP);
+    }
+    return tu.convert(millis, TimeUnit.MILLISECONDS);
+  }
+
   public static final String WORKER_FINDER_PROP = FLUO_IMPL_PREFIX + ".worker.finder";
   public static final String WORKER_PARTITION_GROUP_SIZE =
       FLUO_IMPL_PREFIX + ".worker.finder.partition.groupSize";
@@ -40,9 +88,172 @@ public class FluoConfigurationImpl {
       FLUO_IMPL_PREFIX + ".worker.finder.maxSleep";
   public static final int NTFY_FINDER_MAX_SLEEP_TIME_DEFAULT = 5 * 60 * 1000;
 
+  // The max number of tablets a worker will concurrently scan for notifications. The number of
+  // concurrent scans adapts between 1 and this based on how many notifications are found.
+  public static final String NTFY_FINDER_SCAN_THREADS_PROP =
+      FLUO_IMPL_PREFIX + ".worker.finder.scanThreads";
+  public static final int NTFY_FINDER_SCAN_THREADS_DEFAULT = 4;
+
+  // Transactions committed by a worker pass the notifications they wrote as hints to that
+  // worker's scan task, which then scans the tablets containing them without waiting for its
+  // next scheduled scan. This is the minimum time in millis the scan task waits for more hints
+  // before acting on them.
+  public static final String NTFY_FINDER_HINT_DELAY_PROP =
+      FLUO_IMPL_PREFIX + ".worker.finder.hintDelay";
+  public static final int NTFY_FINDER_HINT_DELAY_DEFAULT = 100;
+
+  public static int getNotificationScanThreads(FluoConfiguration conf) {
+    int t = conf.getInt(NTFY_FINDER_SCAN_THREADS_PROP, NTFY_FINDER_SCAN_THREADS_DEFAULT);
+    if (t <= 0) {
+      throw new IllegalArgumentException(
+          "Bad value for " + NTFY_FINDER_SCAN_THREADS_PROP + " " + t);
+    }
+    return t;
+  }
+
+  // Max memory in bytes used to track notifications queued for processing by a worker. The size of
+  // a notification is its row and column lengths plus a fixed estimate of 400 bytes for the objects
+  // used to queue and process it. Before the overhead was counted, the limit was 16MB of row and
+  // column bytes. The default is larger so that a worker can still queue about as many
+  // notifications with short rows and columns.
+  public static final String NTFY_MEMORY_PROP = FLUO_IMPL_PREFIX + ".worker.notification.memory";
+  public static final int NTFY_MEMORY_DEFAULT = 1 << 27;
+
+  public static int getNotificationMemory(FluoConfiguration conf) {
+    int m = conf.getInt(NTFY_MEMORY_PROP, NTFY_MEMORY_DEFAULT);
+    if (m <= 0) {
+      throw new IllegalArgumentException("Bad value for " + NTFY_MEMORY_PROP + " " + m);
+    }
+    return m;
+  }
+
+  // What a worker does with a newly found notification when notification memory is full, see
+  // NotificationAdmissionPolicy for the possible values.
+  public static final String NTFY_ADMISSION_POLICY_PROP =
+      FLUO_IMPL_PREFIX + ".worker.notification.admission";
+  public static final String NTFY_ADMISSION_POLICY_DEFAULT =
+      NotificationAdmissionPolicy.BLOCK.name();
+
+  public static NotificationAdmissionPolicy getNotificationAdmissionPolicy(FluoConfiguration conf) {
+    String policy = conf.getString(NTFY_ADMISSION_POLICY_PROP, NTFY_ADMISSION_POLICY_DEFAULT);
+    try {
+      return NotificationAdmissionPolicy.valueOf(policy.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Bad value for " + NTFY_ADMISSION_POLICY_PROP + " " + policy);
+    }
+  }
+
+  // Max number of notifications a worker passes to a BatchObserver in a single transaction.
+  public static final String OBSERVER_BATCH_MAX_PROP =
+      FLUO_IMPL_PREFIX + ".worker.observer.batch.max";
+  public static final int OBSERVER_BATCH_MAX_DEFAULT = 100;
+
+  public static int getObserverBatchMax(FluoConfiguration conf) {
+    int max = conf.getInt(OBSERVER_BATCH_MAX_PROP, OBSERVER_BATCH_MAX_DEFAULT);
+    if (max <= 0) {
+      throw new IllegalArgumentException("Bad value for " + OBSERVER_BATCH_MAX_PROP + " " + max);
+    }
+    return max;
+  }
+
   public static final String ACCUMULO_JARS_REGEX_PROP = FLUO_IMPL_PREFIX + ".accumulo.jars.regex";
   public static final String ACCUMULO_JARS_REGEX_DEFAULT = "^fluo-(api|accumulo).*";
 
+  // When a tablet's summaries show at least this fraction of its entries are garbage, like deleted
+  // notifications and locks, the oracle compacts the tablet so the garbage can be dropped. The
+  // default of 0 leaves compactions to Accumulo.
+  public static final String COMPACTION_GARBAGE_THRESHOLD_PROP =
+      FLUO_IMPL_PREFIX + ".accumulo.compaction.garbage.threshold";
+  public static final double COMPACTION_GARBAGE_THRESHOLD_DEFAULT = 0;
+
+  public static double getCompactionGarbageThreshold(FluoConfiguration conf) {
+    double threshold = Double.parseDouble(conf.getString(COMPACTION_GARBAGE_THRESHOLD_PROP,
+        Double.toString(COMPACTION_GARBAGE_THRESHOLD_DEFAULT)));
+    if (threshold < 0 || threshold > 1) {
+      throw new IllegalArgumentException(
+          "Bad value for " + COMPACTION_GARBAGE_THRESHOLD_PROP + " " + threshold);
+    }
+    return threshold;
+  }
+
+  // How often in milliseconds the oracle reads tablet summaries to look for garbage. Each check
+  // reads the summaries of every tablet in the Fluo table.
+  public static final String COMPACTION_GARBAGE_CHECK_PERIOD_PROP =
+      FLUO_IMPL_PREFIX + ".accumulo.compaction.garbage.check.period.ms";
+  public static final long COMPACTION_GARBAGE_CHECK_PERIOD_DEFAULT = 10 * 60 * 1000L;
+
+  public static long getCompactionGarbageCheckPeriod(FluoConfiguration conf) {
+    long period =
+        conf.getLong(COMPACTION_GARBAGE_CHECK_PERIOD_PROP, COMPACTION_GARBAGE_CHECK_PERIOD_DEFAULT);
+    if (period <= 0) {
+      throw new IllegalArgumentException(
+          "Bad value for " + COMPACTION_GARBAGE_CHECK_PERIOD_PROP + " " + period);
+    }
+    return period;
+  }
+
+  // How long in milliseconds compactions on a tablet server may share a GC timestamp read from
+  // Zookeeper before reading it again. Set at initialization. A value of 0 reads it for every
+  // compaction.
+  public static final String GC_TIMESTAMP_MAX_AGE_PROP =
+      FLUO_IMPL_PREFIX + ".accumulo.gc.timestamp.max.age.ms";
+  public static final long GC_TIMESTAMP_MAX_AGE_DEFAULT =
+      GarbageCollectionIterator.GC_TIMESTAMP_MAX_AGE_DEFAULT;
+
+  public static long getGcTimestampMaxAge(FluoConfiguration conf) {
+    long maxAge = conf.getLong(GC_TIMESTAMP_MAX_AGE_PROP, GC_TIMESTAMP_MAX_AGE_DEFAULT);
+    if (maxAge < 0) {
+      throw new IllegalArgumentException(
+          "Bad value for " + GC_TIMESTAMP_MAX_AGE_PROP + " " + maxAge);
+    }
+    return maxAge;
+  }
+
+  // Name of a separate Accumulo table to store notifications in. Notification scans then do not
+  // read data files and the small table can be compacted much more often than the data table. Set
+  // at initialization, changing it afterwards would lose notifications. When empty, notifications
+  // are stored in their own locality group in the data table.
+  public static final String NOTIFY_TABLE_PROP = FLUO_IMPL_PREFIX + ".accumulo.notify.table";
+  public static final String NOTIFY_TABLE_DEFAULT = "";
+
+  // The major compaction ratio of the notification table, lower values compact more often.
+  public static final String NOTIFY_TABLE_MAJC_RATIO_PROP =
+      FLUO_IMPL_PREFIX + ".accumulo.notify.table.majc.ratio";
+  public static final double NOTIFY_TABLE_MAJC_RATIO_DEFAULT = 1.5;
+
+  // The size at which notification table tablets split. Smaller than Accumulo's default, so that
+  // notification scans and compactions spread over tablet servers even though the table is small.
+  public static final String NOTIFY_TABLE_SPLIT_THRESHOLD_PROP =
+      FLUO_IMPL_PREFIX + ".accumulo.notify.table.split.threshold";
+  public static final String NOTIFY_TABLE_SPLIT_THRESHOLD_DEFAULT = "128M";
+
+  /**
+   * @return the table notifications are stored in, which is the data table unless
+   *         {@value #NOTIFY_TABLE_PROP} is set
+   */
+  public static String getNotificationTable(FluoConfiguration conf) {
+    String table = conf.getString(NOTIFY_TABLE_PROP, NOTIFY_TABLE_DEFAULT).trim();
+    if (table.isEmpty()) {
+      return conf.getAccumuloTable();
+    }
+    if (table.equals(conf.getAccumuloTable())) {
+      throw new IllegalArgumentException(
+          "Bad value for " + NOTIFY_TABLE_PROP + ", it must differ from the data table " + table);
+    }
+    return table;
+  }
+
+  public static double getNotificationTableMajcRatio(FluoConfiguration conf) {
+    double ratio = Double.parseDouble(conf.getString(NOTIFY_TABLE_MAJC_RATIO_PROP,
+        Double.toString(NOTIFY_TABLE_MAJC_RATIO_DEFAULT)));
+    if (ratio < 1) {
+      throw new IllegalArgumentException(
+          "Bad value for " + NOTIFY_TABLE_MAJC_RATIO_PROP + " " + ratio);
+    }
+    return ratio;
+  }
+
   // Time period that each client will update ZK with their oldest active timestamp
   // If period is too short, Zookeeper may be overloaded. If too long, garbage collection
   // may keep older versions of table data unnecessarily.
@@ -91,6 +302,39 @@ public class FluoConfigurationImpl {
     return numThreads;
   }
 
+  // Number of shards used to write lock deletions, notifications and other mutations that are not
+  // conditional. Each shard has its own batch writer and flush thread and writes the rows that hash
+  // to it, so more shards let more flushes run at the same time. Since every shard's batch writer
+  // buffers mutations and uses up to the configured number of batch writer threads, memory and
+  // threads used for writing grow with the number of shards.
+  public static final String BW_SHARDS_PROP = FLUO_IMPL_PREFIX + ".bw.shards";
+  public static final int BW_SHARDS_DEFAULT = 1;
+
+  public static int getBWShards(FluoConfiguration conf) {
+    int shards = conf.getInt(BW_SHARDS_PROP, BW_SHARDS_DEFAULT);
+    if (shards <= 0) {
+      throw new IllegalArgumentException("Bad value for " + BW_SHARDS_PROP + " " + shards);
+    }
+    return shards;
+  }
+
+  // The number of times the shared batch writer writes a batch of mutations again after a flush
+  // fails, before failing the batch. The wait between retries starts at BW_RETRY_BACKOFF_MIN and
+  // doubles up to BW_RETRY_BACKOFF_MAX milliseconds.
+  public static final String BW_RETRIES_PROP = FLUO_IMPL_PREFIX + ".bw.retries";
+  public static final int BW_RETRIES_DEFAULT = 10;
+  public static final long BW_RETRY_BACKOFF_MIN = 100;
+  public static final long BW_RETRY_BACKOFF_MAX = 10000;
+
+  public static int getBWRetries(FluoConfiguration conf) {
+    int retries = conf.getInt(BW_RETRIES_PROP, BW_RETRIES_DEFAULT);
+    if (retries < 0) {
+      throw new IllegalArgumentException("Bad value for " + BW_RETRIES_PROP + " " + retries);
+    }
+    return retries;
+  }
+
+
   // max memory to buffer committing transactions.. when this is full submitting transactions for
   // commit will wait
   public static final String COMMIT_MEMORY_PROP = FLUO_IMPL_PREFIX + ".tx.commit.memory";
@@ -220,14 +464,96 @@ public class FluoConfigurationImpl {
     return tu.convert(millis, TimeUnit.MILLISECONDS);
   }
 
+  // Max number of threads a transaction uses to read many rows or cells in one get() call. The
+  // default of 1 favors throughput when many transactions run concurrently. Raising it lowers the
+  // latency of large reads from a few transactions.
+  public static final String TX_READ_THREADS_PROP = FLUO_IMPL_PREFIX + ".tx.read.threads";
+  public static final int TX_READ_THREADS_DEFAULT = 1;
+
+  public static int getTxReadThreads(FluoConfiguration conf) {
+    int threads = conf.getInt(TX_READ_THREADS_PROP, TX_READ_THREADS_DEFAULT);
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Bad value for " + TX_READ_THREADS_PROP + " " + threads);
+    }
+    return threads;
+  }
+
   public static final String ASYNC_CW_THREADS = FLUO_IMPL_PREFIX + ".async.cw.threads";
   public static final int ASYNC_CW_THREADS_DEFAULT = 8;
+  // Max estimated bytes of conditional mutations that may be queued or being written by an async
+  // conditional writer. Mutations from transactions committed through the CommitManager are not
+  // counted, because their memory is already reserved by the commit memory limit.
+  public static final String ASYNC_CW_MEMORY_PROP = FLUO_IMPL_PREFIX + ".async.cw.memory";
+  public static final int ASYNC_CW_MEMORY_DEFAULT = 20 * 1024 * 1024;
+
+  /**
+   * @deprecated since 1.3.0, async conditional writers are limited by the bytes of mutations set by
+   *             {@link #ASYNC_CW_MEMORY_PROP} instead of a number of mutations. This property is
+   *             ignored and a warning is logged when it is set.
+   */
+  @Deprecated
   public static final String ASYNC_CW_LIMIT = FLUO_IMPL_PREFIX + ".async.cw.limit";
-  public static final int ASYNC_CW_LIMIT_DEFAULT = 100000;
+
+  @SuppressWarnings("deprecation")
+  public static int getAsyncCWMemory(FluoConfiguration conf) {
+    if (conf.containsKey(ASYNC_CW_LIMIT)) {
+      log.warn("Ignoring {}, async conditional writers are now limited by the bytes set with {}",
+          ASYNC_CW_LIMIT, ASYNC_CW_MEMORY_PROP);
+    }
+    int m = conf.getInt(ASYNC_CW_MEMORY_PROP, ASYNC_CW_MEMORY_DEFAULT);
+    if (m <= 0) {
+      throw new IllegalArgumentException("Bad value for " + ASYNC_CW_MEMORY_PROP + " " + m);
+    }
+    return m;
+  }
+
+  // Mutations from concurrent transactions are written to the conditional writer in groups. A
+  // thread that starts a group waits up to this many milliseconds for more mutations to add to it.
+  // With the default of 0 only the mutations already waiting are added.
+  public static final String ASYNC_CW_GROUP_WINDOW = FLUO_IMPL_PREFIX + ".async.cw.group.window.ms";
+  public static final long ASYNC_CW_GROUP_WINDOW_DEFAULT = 0;
+
+  public static long getAsyncCWGroupWindow(FluoConfiguration conf) {
+    long window = conf.getLong(ASYNC_CW_GROUP_WINDOW, ASYNC_CW_GROUP_WINDOW_DEFAULT);
+    if (window < 0) {
+      throw new IllegalArgumentException("Bad value for " + ASYNC_CW_GROUP_WINDOW + " " + window);
+    }
+    return window;
+  }
+
+  // When true the worker (ntfyProc), loader and async conditional writer (asyncCw) pools use
+  // virtual threads if the running Java version supports them. Worker and loader pools keep their
+  // configured number of threads, which can be set much higher since a blocked virtual thread is
+  // cheap. The async conditional writer writes each group of mutations in its own virtual thread.
+  public static final String VIRTUAL_THREADS_PROP = FLUO_IMPL_PREFIX + ".threads.virtual";
+  public static final boolean VIRTUAL_THREADS_DEFAULT = false;
+
+  public static boolean getVirtualThreads(FluoConfiguration conf) {
+    return conf.getBoolean(VIRTUAL_THREADS_PROP, VIRTUAL_THREADS_DEFAULT);
+  }
 
   public static final String ASYNC_COMMIT_THREADS = FLUO_IMPL_PREFIX + ".tx.commit.threads.async";
   public static final int ASYNC_COMMIT_THREADS_DEFAULT = 8;
 
   public static final String SYNC_COMMIT_THREADS = FLUO_IMPL_PREFIX + ".tx.commit.threads.sync";
   public static final int SYNC_COMMIT_THREADS_DEFAULT = 32;
+
+  // The number of times a commit retries a conditional mutation whose outcome is unknown, for
+  // example because a tablet server died, before it gives up and fails with a
+  // CommitUnknownException. The wait between retries starts at COMMIT_UNKNOWN_BACKOFF_MIN and
+  // doubles up to COMMIT_UNKNOWN_BACKOFF_MAX milliseconds.
+  public static final String COMMIT_UNKNOWN_RETRIES_PROP =
+      FLUO_IMPL_PREFIX + ".tx.commit.unknown.retries";
+  public static final int COMMIT_UNKNOWN_RETRIES_DEFAULT = 20;
+  public static final long COMMIT_UNKNOWN_BACKOFF_MIN = 50;
+  public static final long COMMIT_UNKNOWN_BACKOFF_MAX = 5000;
+
+  public static int getCommitUnknownRetries(FluoConfiguration conf) {
+    int retries = conf.getInt(COMMIT_UNKNOWN_RETRIES_PROP, COMMIT_UNKNOWN_RETRIES_DEFAULT);
+    if (retries <= 0) {
+      throw new IllegalArgumentException(
+          "Bad value for " + COMMIT_UNKNOWN_RETRIES_PROP + " " + retries);
+    }
+    return retries;
+  }
 }
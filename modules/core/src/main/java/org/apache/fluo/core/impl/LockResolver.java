@@ -176,9 +176,11 @@ public class LockResolver {
     }
 
     TxInfoCache txiCache = env.getSharedResources().getTxInfoCache();
+    // look up the status of all primaries at once instead of scanning for each one
+    Map<PrimaryRowColumn, TxInfo> txInfos = txiCache.getTransactionInfo(groupedLocks.keySet());
     Set<Entry<PrimaryRowColumn, List<LockInfo>>> es = groupedLocks.entrySet();
     for (Entry<PrimaryRowColumn, List<LockInfo>> group : es) {
-      TxInfo txInfo = txiCache.getTransactionInfo(group.getKey());
+      TxInfo txInfo = txInfos.get(group.getKey());
       switch (txInfo.status) {
         case COMMITTED:
           commitColumns(env, group.getKey(), group.getValue(), txInfo.commitTs, mutations);
@@ -72,10 +72,17 @@ public class Notification {
 
   public Flutation newDelete(Environment env, long ts) {
     Flutation m = new Flutation(env, rowCol.getRow());
+    putDelete(env, m, ts);
+    return m;
+  }
+
+  /**
+   * Adds a delete for this notification to a mutation for the notification's row.
+   */
+  public void putDelete(Environment env, Mutation m, long ts) {
     ColumnVisibility cv = env.getSharedResources().getVisCache().getCV(rowCol.getColumn());
     m.put(NOTIFY_CF_ARRAY, encodeCol(rowCol.getColumn()), cv, encodeTs(ts, true),
         TransactionImpl.EMPTY);
-    return m;
   }
 
   public static void put(Environment env, Mutation m, Column col, long ts) {
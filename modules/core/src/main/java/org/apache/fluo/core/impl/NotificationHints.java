@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.impl;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import org.apache.fluo.api.data.RowColumn;
+
+/**
+ * Passes the notifications written by transactions committed in this process to a listener. A
+ * worker uses this to look for notifications it is responsible for right away instead of waiting
+ * for its next periodic scan.
+ *
+ * <p>
+ * Hints are best effort, a notification is still found by scanning if a hint is missed.
+ */
+public class NotificationHints {
+
+  private volatile Consumer<Collection<RowColumn>> listener = null;
+
+  public void setListener(Consumer<Collection<RowColumn>> listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @return true if there is a listener, transactions can use this to avoid tracking the
+   *         notifications they write when no one is interested.
+   */
+  public boolean hasListener() {
+    return listener != null;
+  }
+
+  /**
+   * Called after the notifications were successfully written and the transaction committed.
+   */
+  public void publish(Collection<RowColumn> notifications) {
+    Consumer<Collection<RowColumn>> l = listener;
+    if (l != null && !notifications.isEmpty()) {
+      l.accept(notifications);
+    }
+  }
+}
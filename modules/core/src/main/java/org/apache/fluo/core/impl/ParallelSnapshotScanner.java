@@ -91,12 +91,14 @@ public class ParallelSnapshotScanner {
 
   private BatchScanner setupBatchScanner() {
 
+    int numRanges = rangesToScan.isEmpty() && rows != null ? rows.size() : rangesToScan.size();
+    // no need for more threads than ranges, the batch scanner can not use them
+    int numThreads = Math.max(1, Math.min(env.getSharedResources().getTxReadThreads(), numRanges));
+
     BatchScanner scanner;
     try {
-      // TODO hardcoded number of threads!
-      // one thread is probably good.. going for throughput
-      scanner =
-          env.getAccumuloClient().createBatchScanner(env.getTable(), env.getAuthorizations(), 1);
+      scanner = env.getAccumuloClient().createBatchScanner(env.getTable(), env.getAuthorizations(),
+          numThreads);
     } catch (TableNotFoundException e) {
       throw new RuntimeException(e);
     }
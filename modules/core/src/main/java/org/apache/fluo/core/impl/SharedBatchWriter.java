@@ -16,39 +16,87 @@
 package org.apache.fluo.core.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
 import org.apache.accumulo.core.client.BatchWriter;
 import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.data.Mutation;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.metrics.MetricNames;
+import org.apache.fluo.core.metrics.MetricsUtil;
 import org.apache.fluo.core.util.FluoThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 // created this class because batch writer blocks adding mutations while its flushing
 
+/**
+ * Writes mutations using one or more shards. Each shard has its own batch writer, queue and flush
+ * thread, so one shard can add mutations while another is flushing. Mutations are assigned to a
+ * shard by a hash of their row, so mutations for a row are always written in the order added.
+ *
+ * <p>
+ * Because each shard has its own batch writer, the memory used to buffer mutations and the number
+ * of write threads are multiplied by the number of shards.
+ *
+ * <p>
+ * When a flush fails, the shard replaces its batch writer and writes the failed batches again,
+ * waiting longer between each attempt. If all attempts fail, waiters for those batches get an
+ * exception.
+ */
 public class SharedBatchWriter {
 
-  private final BatchWriter bw;
-  private ArrayBlockingQueue<MutationBatch> mutQueue;
-  private MutationBatch end = new MutationBatch(new ArrayList<Mutation>(), false);
+  private static final Logger log = LoggerFactory.getLogger(SharedBatchWriter.class);
+
+  private final Shard[] shards;
+  private final Supplier<BatchWriter> bwFactory;
+  private final int maxRetries;
+  private final FluoConfiguration conf;
+  private final MetricRegistry registry;
+  private final String writerName;
+  private volatile Metrics metrics = null;
 
-  private AtomicLong asyncBatchesAdded = new AtomicLong(0);
-  private long asyncBatchesProcessed = 0;
   // added to avoid findbugs false positive
   private static final Supplier<Void> NULLS = () -> null;
 
+  private class Metrics {
+    private final Timer flushTimer;
+    private final Histogram batchSizes;
+
+    Metrics(MetricNames names) {
+      this.flushTimer = MetricsUtil.getTimer(conf, registry, names.getBWFlushTime(writerName));
+      this.batchSizes = MetricsUtil.getHistogram(conf, registry, names.getBWBatchSize(writerName));
+      registry.register(names.getBWQueued(writerName), (Gauge<Integer>) () -> {
+        int queued = 0;
+        for (Shard shard : shards) {
+          queued += shard.mutQueue.size();
+        }
+        return queued;
+      });
+    }
+  }
+
   private static class MutationBatch {
 
     private Collection<Mutation> mutations;
     private CountDownLatch cdl;
     private boolean isAsync = false;
     private CompletableFuture<Void> cf;
+    private volatile Throwable error;
 
     public MutationBatch(Collection<Mutation> mutations, boolean isAsync) {
       this.mutations = mutations;
@@ -74,23 +122,57 @@ public class SharedBatchWriter {
         cf.complete(NULLS.get());
       }
     }
+
+    public void fail(Throwable t) {
+      error = t;
+      if (cdl != null) {
+        cdl.countDown();
+      }
+
+      if (cf != null) {
+        cf.completeExceptionally(t);
+      }
+    }
+
+    public void await() throws InterruptedException {
+      cdl.await();
+      if (error != null) {
+        throw new IllegalStateException("Failed to write mutations", error);
+      }
+    }
   }
 
-  private class FlushTask implements Runnable {
+  private class Shard {
 
-    @Override
-    public void run() {
-      boolean keepRunning = true;
-      ArrayList<MutationBatch> batches = new ArrayList<>();
+    private BatchWriter bw;
+    private final ArrayBlockingQueue<MutationBatch> mutQueue;
+    private final MutationBatch end = new MutationBatch(new ArrayList<Mutation>(), false);
 
-      while (keepRunning || !batches.isEmpty()) {
-        try {
-          if (batches.isEmpty()) {
-            batches.add(mutQueue.take());
+    private final AtomicLong asyncBatchesAdded = new AtomicLong(0);
+    private long asyncBatchesProcessed = 0;
+
+    private class FlushTask implements Runnable {
+
+      @Override
+      public void run() {
+        boolean keepRunning = true;
+        ArrayList<MutationBatch> batches = new ArrayList<>();
+
+        while (keepRunning || !batches.isEmpty()) {
+          Throwable error;
+          try {
+            if (batches.isEmpty()) {
+              batches.add(mutQueue.take());
+            }
+            mutQueue.drainTo(batches);
+
+            error = processBatches(batches);
+          } catch (InterruptedException | RuntimeException e) {
+            log.error("Unexpected error in shared batch writer", e);
+            error = e;
           }
-          mutQueue.drainTo(batches);
 
-          processBatches(batches);
+          finish(batches, error);
 
           for (MutationBatch mutationBatch : batches) {
             if (mutationBatch == end) {
@@ -99,53 +181,201 @@ public class SharedBatchWriter {
           }
 
           batches.clear();
-        } catch (Exception e) {
-          // TODO error handling
-          e.printStackTrace();
         }
+
       }
 
-    }
+      /**
+       * @return null if the batches were written, otherwise the error from the last attempt
+       */
+      private Throwable processBatches(ArrayList<MutationBatch> batches)
+          throws InterruptedException {
+        int numMutations = 0;
+        for (MutationBatch mutationBatch : batches) {
+          numMutations += mutationBatch.mutations.size();
+        }
+        Metrics m = metrics;
+        if (m != null) {
+          m.batchSizes.update(numMutations);
+        }
+
+        Throwable error = null;
+        long backoff = FluoConfigurationImpl.BW_RETRY_BACKOFF_MIN;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+          if (attempt > 0) {
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, FluoConfigurationImpl.BW_RETRY_BACKOFF_MAX);
+            // a batch writer can not be used after it fails, so write everything again using a
+            // new one
+            replaceBatchWriter();
+          }
 
-    private void processBatches(ArrayList<MutationBatch> batches)
-        throws MutationsRejectedException {
-      for (MutationBatch mutationBatch : batches) {
-        if (mutationBatch != end) {
-          bw.addMutations(mutationBatch.mutations);
+          try {
+            write(batches);
+            error = null;
+            break;
+          } catch (MutationsRejectedException | RuntimeException e) {
+            error = e;
+            log.warn("Failed to flush {} mutations (attempt {} of {})", numMutations, attempt + 1,
+                maxRetries + 1, e);
+          }
         }
+
+        if (error != null) {
+          log.error("Gave up writing {} mutations after {} attempts", numMutations, maxRetries + 1,
+              error);
+        }
+
+        return error;
       }
 
-      bw.flush();
+      private void finish(ArrayList<MutationBatch> batches, Throwable error) {
+        int numAsync = 0;
 
-      int numAsync = 0;
+        for (MutationBatch mutationBatch : batches) {
+          if (error == null) {
+            mutationBatch.countDown();
+          } else {
+            mutationBatch.fail(error);
+          }
+
+          if (mutationBatch.isAsync) {
+            numAsync++;
+          }
+        }
+
+        // failed async batches are counted as processed so waitForAsyncFlush() does not hang
+        if (numAsync > 0) {
+          synchronized (Shard.this) {
+            asyncBatchesProcessed += numAsync;
+            Shard.this.notifyAll();
+          }
+        }
+      }
 
-      for (MutationBatch mutationBatch : batches) {
-        mutationBatch.countDown();
+      private void write(ArrayList<MutationBatch> batches) throws MutationsRejectedException {
+        long start = System.nanoTime();
+        try {
+          for (MutationBatch mutationBatch : batches) {
+            if (mutationBatch != end) {
+              bw.addMutations(mutationBatch.mutations);
+            }
+          }
 
-        if (mutationBatch.isAsync) {
-          numAsync++;
+          bw.flush();
+        } finally {
+          Metrics m = metrics;
+          if (m != null) {
+            m.flushTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+          }
         }
       }
 
-      if (numAsync > 0) {
-        synchronized (SharedBatchWriter.this) {
-          asyncBatchesProcessed += numAsync;
-          SharedBatchWriter.this.notifyAll();
+      private void replaceBatchWriter() {
+        try {
+          bw.close();
+        } catch (MutationsRejectedException | RuntimeException e) {
+          log.debug("Failed to close batch writer after failure", e);
         }
+        bw = bwFactory.get();
       }
     }
+
+    Shard(int id) {
+      this.bw = bwFactory.get();
+      this.mutQueue = new ArrayBlockingQueue<>(100000);
+      Thread thread = new FluoThreadFactory("sharedBW-" + id).newThread(new FlushTask());
+      thread.setUncaughtExceptionHandler((t, e) -> {
+        System.err.println("Uncaught exception in shared batch writer");
+        e.printStackTrace();
+      });
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    void put(MutationBatch mb) throws InterruptedException {
+      if (mb.isAsync) {
+        asyncBatchesAdded.incrementAndGet();
+      }
+      mutQueue.put(mb);
+    }
+
+    void close() throws InterruptedException, MutationsRejectedException {
+      mutQueue.put(end);
+      end.cdl.await();
+      bw.close();
+    }
+
+    synchronized void waitForAsyncFlush(long numAdded) throws InterruptedException {
+      while (numAdded > asyncBatchesProcessed) {
+        wait();
+      }
+    }
+  }
+
+  SharedBatchWriter(Supplier<BatchWriter> bwFactory, int numShards, FluoConfiguration conf,
+      MetricRegistry registry, String writerName) {
+    Preconditions.checkArgument(numShards > 0, "numShards <= 0 : %s", numShards);
+    this.bwFactory = bwFactory;
+    this.maxRetries = FluoConfigurationImpl.getBWRetries(conf);
+    this.conf = conf;
+    this.registry = registry;
+    this.writerName = writerName;
+    this.shards = new Shard[numShards];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new Shard(i);
+    }
+  }
+
+  /**
+   * Creates the metrics for this writer. Metric names include the transactor id, which is not
+   * available when this is constructed, so nothing is recorded until this is called. Calling this
+   * more than once has no effect.
+   */
+  synchronized void registerMetrics(MetricNames names) {
+    if (metrics == null) {
+      metrics = new Metrics(names);
+    }
+  }
+
+  private int shardIndex(Mutation m) {
+    if (shards.length == 1) {
+      return 0;
+    }
+    return Math.abs(Arrays.hashCode(m.getRow()) % shards.length);
   }
 
-  SharedBatchWriter(BatchWriter bw) {
-    this.bw = bw;
-    this.mutQueue = new ArrayBlockingQueue<>(100000);
-    Thread thread = new FluoThreadFactory("sharedBW").newThread(new FlushTask());
-    thread.setUncaughtExceptionHandler((t, e) -> {
-      System.err.println("Uncaught exception in shared batch writer");
-      e.printStackTrace();
-    });
-    thread.setDaemon(true);
-    thread.start();
+  private Shard getShard(Mutation m) {
+    return shards[shardIndex(m)];
+  }
+
+  /**
+   * Splits mutations by shard. Returns null when all mutations go to a single shard, which is
+   * always the case with one shard.
+   */
+  private List<Collection<Mutation>> partition(Collection<Mutation> ml) {
+    if (shards.length == 1) {
+      return null;
+    }
+
+    List<Collection<Mutation>> parts = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      parts.add(null);
+    }
+
+    int numParts = 0;
+    for (Mutation m : ml) {
+      int index = shardIndex(m);
+      Collection<Mutation> part = parts.get(index);
+      if (part == null) {
+        part = new ArrayList<>();
+        parts.set(index, part);
+        numParts++;
+      }
+      part.add(m);
+    }
+
+    return numParts == 1 ? null : parts;
   }
 
   void writeMutation(Mutation m) {
@@ -159,9 +389,24 @@ public class SharedBatchWriter {
     }
 
     try {
-      MutationBatch mb = new MutationBatch(ml, false);
-      mutQueue.put(mb);
-      mb.cdl.await();
+      List<Collection<Mutation>> parts = partition(ml);
+      if (parts == null) {
+        MutationBatch mb = new MutationBatch(ml, false);
+        getShard(ml.iterator().next()).put(mb);
+        mb.await();
+      } else {
+        List<MutationBatch> batches = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+          if (parts.get(i) != null) {
+            MutationBatch mb = new MutationBatch(parts.get(i), false);
+            shards[i].put(mb);
+            batches.add(mb);
+          }
+        }
+        for (MutationBatch mb : batches) {
+          mb.await();
+        }
+      }
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -172,11 +417,23 @@ public class SharedBatchWriter {
       return CompletableFuture.completedFuture(NULLS.get());
     }
 
-    CompletableFuture<Void> cf = new CompletableFuture<>();
     try {
-      MutationBatch mb = new MutationBatch(ml, cf);
-      mutQueue.put(mb);
-      return cf;
+      List<Collection<Mutation>> parts = partition(ml);
+      if (parts == null) {
+        CompletableFuture<Void> cf = new CompletableFuture<>();
+        getShard(ml.iterator().next()).put(new MutationBatch(ml, cf));
+        return cf;
+      } else {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+          if (parts.get(i) != null) {
+            CompletableFuture<Void> cf = new CompletableFuture<>();
+            shards[i].put(new MutationBatch(parts.get(i), cf));
+            futures.add(cf);
+          }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+      }
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -188,18 +445,30 @@ public class SharedBatchWriter {
 
   void close() {
     try {
-      mutQueue.put(end);
-      end.cdl.await();
+      for (Shard shard : shards) {
+        shard.close();
+      }
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
   void writeMutationsAsync(List<Mutation> ml) {
+    if (ml.isEmpty()) {
+      return;
+    }
+
     try {
-      MutationBatch mb = new MutationBatch(ml, true);
-      asyncBatchesAdded.incrementAndGet();
-      mutQueue.put(mb);
+      List<Collection<Mutation>> parts = partition(ml);
+      if (parts == null) {
+        getShard(ml.get(0)).put(new MutationBatch(ml, true));
+      } else {
+        for (int i = 0; i < shards.length; i++) {
+          if (parts.get(i) != null) {
+            shards[i].put(new MutationBatch(parts.get(i), true));
+          }
+        }
+      }
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -214,16 +483,17 @@ public class SharedBatchWriter {
    * wait for async mutations added after call.
    */
   public void waitForAsyncFlush() {
-    long numAdded = asyncBatchesAdded.get();
+    long[] numAdded = new long[shards.length];
+    for (int i = 0; i < shards.length; i++) {
+      numAdded[i] = shards[i].asyncBatchesAdded.get();
+    }
 
-    synchronized (this) {
-      while (numAdded > asyncBatchesProcessed) {
-        try {
-          wait();
-        } catch (InterruptedException e) {
-          throw new RuntimeException(e);
-        }
+    try {
+      for (int i = 0; i < shards.length; i++) {
+        shards[i].waitForAsyncFlush(numAdded[i]);
       }
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
     }
   }
 }
@@ -18,19 +18,21 @@ package org.apache.fluo.core.impl;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
-import org.apache.accumulo.core.client.BatchWriter;
 import org.apache.accumulo.core.client.BatchWriterConfig;
 import org.apache.accumulo.core.client.ConditionalWriter;
 import org.apache.accumulo.core.client.ConditionalWriterConfig;
-import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.fluo.core.async.AsyncConditionalWriter;
 import org.apache.fluo.core.async.CommitManager;
+import org.apache.fluo.core.async.CommitRetryExecutor;
 import org.apache.fluo.core.impl.TransactorCache.TcStatus;
 import org.apache.fluo.core.impl.TransactorNode.TrStatus;
+import org.apache.fluo.core.metrics.MetricNames;
 import org.apache.fluo.core.oracle.OracleClient;
 import org.apache.fluo.core.util.CuratorUtil;
 import org.apache.fluo.core.util.FluoExecutors;
@@ -41,10 +43,10 @@ import org.apache.fluo.core.util.FluoExecutors;
 public class SharedResources implements AutoCloseable {
 
   private final Environment env;
-  private final BatchWriter bw;
   private final ConditionalWriter cw;
   private final ConditionalWriter bulkCw;
   private final SharedBatchWriter sbw;
+  private final SharedBatchWriter notifySbw;
   private final CuratorFramework curator;
   private OracleClient oracleClient = null;
   private TransactorID tid = null;
@@ -55,12 +57,16 @@ public class SharedResources implements AutoCloseable {
   private final TxInfoCache txInfoCache;
   private final VisibilityCache visCache;
   private final MetricRegistry metricRegistry;
+  private final NotificationHints notificationHints = new NotificationHints();
+  private final int txReadThreads;
 
   private AsyncConditionalWriter acw;
   private AsyncConditionalWriter bulkAcw;
   private ExecutorService asyncCommitExecutor;
   private ExecutorService syncCommitExecutor;
+  private CommitRetryExecutor commitRetryExecutor;
   private CommitManager commitManager;
+  private final AtomicBoolean metricsRegistered = new AtomicBoolean(false);
 
 
   public SharedResources(Environment env) throws TableNotFoundException {
@@ -70,9 +76,15 @@ public class SharedResources implements AutoCloseable {
 
     int numTservers = env.getAccumuloClient().instanceOperations().getTabletServers().size();
     int numBWThreads = FluoConfigurationImpl.getNumBWThreads(env.getConfiguration(), numTservers);
-    bw = env.getAccumuloClient().createBatchWriter(env.getTable(),
-        new BatchWriterConfig().setMaxWriteThreads(numBWThreads));
-    sbw = new SharedBatchWriter(bw);
+    metricRegistry = new MetricRegistry();
+    int numShards = FluoConfigurationImpl.getBWShards(env.getConfiguration());
+    sbw = newBatchWriter(env, env.getTable(), numBWThreads, numShards, "default");
+    if (env.hasSeparateNotificationTable()) {
+      notifySbw =
+          newBatchWriter(env, env.getNotificationTable(), numBWThreads, numShards, "notify");
+    } else {
+      notifySbw = sbw;
+    }
 
     int numCWThreads = FluoConfigurationImpl.getNumCWThreads(env.getConfiguration(), numTservers);
     cw = env.getAccumuloClient().createConditionalWriter(env.getTable(),
@@ -82,9 +94,10 @@ public class SharedResources implements AutoCloseable {
         new ConditionalWriterConfig().setAuthorizations(env.getAuthorizations())
             .setMaxWriteThreads(numCWThreads));
 
+    txReadThreads = FluoConfigurationImpl.getTxReadThreads(env.getConfiguration());
+
     txInfoCache = new TxInfoCache(env);
     visCache = new VisibilityCache(env.getConfiguration());
-    metricRegistry = new MetricRegistry();
 
     int commitThreads = env.getConfiguration().getInt(FluoConfigurationImpl.ASYNC_COMMIT_THREADS,
         FluoConfigurationImpl.ASYNC_COMMIT_THREADS_DEFAULT);
@@ -94,15 +107,73 @@ public class SharedResources implements AutoCloseable {
         FluoConfigurationImpl.SYNC_COMMIT_THREADS_DEFAULT);
     syncCommitExecutor = FluoExecutors.newFixedThreadPool(commitThreads, "sync-commits");
 
+    commitRetryExecutor = new CommitRetryExecutor(env.getConfiguration());
+
     acw = new AsyncConditionalWriter(env, cw);
     bulkAcw = new AsyncConditionalWriter(env, bulkCw);
   }
 
+  /**
+   * Metric names include the transactor id, which can only be created after this object is. So the
+   * writer metrics are registered when the writers are first used. This must not be called while
+   * holding this object's lock, because getting the metric names locks the environment and then
+   * this object.
+   */
+  private void registerMetrics() {
+    if (!metricsRegistered.get()) {
+      MetricNames names = env.getMetricNames();
+      if (metricsRegistered.compareAndSet(false, true)) {
+        sbw.registerMetrics(names);
+        if (notifySbw != sbw) {
+          notifySbw.registerMetrics(names);
+        }
+        metricRegistry.register(names.getAsyncCWMemory("default"),
+            (Gauge<Long>) () -> acw.getMemory());
+        metricRegistry.register(names.getAsyncCWMemory("bulk"),
+            (Gauge<Long>) () -> bulkAcw.getMemory());
+      }
+    }
+  }
+
+  private SharedBatchWriter newBatchWriter(Environment env, String table, int numThreads,
+      int numShards, String name) {
+    return new SharedBatchWriter(() -> {
+      try {
+        return env.getAccumuloClient().createBatchWriter(table,
+            new BatchWriterConfig().setMaxWriteThreads(numThreads));
+      } catch (TableNotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+    }, numShards, env.getConfiguration(), metricRegistry, name);
+  }
+
   public SharedBatchWriter getBatchWriter() {
     checkIfClosed();
+    registerMetrics();
     return sbw;
   }
 
+  /**
+   * @return the batch writer for notifications, which is the same as {@link #getBatchWriter()}
+   *         unless notifications are stored in a separate table
+   */
+  public SharedBatchWriter getNotificationBatchWriter() {
+    checkIfClosed();
+    registerMetrics();
+    return notifySbw;
+  }
+
+  /**
+   * Waits for async mutations added before this was called to be written by the batch writer and
+   * the notification batch writer.
+   */
+  public void waitForAsyncFlush() {
+    getBatchWriter().waitForAsyncFlush();
+    if (notifySbw != sbw) {
+      notifySbw.waitForAsyncFlush();
+    }
+  }
+
   public ConditionalWriter getConditionalWriter() {
     checkIfClosed();
     return cw;
@@ -167,10 +238,21 @@ public class SharedResources implements AutoCloseable {
     return visCache;
   }
 
+  public NotificationHints getNotificationHints() {
+    return notificationHints;
+  }
+
   public MetricRegistry getMetricRegistry() {
     return metricRegistry;
   }
 
+  /**
+   * @return the maximum number of threads a transaction uses to read multiple ranges or rows
+   */
+  public int getTxReadThreads() {
+    return txReadThreads;
+  }
+
   @Override
   public synchronized void close() {
     isClosed = true;
@@ -178,6 +260,8 @@ public class SharedResources implements AutoCloseable {
     if (commitManager != null) {
       commitManager.close();
     }
+    // fails pending retries while the executors that run their failure handling are still up
+    commitRetryExecutor.close();
     asyncCommitExecutor.shutdownNow();
     try {
       asyncCommitExecutor.awaitTermination(5, TimeUnit.SECONDS);
@@ -209,10 +293,8 @@ public class SharedResources implements AutoCloseable {
     bulkAcw.close();
     bulkCw.close();
     sbw.close();
-    try {
-      bw.close();
-    } catch (MutationsRejectedException e) {
-      throw new RuntimeException(e);
+    if (notifySbw != sbw) {
+      notifySbw.close();
     }
     curator.close();
   }
@@ -231,11 +313,20 @@ public class SharedResources implements AutoCloseable {
     return asyncCommitExecutor;
   }
 
+  /**
+   * @return executor used to retry commit steps whose outcome is unknown
+   */
+  public CommitRetryExecutor getCommitRetryExecutor() {
+    return commitRetryExecutor;
+  }
+
   public AsyncConditionalWriter getAsyncConditionalWriter() {
+    registerMetrics();
     return acw;
   }
 
   public AsyncConditionalWriter getBulkAsyncConditionalWriter() {
+    registerMetrics();
     return bulkAcw;
   }
 
@@ -22,6 +22,7 @@ import java.util.SortedSet;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -29,6 +30,7 @@ import org.apache.curator.framework.recipes.nodes.PersistentNode;
 import org.apache.fluo.accumulo.util.LongUtil;
 import org.apache.fluo.accumulo.util.ZookeeperPath;
 import org.apache.fluo.core.oracle.Stamp;
+import org.apache.fluo.core.oracle.StampLease;
 import org.apache.fluo.core.util.CuratorUtil;
 import org.apache.zookeeper.CreateMode;
 import org.slf4j.Logger;
@@ -36,7 +38,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Allocates timestamps from Oracle for transactions and tracks the oldest active timestamp in
- * Zookeeper for garbage collection
+ * Zookeeper for garbage collection. When {@link FluoConfigurationImpl#ORACLE_LEASE_SIZE_PROP} is
+ * set, start timestamps are handed out from a block leased from the Oracle.
  */
 public class TimestampTracker implements AutoCloseable {
 
@@ -47,6 +50,9 @@ public class TimestampTracker implements AutoCloseable {
   private volatile PersistentNode node = null;
   private final TransactorID tid;
   private final Timer timer;
+  private final int leaseSize;
+  private final long leaseTimeMs;
+  private StampLease lease = null;
 
   private boolean closed = false;
   private int allocationsInProgress = 0;
@@ -58,6 +64,9 @@ public class TimestampTracker implements AutoCloseable {
     Preconditions.checkArgument(updatePeriodMs > 0, "update period must be positive");
     this.env = env;
     this.tid = tid;
+    this.leaseSize = FluoConfigurationImpl.getOracleLeaseSize(env.getConfiguration());
+    this.leaseTimeMs =
+        FluoConfigurationImpl.getOracleLeaseTime(env.getConfiguration(), TimeUnit.MILLISECONDS);
 
     TimerTask tt = new TimerTask() {
 
@@ -123,6 +132,15 @@ public class TimestampTracker implements AutoCloseable {
    * Allocate a timestamp
    */
   public Stamp allocateTimestamp() {
+    return allocateTimestamp(-1);
+  }
+
+  /**
+   * Allocate a timestamp that is greater than the given timestamp. The Oracle always returns
+   * timestamps greater than any that were previously committed, so this only matters for leased
+   * timestamps.
+   */
+  public Stamp allocateTimestamp(long minTs) {
 
     synchronized (this) {
       Preconditions.checkState(!closed, "tracker closed ");
@@ -132,14 +150,24 @@ public class TimestampTracker implements AutoCloseable {
             "expected allocationsInProgress == 0 when node == null");
         Preconditions.checkState(!updatingZk, "unexpected concurrent ZK update");
 
+        // While there was no node, the GC timestamp could have advanced past any leased timestamps.
+        lease = null;
         createZkNode(getTimestamp().getTxTimestamp());
       }
 
       allocationsInProgress++;
+
+      // Leased timestamps are increasing and are added to the set of active timestamps while
+      // holding the lock, so they are never older than the timestamp stored in Zookeeper.
+      Stamp leased = pollLease(minTs);
+      if (leased != null) {
+        timestamps.add(leased.getTxTimestamp());
+        return leased;
+      }
     }
 
     try {
-      Stamp ts = getTimestamp();
+      Stamp ts = leaseSize > 0 ? renewLease(minTs) : getTimestamp();
 
       synchronized (this) {
         timestamps.add(ts.getTxTimestamp());
@@ -174,6 +202,33 @@ public class TimestampTracker implements AutoCloseable {
     return env.getSharedResources().getOracleClient().getStamp();
   }
 
+  private Stamp pollLease(long minTs) {
+    if (lease != null) {
+      Stamp stamp = lease.poll(minTs, System.currentTimeMillis());
+      if (stamp == null) {
+        lease = null;
+      }
+      return stamp;
+    }
+    return null;
+  }
+
+  private Stamp renewLease(long minTs) {
+    StampLease newLease =
+        env.getSharedResources().getOracleClient().leaseStamps(leaseSize, leaseTimeMs);
+    Stamp stamp = newLease.poll(minTs, System.currentTimeMillis());
+    Preconditions.checkState(stamp != null, "newly leased timestamps unusable");
+
+    synchronized (this) {
+      // concurrent renewals are possible, keep the newest lease
+      if (lease == null || newLease.getStart() > lease.getStart()) {
+        lease = newLease;
+      }
+    }
+
+    return stamp;
+  }
+
   private void createZkNode(long ts) {
     Preconditions.checkState(node == null, "expected node to be null");
     node = new PersistentNode(env.getSharedResources().getCurator(), CreateMode.EPHEMERAL, false,
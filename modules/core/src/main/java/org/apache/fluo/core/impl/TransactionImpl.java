@@ -30,14 +30,15 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CaseFormat;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
-import org.apache.accumulo.core.client.ConditionalWriter;
 import org.apache.accumulo.core.client.ConditionalWriter.Result;
 import org.apache.accumulo.core.client.ConditionalWriter.Status;
 import org.apache.accumulo.core.client.IteratorSetting;
@@ -74,6 +75,7 @@ import org.apache.fluo.core.async.AsyncConditionalWriter;
 import org.apache.fluo.core.async.AsyncTransaction;
 import org.apache.fluo.core.async.SyncCommitObserver;
 import org.apache.fluo.core.exceptions.AlreadyAcknowledgedException;
+import org.apache.fluo.core.exceptions.CommitUnknownException;
 import org.apache.fluo.core.exceptions.StaleScanException;
 import org.apache.fluo.core.impl.scanner.ScannerBuilderImpl;
 import org.apache.fluo.core.oracle.Stamp;
@@ -134,10 +136,13 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
   private final Map<Bytes, Set<Column>> readLocksSeen = new HashMap<>();
   private final TxStats stats;
   private Notification notification;
-  private Notification weakNotification;
+  // weak notifications that triggered this transaction, deleted when the transaction commits
+  private List<Notification> weakTriggers = Collections.emptyList();
   private TransactorNode tnode = null;
   private TxStatus status = TxStatus.OPEN;
   private boolean commitAttempted = false;
+  // estimated bytes buffered by the transaction, kept up to date as data is set and read
+  private int size = 0;
 
   public TransactionImpl(Environment env, Notification trigger, long startTs) {
     Objects.requireNonNull(env, "environment cannot be null");
@@ -149,20 +154,35 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
     if (trigger != null
         && env.getConfiguredObservers().getObservedColumns(WEAK).contains(trigger.getColumn())) {
-      this.weakNotification = trigger;
+      this.weakTriggers = Collections.singletonList(trigger);
     } else {
       this.notification = trigger;
     }
 
     if (notification != null) {
-      Map<Column, Bytes> colUpdates = new HashMap<>();
-      colUpdates.put(notification.getColumn(), NTFY_VAL);
-      updates.put(notification.getRow(), colUpdates);
+      putUpdate(notification.getRow(), notification.getColumn(), NTFY_VAL);
     }
   }
 
   public TransactionImpl(Environment env, Notification trigger) {
-    this(env, trigger, allocateTimestamp(env).getTxTimestamp());
+    this(env, trigger, allocateTimestamp(env, trigger).getTxTimestamp());
+  }
+
+  /**
+   * Creates a transaction triggered by multiple weak notifications. All of the notifications are
+   * deleted when the transaction commits.
+   */
+  public TransactionImpl(Environment env, List<Notification> weakTriggers) {
+    this(env, null,
+        allocateTimestamp(env,
+            weakTriggers.stream().mapToLong(Notification::getTimestamp).max().orElse(-1))
+                .getTxTimestamp());
+    Set<Column> weakColumns = env.getConfiguredObservers().getObservedColumns(WEAK);
+    for (Notification trigger : weakTriggers) {
+      Preconditions.checkArgument(weakColumns.contains(trigger.getColumn()),
+          "Column not configured for weak notifications %s", trigger.getColumn());
+    }
+    this.weakTriggers = new ArrayList<>(weakTriggers);
   }
 
   public TransactionImpl(Environment env) {
@@ -177,6 +197,18 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     return env.getSharedResources().getTimestampTracker().allocateTimestamp();
   }
 
+  private static Stamp allocateTimestamp(Environment env, Notification trigger) {
+    if (trigger == null) {
+      return allocateTimestamp(env);
+    }
+    return allocateTimestamp(env, trigger.getTimestamp());
+  }
+
+  private static Stamp allocateTimestamp(Environment env, long minTs) {
+    // an observer must be able to see the change that triggered it
+    return env.getSharedResources().getTimestampTracker().allocateTimestamp(minTs);
+  }
+
   @Override
   public Bytes get(Bytes row, Column column) {
     checkIfOpen();
@@ -252,6 +284,9 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
       }
     }
 
+    // when reading one column, scan only that column instead of filtering the whole row
+    Span span = columns.size() == 1 ? Span.exact(row, columns.iterator().next()) : Span.exact(row);
+
     SnapshotScanner.Opts opts;
     if (shouldCopy) {
       HashSet<Column> cols = new HashSet<>();
@@ -262,9 +297,9 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
           cols.add(column);
         }
       }
-      opts = new SnapshotScanner.Opts(Span.exact(row), columns, true);
+      opts = new SnapshotScanner.Opts(span, columns, true);
     } else {
-      opts = new SnapshotScanner.Opts(Span.exact(row), columns, true);
+      opts = new SnapshotScanner.Opts(span, columns, true);
     }
 
     Map<Column, Bytes> ret = new HashMap<>();
@@ -304,8 +339,36 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     if (colsRead == null) {
       colsRead = new HashSet<>();
       columnsRead.put(row, colsRead);
+      size += row.length();
+    }
+    for (Column col : columns) {
+      if (colsRead.add(col)) {
+        size += sizeOf(col);
+      }
+    }
+  }
+
+  private static int sizeOf(Column col) {
+    return col.getFamily().length() + col.getQualifier().length() + col.getVisibility().length();
+  }
+
+  private Map<Column, Bytes> getColUpdates(Bytes row) {
+    Map<Column, Bytes> colUpdates = updates.get(row);
+    if (colUpdates == null) {
+      colUpdates = new HashMap<>();
+      updates.put(row, colUpdates);
+      size += row.length();
+    }
+    return colUpdates;
+  }
+
+  private void putUpdate(Bytes row, Column col, Bytes val) {
+    Bytes prevVal = getColUpdates(row).put(col, val);
+    if (prevVal == null) {
+      size += sizeOf(col) + val.length();
+    } else {
+      size += val.length() - prevVal.length();
     }
-    colsRead.addAll(columns);
   }
 
   void setReadLock(Bytes row, Column col) {
@@ -319,13 +382,13 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
     env.getSharedResources().getVisCache().validate(col);
 
-    Map<Column, Bytes> colUpdates = updates.computeIfAbsent(row, k -> new HashMap<>());
+    Map<Column, Bytes> colUpdates = updates.getOrDefault(row, Collections.emptyMap());
     Bytes curVal = colUpdates.get(col);
     if (curVal != null && (isWrite(curVal) || isDelete(curVal))) {
       throw new AlreadySetException("Attemped read lock after write lock " + row + " " + col);
     }
 
-    colUpdates.put(col, RLOCK_VAL);
+    putUpdate(row, col, RLOCK_VAL);
   }
 
   @Override
@@ -346,13 +409,13 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
     env.getSharedResources().getVisCache().validate(col);
 
-    Map<Column, Bytes> colUpdates = updates.computeIfAbsent(row, k -> new HashMap<>());
+    Map<Column, Bytes> colUpdates = updates.getOrDefault(row, Collections.emptyMap());
 
     Bytes curVal = colUpdates.get(col);
     if (curVal != null && isWrite(curVal)) {
       throw new AlreadySetException("Value already set " + row + " " + col);
     }
-    colUpdates.put(col, value);
+    putUpdate(row, col, value);
   }
 
   @Override
@@ -371,9 +434,12 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     if (columns == null) {
       columns = new HashSet<>();
       weakNotifications.put(row, columns);
+      size += row.length();
     }
 
-    columns.add(col);
+    if (columns.add(col)) {
+      size += sizeOf(col);
+    }
   }
 
   @Override
@@ -431,13 +497,14 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
   }
 
   public static class CommitData {
-    ConditionalWriter cw;
     private Bytes prow;
     private Column pcol;
     private Bytes pval;
 
     private HashSet<Bytes> acceptedRows;
     private Map<Bytes, Set<Column>> rejected = null;
+    // notifications written by the transaction, passed as hints to a local worker after commit
+    private List<RowColumn> notifications = Collections.emptyList();
 
     private void addPrimaryToRejected() {
       rejected = Collections.singletonMap(prow, Collections.singleton(pcol));
@@ -503,6 +570,8 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     private AsyncConditionalWriter acw;
     private AsyncConditionalWriter bacw;
     private AsyncCommitObserver commitObserver;
+    // true when the committer reserved memory for the transaction, see CommitManager
+    private boolean memoryReserved = false;
 
   }
 
@@ -682,7 +751,7 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
             // but
             // it scans to ACK
             if (scanner.iterator().hasNext()) {
-              env.getSharedResources().getBatchWriter()
+              env.getSharedResources().getNotificationBatchWriter()
                   .writeMutationAsync(notification.newDelete(env));
               return true;
             }
@@ -699,7 +768,6 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
   public CommitData createCommitData() {
     CommitData cd = new CommitData();
-    cd.cw = env.getSharedResources().getConditionalWriter();
     cd.acw = env.getSharedResources().getAsyncConditionalWriter();
     cd.bacw = env.getSharedResources().getBulkAsyncConditionalWriter();
     return cd;
@@ -713,16 +781,24 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
       sco.waitForCommit();
     } finally {
       updates.clear();
-      weakNotification = null;
+      weakTriggers = Collections.emptyList();
       columnsRead.clear();
+      size = 0;
     }
   }
 
   void deleteWeakRow() {
-    if (weakNotification != null) {
-      env.getSharedResources().getBatchWriter()
-          .writeMutation(weakNotification.newDelete(env, startTs));
+    if (!weakTriggers.isEmpty()) {
+      env.getSharedResources().getNotificationBatchWriter().writeMutations(newWeakTriggerDeletes());
+    }
+  }
+
+  private List<Mutation> newWeakTriggerDeletes() {
+    List<Mutation> deletes = new ArrayList<>(weakTriggers.size());
+    for (Notification trigger : weakTriggers) {
+      deletes.add(trigger.newDelete(env, startTs));
     }
+    return deletes;
   }
 
   @Override
@@ -798,34 +874,16 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
   @Override
   public int getSize() {
-    // TODO could calculate as items are added/set
-    int size = 0;
-
-    for (Entry<Bytes, Map<Column, Bytes>> entry : updates.entrySet()) {
-      size += entry.getKey().length();
-      for (Entry<Column, Bytes> entry2 : entry.getValue().entrySet()) {
-        Column c = entry2.getKey();
-        size += c.getFamily().length();
-        size += c.getQualifier().length();
-        size += c.getVisibility().length();
-        size += entry2.getValue().length();
-      }
-    }
-
-    for (Entry<Bytes, Set<Column>> entry : columnsRead.entrySet()) {
-      size += entry.getKey().length();
-      for (Column c : entry.getValue()) {
-        size += c.getFamily().length();
-        size += c.getQualifier().length();
-        size += c.getVisibility().length();
-      }
-    }
-
     return size;
   }
 
   abstract class CommitStep {
     private CommitStep nextStep;
+    // the number of mutations written by the main op, reported with the step's timing
+    int mutationCount = 0;
+    private long startTime;
+    private long startNanos;
+    private boolean recorded = false;
 
     // the boolean indicates if the operation was successful.
     abstract CompletableFuture<Boolean> getMainOp(CommitData cd);
@@ -840,8 +898,33 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     }
 
 
+    // the name used to report this steps timing, for example LockPrimaryStep is lock_primary
+    String getName() {
+      String name = getClass().getSimpleName();
+      if (name.endsWith("Step")) {
+        name = name.substring(0, name.length() - 4);
+      }
+      return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name);
+    }
+
+    /**
+     * Adds the timing of this step to the transaction's stats. Steps that notify the commit
+     * observer in their main op must call this first, so the stats are complete when they are
+     * reported.
+     */
+    void recordTiming() {
+      if (!recorded) {
+        recorded = true;
+        getStats().addCommitStep(getName(), startTime, System.nanoTime() - startNanos,
+            mutationCount);
+      }
+    }
+
     CompletableFuture<Void> compose(CommitData cd) {
+      startTime = System.currentTimeMillis();
+      startNanos = System.nanoTime();
       return getMainOp(cd).thenComposeAsync(successful -> {
+        recordTiming();
         if (successful) {
           if (nextStep != null) {
             return nextStep.compose(cd);
@@ -860,8 +943,12 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
     public abstract Collection<ConditionalMutation> createMutations(CommitData cd);
 
-    public abstract Iterator<Result> handleUnknown(CommitData cd, Iterator<Result> results)
-        throws Exception;
+    /**
+     * Determines the outcome of mutations whose status was unknown. Implementations must not block
+     * the calling thread, use {@link #resolveUnknown(CommitData, Result, Function)} instead.
+     */
+    public abstract CompletableFuture<Iterator<Result>> handleUnknown(CommitData cd,
+        Iterator<Result> results);
 
     public abstract boolean processResults(CommitData cd, Iterator<Result> results)
         throws Exception;
@@ -874,7 +961,9 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     CompletableFuture<Boolean> getMainOp(CommitData cd) {
       // TODO not sure threading is correct
       Executor ace = env.getSharedResources().getAsyncCommitExecutor();
-      return getACW(cd).apply(createMutations(cd)).thenCompose(results -> {
+      Collection<ConditionalMutation> mutations = createMutations(cd);
+      mutationCount = mutations.size();
+      return getACW(cd).apply(mutations, cd.memoryReserved).thenCompose(results -> {
         // ugh icky that this is an iterator, forces copy to inspect.. could refactor async CW to
         // return collection
         ArrayList<Result> resultsList = new ArrayList<>();
@@ -888,15 +977,7 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
           }
         }
         if (containsUknown) {
-          // process unknown in sync executor
-          Executor se = env.getSharedResources().getSyncCommitExecutor();
-          return CompletableFuture.supplyAsync(() -> {
-            try {
-              return handleUnknown(cd, resultsList.iterator());
-            } catch (Exception e) {
-              throw new CompletionException(e);
-            }
-          }, se);
+          return handleUnknown(cd, resultsList.iterator());
         } else {
           return CompletableFuture.completedFuture(resultsList.iterator());
         }
@@ -909,7 +990,53 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
       }, ace);
     }
 
-
+    /**
+     * Reads the status of this transaction from its primary column. The scan runs in the sync
+     * executor, so the calling thread is not blocked.
+     */
+    CompletableFuture<TxInfo> getTransactionInfoAsync(CommitData cd) {
+      return CompletableFuture.supplyAsync(
+          () -> TxInfo.getTransactionInfo(env, cd.prow, cd.pcol, startTs),
+          env.getSharedResources().getSyncCommitExecutor());
+    }
+
+    /**
+     * Writes the mutation of a result again.
+     */
+    CompletableFuture<Result> retryWrite(CommitData cd, Result result) {
+      return getACW(cd).apply(Collections.singleton(result.getMutation()), cd.memoryReserved)
+          .thenApply(Iterators::getOnlyElement);
+    }
+
+    /**
+     * Determines the outcome of a mutation whose status was unknown by alternating between reading
+     * the state of this transaction and writing the mutation again, until one of them decides it.
+     * The outcome fails with a {@link CommitUnknownException} when the configured number of retries
+     * is exhausted.
+     *
+     * @param decider returns the status of the mutation implied by the state of this transaction,
+     *        or null when the mutation should be written again
+     */
+    CompletableFuture<Iterator<Result>> resolveUnknown(CommitData cd, Result result,
+        Function<TxInfo, Status> decider) {
+      return env.getSharedResources().getCommitRetryExecutor()
+          .resolve(() -> getTransactionInfoAsync(cd).thenApply(txInfo -> {
+            Status status = decider.apply(txInfo);
+            return status == null ? null
+                : new Result(status, result.getMutation(), result.getTabletServer());
+          }), () -> retryWrite(cd, result)
+              .thenApply(newResult -> getStatus(newResult) == Status.UNKNOWN ? null : newResult),
+              cd.prow + " " + cd.pcol + " startTs=" + startTs)
+          .thenApply(resolved -> Collections.singleton(resolved).iterator());
+    }
+  }
+
+  private static Status getStatus(Result result) {
+    try {
+      return result.getStatus();
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
   }
 
   class LockPrimaryStep extends ConditionalStep {
@@ -921,45 +1048,23 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     }
 
     @Override
-    public Iterator<Result> handleUnknown(CommitData cd, Iterator<Result> results)
-        throws Exception {
-
-      Result result = Iterators.getOnlyElement(results);
-      Status mutationStatus = result.getStatus();
-      // TODO convert this code to async
-      while (mutationStatus == Status.UNKNOWN) {
-        TxInfo txInfo = TxInfo.getTransactionInfo(env, cd.prow, cd.pcol, startTs);
-
+    public CompletableFuture<Iterator<Result>> handleUnknown(CommitData cd,
+        Iterator<Result> results) {
+      return resolveUnknown(cd, Iterators.getOnlyElement(results), txInfo -> {
         switch (txInfo.status) {
           case LOCKED:
-            return Collections
-                .singleton(
-                    new Result(Status.ACCEPTED, result.getMutation(), result.getTabletServer()))
-                .iterator();
+            return Status.ACCEPTED;
           case ROLLED_BACK:
-            return Collections
-                .singleton(
-                    new Result(Status.REJECTED, result.getMutation(), result.getTabletServer()))
-                .iterator();
+            return Status.REJECTED;
           case UNKNOWN:
-            // TODO async
-            Result newResult = cd.cw.write(result.getMutation());
-            mutationStatus = newResult.getStatus();
-            if (mutationStatus != Status.UNKNOWN) {
-              return Collections.singleton(newResult).iterator();
-            }
             // TODO handle case were data other tx has lock
-            break;
+            return null;
           case COMMITTED:
           default:
             throw new IllegalStateException(
                 "unexpected tx state " + txInfo.status + " " + cd.prow + " " + cd.pcol);
-
         }
-      }
-
-      // TODO
-      throw new IllegalStateException();
+      });
     }
 
     @Override
@@ -974,7 +1079,7 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
       return CompletableFuture.supplyAsync(() -> {
         final ConditionalMutation pcm = Iterables.getOnlyElement(createMutations(cd));
 
-        cd.addPrimaryToRejected();
+        addToRejected(cd);
         getStats().setRejected(cd.getRejected());
         // TODO do async
         try {
@@ -992,6 +1097,9 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
       }, env.getSharedResources().getSyncCommitExecutor());
     }
 
+    void addToRejected(CommitData cd) {
+      cd.addPrimaryToRejected();
+    }
   }
 
   class LockOtherStep extends ConditionalStep {
@@ -1028,9 +1136,10 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     }
 
     @Override
-    public Iterator<Result> handleUnknown(CommitData cd, Iterator<Result> results) {
+    public CompletableFuture<Iterator<Result>> handleUnknown(CommitData cd,
+        Iterator<Result> results) {
       // TODO this step does not currently handle unknown
-      return results;
+      return CompletableFuture.completedFuture(results);
     }
 
     @Override
@@ -1068,10 +1177,33 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
   abstract class BatchWriterStep extends CommitStep {
     public abstract Collection<Mutation> createMutations(CommitData cd);
 
+    /**
+     * Creates mutations that only contain notifications, which are written to the notification
+     * table.
+     */
+    public Collection<Mutation> createNotificationMutations(CommitData cd) {
+      return Collections.emptyList();
+    }
+
     @Override
     CompletableFuture<Boolean> getMainOp(CommitData cd) {
-      return env.getSharedResources().getBatchWriter()
-          .writeMutationsAsyncFuture(createMutations(cd)).thenApply(v -> true);
+      Collection<Mutation> mutations = createMutations(cd);
+      Collection<Mutation> ntfyMutations = createNotificationMutations(cd);
+      mutationCount = mutations.size() + ntfyMutations.size();
+
+      SharedResources resources = env.getSharedResources();
+      if (!env.hasSeparateNotificationTable()) {
+        if (!ntfyMutations.isEmpty()) {
+          mutations = new ArrayList<>(mutations);
+          mutations.addAll(ntfyMutations);
+        }
+        return resources.getBatchWriter().writeMutationsAsyncFuture(mutations).thenApply(v -> true);
+      }
+
+      return CompletableFuture
+          .allOf(resources.getBatchWriter().writeMutationsAsyncFuture(mutations),
+              resources.getNotificationBatchWriter().writeMutationsAsyncFuture(ntfyMutations))
+          .thenApply(v -> true);
     }
 
     @Override
@@ -1139,6 +1271,7 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
   class CommittedTestStep extends CommitStep {
     @Override
     CompletableFuture<Boolean> getMainOp(CommitData cd) {
+      recordTiming();
       cd.commitObserver.committed();
       return CompletableFuture.completedFuture(true);
     }
@@ -1212,49 +1345,66 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
   }
 
-  class WriteNotificationsStep extends BatchWriterStep {
-
-    @Override
-    public Collection<Mutation> createMutations(CommitData cd) {
-      long commitTs = getStats().getCommitTs();
-      HashMap<Bytes, Mutation> mutations = new HashMap<>();
+  /**
+   * Adds a notification for each observed column written and each weak notification set by this
+   * transaction. The function supplies the mutation to use for a row.
+   */
+  private void putNotifications(CommitData cd, Function<Bytes, Mutation> rowMutations) {
+    long commitTs = getStats().getCommitTs();
+    List<RowColumn> hints =
+        env.getSharedResources().getNotificationHints().hasListener() ? new ArrayList<>() : null;
 
-      if (observedColumns.contains(cd.pcol) && isWrite(cd.pval) && !isDelete(cd.pval)) {
-        Flutation m = new Flutation(env, cd.prow);
-        Notification.put(env, m, cd.pcol, commitTs);
-        mutations.put(cd.prow, m);
-      }
+    if (observedColumns.contains(cd.pcol) && isWrite(cd.pval) && !isDelete(cd.pval)) {
+      Notification.put(env, rowMutations.apply(cd.prow), cd.pcol, commitTs);
+      addHint(hints, cd.prow, cd.pcol);
+    }
 
-      for (Entry<Bytes, Map<Column, Bytes>> rowUpdates : updates.entrySet()) {
+    for (Entry<Bytes, Map<Column, Bytes>> rowUpdates : updates.entrySet()) {
 
-        for (Entry<Column, Bytes> colUpdates : rowUpdates.getValue().entrySet()) {
-          if (observedColumns.contains(colUpdates.getKey())) {
-            Bytes val = colUpdates.getValue();
-            if (isWrite(val) && !isDelete(val)) {
-              Mutation m = mutations.get(rowUpdates.getKey());
-              if (m == null) {
-                m = new Flutation(env, rowUpdates.getKey());
-                mutations.put(rowUpdates.getKey(), m);
-              }
-              Notification.put(env, m, colUpdates.getKey(), commitTs);
-            }
+      for (Entry<Column, Bytes> colUpdates : rowUpdates.getValue().entrySet()) {
+        if (observedColumns.contains(colUpdates.getKey())) {
+          Bytes val = colUpdates.getValue();
+          if (isWrite(val) && !isDelete(val)) {
+            Notification.put(env, rowMutations.apply(rowUpdates.getKey()), colUpdates.getKey(),
+                commitTs);
+            addHint(hints, rowUpdates.getKey(), colUpdates.getKey());
           }
         }
       }
+    }
 
-      for (Entry<Bytes, Set<Column>> entry : weakNotifications.entrySet()) {
-        Mutation m = mutations.get(entry.getKey());
-        if (m == null) {
-          m = new Flutation(env, entry.getKey());
-          mutations.put(entry.getKey(), m);
-        }
-        for (Column col : entry.getValue()) {
-          Notification.put(env, m, col, commitTs);
-        }
+    for (Entry<Bytes, Set<Column>> entry : weakNotifications.entrySet()) {
+      Mutation m = rowMutations.apply(entry.getKey());
+      for (Column col : entry.getValue()) {
+        Notification.put(env, m, col, commitTs);
+        addHint(hints, entry.getKey(), col);
       }
-      return mutations.values();
     }
 
+    if (hints != null) {
+      cd.notifications = hints;
+    }
+  }
+
+  private static void addHint(List<RowColumn> hints, Bytes row, Column col) {
+    if (hints != null) {
+      hints.add(new RowColumn(row, col));
+    }
+  }
+
+  class WriteNotificationsStep extends BatchWriterStep {
+
+    @Override
+    public Collection<Mutation> createMutations(CommitData cd) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<Mutation> createNotificationMutations(CommitData cd) {
+      HashMap<Bytes, Mutation> mutations = new HashMap<>();
+      putNotifications(cd, row -> mutations.computeIfAbsent(row, r -> new Flutation(env, r)));
+      return mutations.values();
+    }
   }
 
   class CommitPrimaryStep extends ConditionalStep {
@@ -1278,38 +1428,23 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     }
 
     @Override
-    public Iterator<Result> handleUnknown(CommitData cd, Iterator<Result> results)
-        throws Exception {
-      // the code for handing this is synchronous and needs to be handled in another thread pool
-      // TODO - how do we do the above without return a CF?
+    public CompletableFuture<Iterator<Result>> handleUnknown(CommitData cd,
+        Iterator<Result> results) {
       long commitTs = getStats().getCommitTs();
-      Result result = Iterators.getOnlyElement(results);
-      Status ms = result.getStatus();
-
-      while (ms == Status.UNKNOWN) {
-
-        // TODO async
-        TxInfo txInfo = TxInfo.getTransactionInfo(env, cd.prow, cd.pcol, startTs);
-
+      return resolveUnknown(cd, Iterators.getOnlyElement(results), txInfo -> {
         switch (txInfo.status) {
           case COMMITTED:
             if (txInfo.commitTs != commitTs) {
               throw new IllegalStateException(
                   cd.prow + " " + cd.pcol + " " + txInfo.commitTs + "!=" + commitTs);
             }
-            ms = Status.ACCEPTED;
-            break;
+            return Status.ACCEPTED;
           case LOCKED:
-            // TODO async
-            ConditionalMutation delLockMutation = result.getMutation();
-            ms = cd.cw.write(delLockMutation).getStatus();
-            break;
+            return null;
           default:
-            ms = Status.REJECTED;
+            return Status.REJECTED;
         }
-      }
-      Result newResult = new Result(ms, result.getMutation(), result.getTabletServer());
-      return Collections.singletonList(newResult).iterator();
+      });
     }
 
     @Override
@@ -1344,6 +1479,101 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
   }
 
 
+  /**
+   * Locks all columns of a single row transaction using one conditional mutation.
+   */
+  class LockRowStep extends LockPrimaryStep {
+
+    @Override
+    public Collection<ConditionalMutation> createMutations(CommitData cd) {
+      ConditionalFlutation cm =
+          prewrite(cd.prow, cd.pcol, cd.pval, cd.prow, cd.pcol, isTriggerRow(cd.prow));
+      for (Entry<Column, Bytes> colUpdates : updates.getOrDefault(cd.prow, Collections.emptyMap())
+          .entrySet()) {
+        prewrite(cm, colUpdates.getKey(), colUpdates.getValue(), cd.prow, cd.pcol, false);
+      }
+      return Collections.singleton(cm);
+    }
+
+    @Override
+    public boolean processResults(CommitData cd, Iterator<Result> results) throws Exception {
+      boolean accepted = super.processResults(cd, results);
+      // the locks on the other columns need to be rolled back if getting a commit stamp fails
+      cd.acceptedRows = new HashSet<>();
+      if (accepted && updates.containsKey(cd.prow)) {
+        cd.acceptedRows.add(cd.prow);
+      }
+      return accepted;
+    }
+
+    @Override
+    void addToRejected(CommitData cd) {
+      // the conditional mutation covers every column in the row, so any of them could have caused
+      // the rejection
+      Set<Column> cols =
+          new HashSet<>(updates.getOrDefault(cd.prow, Collections.emptyMap()).keySet());
+      cols.add(cd.pcol);
+      cd.addToRejected(cd.prow, cols);
+    }
+  }
+
+  /**
+   * Commits all columns of a single row transaction using one conditional mutation that is
+   * conditioned on the primary lock. Notifications, the transaction done marker, and deletes of the
+   * notifications that triggered the transaction are written in the same mutation. Accumulo applies
+   * the mutation atomically, so the observers it triggers always see all of its changes.
+   *
+   * <p>
+   * When notifications are stored in a separate table they can not be part of the mutation. Then
+   * they are written before this step and deleted after it, like for multi row transactions.
+   */
+  class CommitRowStep extends CommitPrimaryStep {
+
+    private final boolean includeNotifications = !env.hasSeparateNotificationTable();
+
+    @Override
+    public Collection<ConditionalMutation> createMutations(CommitData cd) {
+      long commitTs = getStats().getCommitTs();
+      ConditionalMutation cm = Iterables.getOnlyElement(super.createMutations(cd));
+
+      for (Entry<Column, Bytes> colUpdates : updates.getOrDefault(cd.prow, Collections.emptyMap())
+          .entrySet()) {
+        Bytes val = colUpdates.getValue();
+        ColumnUtil.commitColumn(env, false, false, colUpdates.getKey(), isWrite(val), isDelete(val),
+            isReadLock(val), startTs, commitTs, observedColumns, cm);
+      }
+
+      // mark transaction as complete for garbage collection purposes
+      Flutation.put(env, cm, cd.pcol, ColumnType.TX_DONE.encode(commitTs), EMPTY);
+
+      if (includeNotifications) {
+        putNotifications(cd, row -> cm);
+
+        if (notification != null) {
+          notification.putDelete(env, cm, startTs);
+        }
+
+        for (Notification trigger : weakTriggers) {
+          trigger.putDelete(env, cm, startTs);
+        }
+      }
+
+      return Collections.singletonList(cm);
+    }
+
+    @Override
+    CompletableFuture<Boolean> getMainOp(CommitData cd) {
+      return super.getMainOp(cd).thenApply(committed -> {
+        if (committed && includeNotifications) {
+          env.getSharedResources().getNotificationHints().publish(cd.notifications);
+          recordTiming();
+          cd.commitObserver.committed();
+        }
+        return committed;
+      });
+    }
+  }
+
   class DeleteLocksStep extends BatchWriterStep {
 
     @Override
@@ -1368,12 +1598,25 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
   }
 
+  /**
+   * Deletes the notifications that triggered a single row transaction after {@link CommitRowStep}
+   * when they are stored in a separate table. The transaction done marker was already written.
+   */
+  class FinishRowCommitStep extends FinishCommitStep {
+    @Override
+    public Collection<Mutation> createMutations(CommitData cd) {
+      return Collections.emptyList();
+    }
+  }
+
   class FinishCommitStep extends BatchWriterStep {
 
     @Override
     CompletableFuture<Boolean> getMainOp(CommitData cd) {
       return super.getMainOp(cd).thenApply(b -> {
         Preconditions.checkArgument(b);
+        env.getSharedResources().getNotificationHints().publish(cd.notifications);
+        recordTiming();
         cd.commitObserver.committed();
         return true;
       });
@@ -1382,28 +1625,30 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     @Override
     public Collection<Mutation> createMutations(CommitData cd) {
       long commitTs = getStats().getCommitTs();
-      ArrayList<Mutation> afterFlushMutations = new ArrayList<>(2);
-
       Flutation m = new Flutation(env, cd.prow);
       // mark transaction as complete for garbage collection purposes
       m.put(cd.pcol, ColumnType.TX_DONE.encode(commitTs), EMPTY);
-      afterFlushMutations.add(m);
-
-      if (weakNotification != null) {
-        afterFlushMutations.add(weakNotification.newDelete(env, startTs));
-      }
+      return Collections.singletonList(m);
+    }
 
+    @Override
+    public Collection<Mutation> createNotificationMutations(CommitData cd) {
+      List<Mutation> deletes = newWeakTriggerDeletes();
       if (notification != null) {
-        afterFlushMutations.add(notification.newDelete(env, startTs));
+        deletes.add(notification.newDelete(env, startTs));
       }
-
-      return afterFlushMutations;
+      return deletes;
     }
 
   }
 
   @Override
-  public synchronized void commitAsync(AsyncCommitObserver commitCallback) {
+  public void commitAsync(AsyncCommitObserver commitCallback) {
+    commitAsync(commitCallback, false);
+  }
+
+  @Override
+  public synchronized void commitAsync(AsyncCommitObserver commitCallback, boolean memoryReserved) {
 
     checkIfOpen();
     status = TxStatus.COMMIT_STARTED;
@@ -1411,6 +1656,7 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
 
     try {
       CommitData cd = createCommitData();
+      cd.memoryReserved = memoryReserved;
       cd = setUpBeginCommitAsync(cd, commitCallback, null);
       if (cd != null) {
         beginCommitAsync(cd);
@@ -1471,8 +1717,12 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     Map<Column, Bytes> colSet = updates.get(cd.prow);
     cd.pcol = primCol;
     cd.pval = colSet.remove(primCol);
+    if (cd.pval != null) {
+      size -= sizeOf(cd.pcol) + cd.pval.length();
+    }
     if (colSet.isEmpty()) {
       updates.remove(cd.prow);
+      size -= cd.prow.length();
     }
 
     cd.commitObserver = commitCallback;
@@ -1490,6 +1740,12 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     }
   }
 
+  private boolean isSingleRow(CommitData cd) {
+    return updates.keySet().stream().allMatch(cd.prow::equals)
+        && weakNotifications.keySet().stream().allMatch(cd.prow::equals)
+        && weakTriggers.stream().map(Notification::getRow).allMatch(cd.prow::equals);
+  }
+
   private void beginCommitAsync(CommitData cd) {
 
     // Notification are written between GetCommitStampStep and CommitPrimaryStep for the following
@@ -1507,11 +1763,30 @@ public class TransactionImpl extends AbstractTransactionBase implements AsyncTra
     // Its very important the notifications which trigger an observer are deleted after the 2nd
     // phase of commit finishes.
 
-    CommitStep firstStep = new LockPrimaryStep();
-
-    firstStep.andThen(new LockOtherStep()).andThen(new GetCommitStampStep())
-        .andThen(new WriteNotificationsStep()).andThen(new CommitPrimaryStep())
-        .andThen(new DeleteLocksStep()).andThen(new FinishCommitStep());
+    //
+    // When everything the transaction writes, including notifications and deletes of the
+    // notifications that triggered it, is in a single row then all locks are written in one
+    // conditional mutation and everything is committed in a second conditional mutation. Commit
+    // stamps must still be obtained after locking, otherwise a transaction that started after the
+    // commit stamp could read the row before the commit and not see it. When notifications are
+    // stored in a separate table, they are written and deleted around the commit mutation for the
+    // reasons above.
+
+    CommitStep firstStep;
+
+    if (isSingleRow(cd) && env.hasSeparateNotificationTable()) {
+      firstStep = new LockRowStep();
+      firstStep.andThen(new GetCommitStampStep()).andThen(new WriteNotificationsStep())
+          .andThen(new CommitRowStep()).andThen(new FinishRowCommitStep());
+    } else if (isSingleRow(cd)) {
+      firstStep = new LockRowStep();
+      firstStep.andThen(new GetCommitStampStep()).andThen(new CommitRowStep());
+    } else {
+      firstStep = new LockPrimaryStep();
+      firstStep.andThen(new LockOtherStep()).andThen(new GetCommitStampStep())
+          .andThen(new WriteNotificationsStep()).andThen(new CommitPrimaryStep())
+          .andThen(new DeleteLocksStep()).andThen(new FinishCommitStep());
+    }
 
     firstStep.compose(cd).exceptionally(throwable -> {
       setFailed(cd, throwable);
@@ -15,10 +15,18 @@
 
 package org.apache.fluo.core.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
+import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.fluo.accumulo.iterators.RollbackCheckIterator;
 import org.apache.fluo.accumulo.util.ColumnConstants;
@@ -27,7 +35,11 @@ import org.apache.fluo.accumulo.values.DelLockValue;
 import org.apache.fluo.accumulo.values.WriteValue;
 import org.apache.fluo.api.data.Bytes;
 import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.data.RowColumn;
+import org.apache.fluo.api.data.Span;
+import org.apache.fluo.core.util.ByteUtil;
 import org.apache.fluo.core.util.ColumnUtil;
+import org.apache.fluo.core.util.SpanUtil;
 
 public class TxInfo {
   public TxStatus status = null;
@@ -45,6 +57,78 @@ public class TxInfo {
 
     Entry<Key, Value> entry = ColumnUtil.checkColumn(env, is, prow, pcol);
 
+    return fromEntry(prow, pcol, startTs, entry);
+  }
+
+  /**
+   * determine the state of many transactions by inspecting their primary columns using a single
+   * batch scan
+   */
+  public static Map<PrimaryRowColumn, TxInfo> getTransactionInfo(Environment env,
+      Collection<PrimaryRowColumn> prcs) {
+
+    Map<PrimaryRowColumn, TxInfo> ret = new HashMap<>();
+
+    // The batch scanner merges overlapping ranges, so each column may only be checked once per
+    // scan. This is only an issue when a column is the primary for multiple transactions.
+    Collection<PrimaryRowColumn> remaining = prcs;
+    while (!remaining.isEmpty()) {
+      Map<RowColumn, PrimaryRowColumn> toCheck = new HashMap<>();
+      List<PrimaryRowColumn> deferred = new ArrayList<>();
+      for (PrimaryRowColumn prc : remaining) {
+        if (toCheck.putIfAbsent(new RowColumn(prc.prow, prc.pcol), prc) != null) {
+          deferred.add(prc);
+        }
+      }
+
+      ret.putAll(checkColumns(env, toCheck));
+      remaining = deferred;
+    }
+
+    return ret;
+  }
+
+  private static Map<PrimaryRowColumn, TxInfo> checkColumns(Environment env,
+      Map<RowColumn, PrimaryRowColumn> toCheck) {
+    List<Range> ranges = new ArrayList<>(toCheck.size());
+    for (PrimaryRowColumn prc : toCheck.values()) {
+      // the iterator reads the lock time from the timestamp of the range start key
+      Range range = SpanUtil.toRange(Span.exact(prc.prow, prc.pcol));
+      Key start = new Key(range.getStartKey());
+      start.setTimestamp(prc.startTs);
+      ranges.add(new Range(start, true, range.getEndKey(), range.isEndKeyInclusive()));
+    }
+
+    Map<PrimaryRowColumn, TxInfo> ret = new HashMap<>();
+
+    try (BatchScanner bscanner = env.getAccumuloClient().createBatchScanner(env.getTable(),
+        env.getAuthorizations(), Math.min(ranges.size(), 8))) {
+      bscanner.setRanges(ranges);
+      IteratorSetting is = new IteratorSetting(10, RollbackCheckIterator.class);
+      RollbackCheckIterator.setLocktimeFromRange(is);
+      bscanner.addScanIterator(is);
+
+      for (Entry<Key, Value> entry : bscanner) {
+        Key k = entry.getKey();
+        PrimaryRowColumn prc =
+            toCheck.get(new RowColumn(ByteUtil.toBytes(k.getRowData()), ColumnUtil.convert(k)));
+        if (prc == null) {
+          throw new IllegalStateException("unexpected key " + entry.getKey());
+        }
+        ret.put(prc, fromEntry(prc.prow, prc.pcol, prc.startTs, entry));
+      }
+    } catch (TableNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+
+    for (PrimaryRowColumn prc : toCheck.values()) {
+      ret.computeIfAbsent(prc, k -> fromEntry(k.prow, k.pcol, k.startTs, null));
+    }
+
+    return ret;
+  }
+
+  private static TxInfo fromEntry(Bytes prow, Column pcol, long startTs, Entry<Key, Value> entry) {
     TxInfo txInfo = new TxInfo();
 
     if (entry == null) {
@@ -15,6 +15,11 @@
 
 package org.apache.fluo.core.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.cache.Cache;
@@ -55,12 +60,42 @@ public class TxInfoCache {
     TxInfo txInfo = cache.getIfPresent(key);
     if (txInfo == null) {
       txInfo = TxInfo.getTransactionInfo(env, key.prow, key.pcol, key.startTs);
-      if (txInfo.status == TxStatus.ROLLED_BACK || txInfo.status == TxStatus.COMMITTED) {
-        // only cache for these statuses which are not expected to change, other status can change
-        // over time
-        cache.put(key, txInfo);
-      }
+      cacheIfFinal(key, txInfo);
     }
     return txInfo;
   }
+
+  /**
+   * Gets the status of many transactions, looking up all that are not cached in a single batch
+   * scan.
+   */
+  public Map<PrimaryRowColumn, TxInfo> getTransactionInfo(Collection<PrimaryRowColumn> keys) {
+    Map<PrimaryRowColumn, TxInfo> ret = new HashMap<>(cache.getAllPresent(keys));
+
+    List<PrimaryRowColumn> misses = new ArrayList<>();
+    for (PrimaryRowColumn key : keys) {
+      if (!ret.containsKey(key)) {
+        misses.add(key);
+      }
+    }
+
+    if (misses.size() == 1) {
+      PrimaryRowColumn key = misses.get(0);
+      ret.put(key, getTransactionInfo(key));
+    } else if (!misses.isEmpty()) {
+      Map<PrimaryRowColumn, TxInfo> found = TxInfo.getTransactionInfo(env, misses);
+      found.forEach(this::cacheIfFinal);
+      ret.putAll(found);
+    }
+
+    return ret;
+  }
+
+  private void cacheIfFinal(PrimaryRowColumn key, TxInfo txInfo) {
+    if (txInfo.status == TxStatus.ROLLED_BACK || txInfo.status == TxStatus.COMMITTED) {
+      // only cache for these statuses which are not expected to change, other status can change
+      // over time
+      cache.put(key, txInfo);
+    }
+  }
 }
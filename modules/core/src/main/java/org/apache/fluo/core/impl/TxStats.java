@@ -15,7 +15,9 @@
 
 package org.apache.fluo.core.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -29,6 +31,52 @@ import org.apache.fluo.core.metrics.MetricNames;
 import org.apache.fluo.core.metrics.MetricsUtil;
 
 public class TxStats {
+
+  /**
+   * Timing of a single step of the commit pipeline.
+   */
+  public static class CommitStepStats {
+    private final String step;
+    private final long startTime;
+    private final long nanos;
+    private final int mutations;
+
+    CommitStepStats(String step, long startTime, long nanos, int mutations) {
+      this.step = step;
+      this.startTime = startTime;
+      this.nanos = nanos;
+      this.mutations = mutations;
+    }
+
+    public String getStep() {
+      return step;
+    }
+
+    /**
+     * @return wall time in millis when the step started
+     */
+    public long getStartTime() {
+      return startTime;
+    }
+
+    public long getTime(TimeUnit tu) {
+      return tu.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of mutations written by the step
+     */
+    public int getMutations() {
+      return mutations;
+    }
+
+    @Override
+    public String toString() {
+      return step + "{start=" + startTime + ", micros=" + getTime(TimeUnit.MICROSECONDS)
+          + ", mutations=" + mutations + "}";
+    }
+  }
+
   private final long startTime;
   private long beginCommitTime;
   private long finishCommitTime;
@@ -42,6 +90,7 @@ public class TxStats {
   private long timedOutLocks = 0;
   private Map<Bytes, Set<Column>> rejected = Collections.emptyMap();
   private long commitTs = -1;
+  private final List<CommitStepStats> commitSteps = new ArrayList<>();
   private final Environment env;
 
   TxStats(Environment env) {
@@ -107,6 +156,17 @@ public class TxStats {
     this.commitTs = ts;
   }
 
+  /**
+   * @return the steps of the commit pipeline that ran, in the order they finished
+   */
+  public synchronized List<CommitStepStats> getCommitSteps() {
+    return new ArrayList<>(commitSteps);
+  }
+
+  synchronized void addCommitStep(String step, long startTime, long nanos, int mutations) {
+    commitSteps.add(new CommitStepStats(step, startTime, nanos, mutations));
+  }
+
   void incrementLockWaitTime(long l) {
     lockWaitTime += l;
   }
@@ -163,6 +223,11 @@ public class TxStats {
     if (getDeadLocks() > 0) {
       registry.meter(names.getTxLocksDead(alias)).mark(getDeadLocks());
     }
+    for (CommitStepStats css : getCommitSteps()) {
+      MetricsUtil
+          .getTimer(env.getConfiguration(), registry, names.getTxCommitStepTime(css.step, alias))
+          .update(css.nanos, TimeUnit.NANOSECONDS);
+    }
     registry.meter(names.getTxStatus(status.toLowerCase(), alias)).mark();
   }
 
@@ -49,6 +49,8 @@ public class TracingTransaction extends AbstractTransactionBase
       LoggerFactory.getLogger(FluoConfiguration.TRANSACTION_PREFIX + ".collisions");
   private static final Logger summaryLog =
       LoggerFactory.getLogger(FluoConfiguration.TRANSACTION_PREFIX + ".summary");
+  private static final Logger stepsLog =
+      LoggerFactory.getLogger(FluoConfiguration.TRANSACTION_PREFIX + ".steps");
 
   private final AsyncTransaction tx;
   private final long txid;
@@ -262,11 +264,17 @@ public class TracingTransaction extends AbstractTransactionBase
           stats.getCommitTime(), stats.getEntriesReturned(), stats.getEntriesSet(),
           stats.getCollisions(), stats.getLockWaitTime(), committed, className);
     }
+    if (stepsLog.isTraceEnabled() && !tx.getStats().getCommitSteps().isEmpty()) {
+      // one record per commit with the start time, duration, and mutations of each commit step
+      stepsLog.trace("txid: {} commitTs: {} committed: {} steps: {}", txid,
+          tx.getStats().getCommitTs(), committed, tx.getStats().getCommitSteps());
+    }
     tx.close();
   }
 
   public static boolean isTracingEnabled() {
-    return log.isTraceEnabled() || summaryLog.isTraceEnabled() || collisionLog.isTraceEnabled();
+    return log.isTraceEnabled() || summaryLog.isTraceEnabled() || collisionLog.isTraceEnabled()
+        || stepsLog.isTraceEnabled();
   }
 
   @Override
@@ -314,6 +322,11 @@ public class TracingTransaction extends AbstractTransactionBase
     tx.commitAsync(new LoggingCommitObserver(commitCallback));
   }
 
+  @Override
+  public void commitAsync(AsyncCommitObserver commitCallback, boolean memoryReserved) {
+    tx.commitAsync(new LoggingCommitObserver(commitCallback), memoryReserved);
+  }
+
   @Override
   public TxStats getStats() {
     return tx.getStats();
@@ -39,13 +39,21 @@ public class MetricNames {
   private final String txLocksTimedOut;
   private final String txLocksDead;
   private final String txStatusPrefix;
+  private final String txCommitStepPrefix;
   private final String txCommitting;
 
   private final String notificationsQueued;
+  private final String notificationsTracked;
+  private final String notificationsMemory;
+  private final String notificationsDropped;
 
   private final String oracleResponseTime;
   private final String oracleClientStamps;
   private final String oracleServerStamps;
+  private final String asyncCWMemory;
+  private final String bwQueued;
+  private final String bwFlushTime;
+  private final String bwBatchSize;
 
   public MetricNames(String metricsReporterId, String appName) {
     Preconditions.checkArgument(!appName.contains("."),
@@ -65,15 +73,23 @@ public class MetricNames {
     txLocksTimedOut = classMetric + "tx_locks_timedout";
     txLocksDead = classMetric + "tx_locks_dead";
     txStatusPrefix = classMetric + "tx_status_"; // status appended to metric name
+    txCommitStepPrefix = classMetric + "tx_commit_step_"; // commit step appended to metric name
 
     // System-wide metrics
     // FORMAT: fluo.system.APPLICATION.REPORTER_ID.METRIC
     final String systemMetric = SYSTEM_PREFIX + "." + appName + "." + metricsReporterId + ".";
     txCommitting = systemMetric + "transactor_committing";
     notificationsQueued = systemMetric + "worker_notifications_queued";
+    notificationsTracked = systemMetric + "worker_notifications_tracked";
+    notificationsMemory = systemMetric + "worker_notifications_memory";
+    notificationsDropped = systemMetric + "worker_notifications_dropped";
     oracleResponseTime = systemMetric + "oracle_response_time";
     oracleClientStamps = systemMetric + "oracle_client_stamps";
     oracleServerStamps = systemMetric + "oracle_server_stamps";
+    asyncCWMemory = systemMetric + "async_cw_memory";
+    bwQueued = systemMetric + "bw_batches_queued";
+    bwFlushTime = systemMetric + "bw_flush_time";
+    bwBatchSize = systemMetric + "bw_flush_size";
   }
 
   public String getTxLockWaitTime(String className) {
@@ -112,18 +128,42 @@ public class MetricNames {
     return txStatusPrefix + status + "." + className;
   }
 
+  public String getTxCommitStepTime(String step, String className) {
+    return txCommitStepPrefix + step + "." + className;
+  }
+
   public String getNotificationQueued() {
     return notificationsQueued;
   }
 
+  public String getNotificationsTracked() {
+    return notificationsTracked;
+  }
+
+  public String getNotificationsMemory() {
+    return notificationsMemory;
+  }
+
+  public String getNotificationsDropped() {
+    return notificationsDropped;
+  }
+
   public String getOracleResponseTime() {
     return oracleResponseTime;
   }
 
+  public String getOracleResponseTime(int slot) {
+    return oracleResponseTime + ".slot" + slot;
+  }
+
   public String getOracleClientStamps() {
     return oracleClientStamps;
   }
 
+  public String getOracleClientStamps(int slot) {
+    return oracleClientStamps + ".slot" + slot;
+  }
+
   public String getOracleServerStamps() {
     return oracleServerStamps;
   }
@@ -131,4 +171,20 @@ public class MetricNames {
   public String getCommitsProcessing() {
     return txCommitting;
   }
+
+  public String getAsyncCWMemory(String writerName) {
+    return asyncCWMemory + "." + writerName;
+  }
+
+  public String getBWQueued(String writerName) {
+    return bwQueued + "." + writerName;
+  }
+
+  public String getBWFlushTime(String writerName) {
+    return bwFlushTime + "." + writerName;
+  }
+
+  public String getBWBatchSize(String writerName) {
+    return bwBatchSize + "." + writerName;
+  }
 }
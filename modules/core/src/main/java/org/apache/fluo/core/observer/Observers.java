@@ -16,6 +16,7 @@
 package org.apache.fluo.core.observer;
 
 import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.BatchObserver;
 import org.apache.fluo.api.observer.Observer;
 
 public interface Observers extends AutoCloseable {
@@ -23,6 +24,13 @@ public interface Observers extends AutoCloseable {
 
   Observer getObserver(Column col);
 
+  /**
+   * @return the batch observer for the column or null if the column does not have one.
+   */
+  default BatchObserver getBatchObserver(Column col) {
+    return null;
+  }
+
   void returnObserver(Observer o);
 
   @Override
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.BatchObserver;
 import org.apache.fluo.api.observer.Observer;
 import org.apache.fluo.api.observer.Observer.NotificationType;
 import org.apache.fluo.api.observer.ObserverProvider;
@@ -33,6 +34,7 @@ public class ObserverRegistry implements ObserverProvider.Registry {
   private static final Logger log = LoggerFactory.getLogger(ObserverRegistry.class);
 
   Map<Column, Observer> observers;
+  Map<Column, BatchObserver> batchObservers;
   Map<Column, String> aliases;
   private Set<Column> strongColumns;
   private Set<Column> weakColumns;
@@ -59,6 +61,11 @@ public class ObserverRegistry implements ObserverProvider.Registry {
       register(col, ntfyType, alias, observer);
     }
 
+    @Override
+    public void useBatchObserver(BatchObserver observer) {
+      registerBatch(col, ntfyType, alias, observer);
+    }
+
     @Override
     public ObserverArgument withId(String alias) {
       this.alias = alias;
@@ -68,6 +75,7 @@ public class ObserverRegistry implements ObserverProvider.Registry {
 
   ObserverRegistry(Set<Column> strongColumns, Set<Column> weakColumns) {
     this.observers = new HashMap<>();
+    this.batchObservers = new HashMap<>();
     this.aliases = new HashMap<>();
     this.strongColumns = strongColumns;
     this.weakColumns = weakColumns;
@@ -91,6 +99,13 @@ public class ObserverRegistry implements ObserverProvider.Registry {
       throw new RuntimeException("Failed to check if close() is implemented", e);
     }
 
+    checkColumn(col, nt);
+
+    observers.put(col, obs);
+    aliases.put(col, alias);
+  }
+
+  private void checkColumn(Column col, NotificationType nt) {
     if (nt == NotificationType.STRONG && !strongColumns.contains(col)) {
       throw new IllegalArgumentException(
           "Column " + col + " not previously configured for strong notifications");
@@ -101,11 +116,20 @@ public class ObserverRegistry implements ObserverProvider.Registry {
           "Column " + col + " not previously configured for weak notifications");
     }
 
-    if (observers.containsKey(col)) {
+    if (observers.containsKey(col) || batchObservers.containsKey(col)) {
       throw new IllegalArgumentException("Duplicate observed column " + col);
     }
+  }
 
-    observers.put(col, obs);
+  private void registerBatch(Column col, NotificationType nt, String alias, BatchObserver obs) {
+    if (nt != NotificationType.WEAK) {
+      throw new IllegalArgumentException(
+          "Batch observer registered for column " + col + " that is not weakly notified");
+    }
+
+    checkColumn(col, nt);
+
+    batchObservers.put(col, obs);
     aliases.put(col, alias);
   }
 
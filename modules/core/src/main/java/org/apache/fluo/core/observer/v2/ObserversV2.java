@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
 import org.apache.fluo.api.data.Column;
 import org.apache.fluo.api.exceptions.FluoException;
+import org.apache.fluo.api.observer.BatchObserver;
 import org.apache.fluo.api.observer.Observer;
 import org.apache.fluo.api.observer.ObserverProvider;
 import org.apache.fluo.core.impl.Environment;
@@ -31,6 +32,7 @@ import org.apache.fluo.core.util.Hex;
 class ObserversV2 implements Observers {
 
   Map<Column, Observer> observers;
+  Map<Column, BatchObserver> batchObservers;
   Map<Column, String> aliases;
 
   public ObserversV2(Environment env, JsonObservers jco, Set<Column> strongColumns,
@@ -45,12 +47,15 @@ class ObserversV2 implements Observers {
     obsProvider.provide(or, ctx);
 
     this.observers = or.observers;
+    this.batchObservers = or.batchObservers;
     this.aliases = or.aliases;
     this.observers.forEach((k, v) -> aliases.computeIfAbsent(k, col -> Hex.encNonAscii(col, ":")));
+    this.batchObservers
+        .forEach((k, v) -> aliases.computeIfAbsent(k, col -> Hex.encNonAscii(col, ":")));
 
     // the following check ensures observers are provided for all previously configured columns
-    SetView<Column> diff =
-        Sets.difference(observers.keySet(), Sets.union(strongColumns, weakColumns));
+    SetView<Column> diff = Sets.difference(Sets.union(observers.keySet(), batchObservers.keySet()),
+        Sets.union(strongColumns, weakColumns));
     if (!diff.isEmpty()) {
       throw new FluoException("ObserverProvider " + jco.getObserverProviderClass()
           + " did not provide observers for columns " + diff);
@@ -62,6 +67,11 @@ class ObserversV2 implements Observers {
     return observers.get(col);
   }
 
+  @Override
+  public BatchObserver getBatchObserver(Column col) {
+    return batchObservers.get(col);
+  }
+
   @Override
   public void returnObserver(Observer o) {}
 
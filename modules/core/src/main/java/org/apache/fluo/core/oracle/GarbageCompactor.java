@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.oracle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.apache.accumulo.core.client.admin.CompactionConfig;
+import org.apache.accumulo.core.client.admin.SummaryRetriever;
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.accumulo.core.client.summary.Summary;
+import org.apache.accumulo.core.client.summary.Summary.FileStatistics;
+import org.apache.fluo.accumulo.summarizer.FluoSummarizer;
+import org.apache.fluo.accumulo.summarizer.FluoSummarizer.Counts;
+import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically reads the Fluo summaries of each tablet in the Fluo table and compacts the tablets
+ * where much of the data is garbage, like deleted notifications, deleted locks and transaction
+ * metadata. Compacting all of a tablet's files lets the {@code GarbageCollectionIterator} and
+ * {@code NotificationIterator} drop the garbage, which they can only fully do in a full major
+ * compaction. Only the oracle leader runs this, so that tablets are checked once.
+ */
+class GarbageCompactor {
+
+  private static final Logger log = LoggerFactory.getLogger(GarbageCompactor.class);
+
+  private final Environment env;
+  private final double threshold;
+  private final long checkPeriod;
+  private Timer timer;
+
+  GarbageCompactor(Environment env) {
+    this.env = env;
+    this.threshold = FluoConfigurationImpl.getCompactionGarbageThreshold(env.getConfiguration());
+    this.checkPeriod =
+        FluoConfigurationImpl.getCompactionGarbageCheckPeriod(env.getConfiguration());
+  }
+
+  void start() {
+    if (threshold == 0) {
+      return;
+    }
+
+    TimerTask tt = new TimerTask() {
+      @Override
+      public void run() {
+        try {
+          compactGarbage();
+        } catch (Exception e) {
+          log.warn("Failed to check tablets for garbage.", e);
+        }
+      }
+    };
+
+    timer = new Timer("Oracle garbage compaction timer", true);
+    timer.schedule(tt, checkPeriod, checkPeriod);
+  }
+
+  void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  /**
+   * Starts a compaction of each tablet whose summaries show that at least the configured fraction
+   * of its entries are garbage. Does not wait for the compactions to finish.
+   *
+   * @return the number of tablets compacted
+   */
+  int compactGarbage() throws Exception {
+    TableOperations tableOps = env.getAccumuloClient().tableOperations();
+    String table = env.getTable();
+
+    List<Text> endRows = new ArrayList<>(tableOps.listSplits(table));
+    endRows.add(null);
+
+    int compacted = 0;
+    Text prevEndRow = null;
+    for (Text endRow : endRows) {
+      // summaries and compactions both use a range with an exclusive start row and inclusive end
+      // row, which matches a single tablet when the rows are its previous and its own end row
+      SummaryRetriever retriever =
+          tableOps.summaries(table).withConfiguration(FluoSummarizer.CONFIG);
+      if (prevEndRow != null) {
+        retriever.startRow(prevEndRow);
+      }
+      if (endRow != null) {
+        retriever.endRow(endRow);
+      }
+
+      if (shouldCompact(retriever.retrieve(), threshold)) {
+        log.debug("Compacting tablet ({}, {}] of {} to drop garbage", prevEndRow, endRow, table);
+        tableOps.compact(table, new CompactionConfig().setStartRow(prevEndRow).setEndRow(endRow)
+            .setFlush(false).setWait(false));
+        compacted++;
+      }
+
+      prevEndRow = endRow;
+    }
+
+    return compacted;
+  }
+
+  static boolean shouldCompact(List<Summary> summaries, double threshold) {
+    if (summaries.size() != 1) {
+      return false;
+    }
+
+    Summary summary = summaries.get(0);
+    FileStatistics stats = summary.getFileStatistics();
+    // a single file may hold garbage that is not collectable yet, do not compact it over and over
+    if (stats.getTotal() <= 1) {
+      return false;
+    }
+
+    // when some files do not have summaries the counts are not complete, so ignore them
+    if (stats.getMissing() > 0 || stats.getLarge() > 0) {
+      return false;
+    }
+
+    // files that extend past the tablet, like after a split, are counted in full
+    return getGarbageRatio(FluoSummarizer.getCounts(summary)) >= threshold;
+  }
+
+  /**
+   * Estimates the fraction of entries that a full major compaction could drop. Each deleted
+   * notification, lock or read lock hides at least one other entry, so both are counted. Older
+   * versions of data are not counted, since summaries do not tell them apart from current ones.
+   */
+  static double getGarbageRatio(Counts counts) {
+    long total = counts.ntfy + counts.ntfyDel + counts.txDone + counts.delLock + counts.lock
+        + counts.data + counts.write + counts.ack + counts.delrlock + counts.rlock;
+    if (total == 0) {
+      return 0;
+    }
+
+    long garbage = counts.ntfyDel + Math.min(counts.ntfyDel, counts.ntfy);
+    garbage += counts.delLock + Math.min(counts.delLock, counts.lock);
+    garbage += counts.delrlock + Math.min(counts.delrlock, counts.rlock);
+    garbage += counts.txDone;
+
+    return (double) garbage / total;
+  }
+}
@@ -17,6 +17,7 @@ package org.apache.fluo.core.oracle;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -25,8 +26,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.Timer.Context;
+import com.google.common.base.Preconditions;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
@@ -38,6 +41,7 @@ import org.apache.fluo.accumulo.util.ZookeeperPath;
 import org.apache.fluo.api.exceptions.FluoException;
 import org.apache.fluo.core.impl.CuratorCnxnListener;
 import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.metrics.MetricsUtil;
 import org.apache.fluo.core.thrift.OracleService;
 import org.apache.fluo.core.thrift.Stamps;
@@ -56,7 +60,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Connects to an oracle to retrieve timestamps. If multiple oracle servers are run, it will
- * automatically fail over to different leaders.
+ * automatically fail over to different leaders. Requests are batched and sent over one or more
+ * connections, see {@link FluoConfigurationImpl#ORACLE_CLIENT_SLOTS_PROP}.
  */
 public class OracleClient implements AutoCloseable {
 
@@ -69,6 +74,7 @@ public class OracleClient implements AutoCloseable {
   private Participant currentLeader;
 
   private static final class TimeRequest {
+    int num = 1;
     CountDownLatch cdl = new CountDownLatch(1);
     AtomicReference<Stamp> stampRef = new AtomicReference<>();
     CompletableFuture<Stamp> cf = null;
@@ -79,14 +85,15 @@ public class OracleClient implements AutoCloseable {
 
     private LeaderLatch leaderLatch;
     private CuratorFramework curatorFramework;
-    private OracleService.Client client;
     private PathChildrenCache pathChildrenCache;
-
-    private TTransport transport;
+    private List<RequestSlot> slots = new ArrayList<>();
+    private List<Thread> slotThreads = new ArrayList<>();
 
     @Override
     public void run() {
 
+      RequestSlot firstSlot;
+
       try {
         synchronized (this) {
           // want this code to be mutually exclusive with close() .. so if in middle of setup, close
@@ -111,9 +118,24 @@ public class OracleClient implements AutoCloseable {
           pathChildrenCache.getListenable().addListener(this);
           pathChildrenCache.start();
 
-          connect();
+          for (int i = 0; i < numSlots; i++) {
+            RequestSlot slot = new RequestSlot(i);
+            slot.connect();
+            slots.add(slot);
+          }
+
+          // the first slot runs in this thread, each additional slot gets its own thread so that
+          // multiple requests can be outstanding at the oracle
+          for (RequestSlot slot : slots.subList(1, slots.size())) {
+            Thread slotThread = new Thread(slot::doWork);
+            slotThread.setDaemon(true);
+            slotThread.start();
+            slotThreads.add(slotThread);
+          }
+
+          firstSlot = slots.get(0);
         }
-        doWork();
+        firstSlot.doWork();
       } catch (Exception e) {
         if (!closed.get()) {
           log.error("Exception occurred in run() method", e);
@@ -146,6 +168,112 @@ public class OracleClient implements AutoCloseable {
       }
     }
 
+    /**
+     * Stops the threads running additional slots. Must not be called while holding this object's
+     * lock, because slot threads may need it to find the leader.
+     */
+    private void stopSlotThreads() throws InterruptedException {
+      for (Thread slotThread : slotThreads) {
+        slotThread.interrupt();
+      }
+      for (Thread slotThread : slotThreads) {
+        slotThread.join();
+      }
+    }
+
+    private synchronized void close() {
+      for (RequestSlot slot : slots) {
+        slot.close();
+      }
+      try {
+        if (pathChildrenCache != null) {
+          pathChildrenCache.close();
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+
+      if (curatorFramework != null) {
+        curatorFramework.close();
+      }
+
+      slots.clear();
+      slotThreads.clear();
+      pathChildrenCache = null;
+      leaderLatch = null;
+      curatorFramework = null;
+    }
+
+    private boolean getLeaderAttempt() {
+      Participant possibleLeader = null;
+      try {
+        possibleLeader = leaderLatch.getLeader();
+      } catch (KeeperException e) {
+        log.debug("Exception throw in getLeaderAttempt()", e);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+
+      if (isLeader(possibleLeader)) {
+        currentLeader = possibleLeader;
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Attempt to retrieve a leader until one is found
+     */
+    private synchronized Participant getLeader() {
+      boolean found = getLeaderAttempt();
+      while (!found) {
+        sleepRandom();
+        found = getLeaderAttempt();
+      }
+      return currentLeader;
+    }
+
+    /**
+     * Sleep a random amount of time from 100ms to 1sec
+     */
+    private void sleepRandom() {
+      UtilWaitThread.sleep(100 + (long) (1000 * Math.random()), closed);
+    }
+
+    private boolean isLeader(Participant participant) {
+      return participant != null && participant.isLeader();
+    }
+
+    /**
+     * NOTE: This isn't competing for leadership, so it doesn't need to be started.
+     */
+    @Override
+    public void takeLeadership(CuratorFramework curatorFramework) throws Exception {}
+  }
+
+  /**
+   * A single connection to the oracle. Each slot drains whatever requests are queued and sends them
+   * as one batch. When multiple slots are configured, a slot can send a new batch while other slots
+   * are waiting on a response.
+   */
+  private class RequestSlot {
+
+    private final int id;
+    private final Timer slotResponseTimer;
+    private final Histogram slotStampsHistogram;
+
+    private OracleService.Client client;
+    private TTransport transport;
+
+    RequestSlot(int id) {
+      this.id = id;
+      MetricRegistry registry = env.getSharedResources().getMetricRegistry();
+      slotResponseTimer = MetricsUtil.getTimer(env.getConfiguration(), registry,
+          env.getMetricNames().getOracleResponseTime(id));
+      slotStampsHistogram = MetricsUtil.getHistogram(env.getConfiguration(), registry,
+          env.getMetricNames().getOracleClientStamps(id));
+    }
+
     private void doWork() {
 
       ArrayList<TimeRequest> request = new ArrayList<>();
@@ -164,6 +292,11 @@ public class OracleClient implements AutoCloseable {
           request.add(trh);
           queue.drainTo(request);
 
+          int numStamps = 0;
+          for (TimeRequest tr : request) {
+            numStamps += tr.num;
+          }
+
           long txStampsStart;
           long gcStamp;
 
@@ -178,8 +311,9 @@ public class OracleClient implements AutoCloseable {
               }
 
               final Context timerContext = responseTimer.time();
+              final Context slotTimerContext = slotResponseTimer.time();
 
-              Stamps stamps = localClient.getTimestamps(env.getFluoApplicationID(), request.size());
+              Stamps stamps = localClient.getTimestamps(env.getFluoApplicationID(), numStamps);
               txStampsStart = stamps.txStampsStart;
               gcStamp = stamps.gcStamp;
 
@@ -189,22 +323,25 @@ public class OracleClient implements AutoCloseable {
                 continue;
               }
 
-              stampsHistogram.update(request.size());
+              stampsHistogram.update(numStamps);
+              slotStampsHistogram.update(numStamps);
               timerContext.close();
+              slotTimerContext.close();
 
               break;
 
             } catch (TTransportException tte) {
-              log.info("Oracle connection lost. Retrying...");
+              log.info("Oracle connection lost (slot {}). Retrying...", id);
               reconnect();
             } catch (TException e) {
               log.error("TException occurred in doWork() method", e);
             }
           }
 
-          for (int i = 0; i < request.size(); i++) {
-            TimeRequest tr = request.get(i);
-            Stamp stampRes = new Stamp(txStampsStart + i, gcStamp);
+          long nextStamp = txStampsStart;
+          for (TimeRequest tr : request) {
+            Stamp stampRes = new Stamp(nextStamp, gcStamp);
+            nextStamp += tr.num;
             tr.stampRef.set(stampRes);
             if (tr.cf == null) {
               tr.cdl.countDown();
@@ -227,10 +364,10 @@ public class OracleClient implements AutoCloseable {
     private synchronized void connect()
         throws IOException, KeeperException, InterruptedException, TTransportException {
 
-      getLeader();
+      Participant leader = timestampRetriever.getLeader();
       while (true) {
-        log.debug("Connecting to oracle at " + currentLeader.getId());
-        String[] hostAndPort = currentLeader.getId().split(":");
+        log.debug("Connecting to oracle at " + leader.getId());
+        String[] hostAndPort = leader.getId().split(":");
 
         String host = hostAndPort[0];
         int port = Integer.parseInt(hostAndPort[1]);
@@ -243,8 +380,8 @@ public class OracleClient implements AutoCloseable {
           log.info("Connected to oracle at " + getOracle());
           break;
         } catch (TTransportException e) {
-          sleepRandom();
-          getLeader();
+          timestampRetriever.sleepRandom();
+          leader = timestampRetriever.getLeader();
         } catch (Exception e) {
           throw new RuntimeException(e);
         }
@@ -266,73 +403,14 @@ public class OracleClient implements AutoCloseable {
       if (transport != null && transport.isOpen()) {
         transport.close();
       }
-      try {
-        if (pathChildrenCache != null) {
-          pathChildrenCache.close();
-        }
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-
-      if (curatorFramework != null) {
-        curatorFramework.close();
-      }
-
       transport = null;
-      pathChildrenCache = null;
-      leaderLatch = null;
-      curatorFramework = null;
-    }
-
-    private boolean getLeaderAttempt() {
-      Participant possibleLeader = null;
-      try {
-        possibleLeader = leaderLatch.getLeader();
-      } catch (KeeperException e) {
-        log.debug("Exception throw in getLeaderAttempt()", e);
-      } catch (Exception e) {
-        throw new RuntimeException(e);
-      }
-
-      if (isLeader(possibleLeader)) {
-        currentLeader = possibleLeader;
-        return true;
-      }
-      return false;
-    }
-
-    /**
-     * Attempt to retrieve a leader until one is found
-     */
-    private void getLeader() {
-      boolean found = getLeaderAttempt();
-      while (!found) {
-        sleepRandom();
-        found = getLeaderAttempt();
-      }
     }
-
-    /**
-     * Sleep a random amount of time from 100ms to 1sec
-     */
-    private void sleepRandom() {
-      UtilWaitThread.sleep(100 + (long) (1000 * Math.random()), closed);
-    }
-
-    private boolean isLeader(Participant participant) {
-      return participant != null && participant.isLeader();
-    }
-
-    /**
-     * NOTE: This isn't competing for leadership, so it doesn't need to be started.
-     */
-    @Override
-    public void takeLeadership(CuratorFramework curatorFramework) throws Exception {}
   }
 
   private final Environment env;
   private final ArrayBlockingQueue<TimeRequest> queue = new ArrayBlockingQueue<>(10000);
   private final Thread thread;
+  private final int numSlots;
   private AtomicBoolean closed = new AtomicBoolean(false);
   private final TimestampRetriever timestampRetriever;
 
@@ -342,6 +420,7 @@ public class OracleClient implements AutoCloseable {
         env.getSharedResources().getMetricRegistry(), env.getMetricNames().getOracleResponseTime());
     stampsHistogram = MetricsUtil.getHistogram(env.getConfiguration(),
         env.getSharedResources().getMetricRegistry(), env.getMetricNames().getOracleClientStamps());
+    numSlots = FluoConfigurationImpl.getOracleClientSlots(env.getConfiguration());
     timestampRetriever = new TimestampRetriever();
     thread = new Thread(timestampRetriever);
     thread.setDaemon(true);
@@ -352,9 +431,31 @@ public class OracleClient implements AutoCloseable {
    * Retrieves time stamp from Oracle. Throws {@link FluoException} if timed out or interrupted.
    */
   public Stamp getStamp() {
+    return getStamps(1);
+  }
+
+  /**
+   * Retrieves a contiguous block of timestamps from the Oracle in a single request. Throws
+   * {@link FluoException} if timed out or interrupted.
+   *
+   * @param num The number of timestamps in the block
+   * @param leaseTimeMs The amount of time the returned lease is valid, starting from when the
+   *        request was made.
+   */
+  public StampLease leaseStamps(int num, long leaseTimeMs) {
+    Preconditions.checkArgument(num > 0, "num must be positive");
+    long requestTime = System.currentTimeMillis();
+    return new StampLease(getStamps(num), num, requestTime + leaseTimeMs);
+  }
+
+  /**
+   * @return the first stamp of a block of num stamps
+   */
+  private Stamp getStamps(int num) {
     checkClosed();
 
     TimeRequest tr = new TimeRequest();
+    tr.num = num;
     try {
       queue.put(tr);
       int timeout = env.getConfiguration().getConnectionRetryTimeout();
@@ -416,6 +517,8 @@ public class OracleClient implements AutoCloseable {
       try {
         thread.interrupt();
         thread.join();
+        // slot threads are only started by the thread joined above, so the set of them is stable
+        timestampRetriever.stopSlotThreads();
         timestampRetriever.close();
       } catch (InterruptedException e) {
         throw new FluoException("Interrupted during close", e);
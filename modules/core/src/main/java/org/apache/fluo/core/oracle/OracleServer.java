@@ -22,7 +22,10 @@ import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.codahale.metrics.Histogram;
 import com.google.common.annotations.VisibleForTesting;
@@ -83,17 +86,27 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
 
   public static final long ORACLE_MAX_READ_BUFFER_BYTES = 2048;
 
+  // number of timestamps reserved in Zookeeper at a time
+  private static final long ALLOCATION_BLOCK_SIZE = 1000;
+  // when fewer than this many reserved timestamps remain, reserve the next block in the background
+  private static final long RESERVE_AHEAD_THRESHOLD = ALLOCATION_BLOCK_SIZE / 2;
+
   private final Environment env;
 
   private Thread serverThread;
   private THsHaServer server;
-  private volatile long currentTs = 0;
+  // timestamps are handed out by incrementing currentTs, they must always be less than maxTs which
+  // is only advanced after its new value is persisted in Zookeeper
+  private final AtomicLong currentTs = new AtomicLong(0);
   private volatile long maxTs = 0;
+  private final Object allocationLock = new Object();
+  private final AtomicBoolean reservationPending = new AtomicBoolean(false);
   private volatile boolean started = false;
   private int port = 0;
 
   private LeaderLatch leaderLatch;
   private ExecutorService execService;
+  private ExecutorService allocationService;
   private PathChildrenCache pathChildrenCache;
   private CuratorFramework curatorFramework;
   private CuratorCnxnListener cnxnListener;
@@ -105,6 +118,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
   private volatile boolean isLeader = false;
 
   private GcTimestampTracker gcTsTracker;
+  private final GarbageCompactor garbageCompactor;
 
   private class GcTimestampTracker {
     private volatile long advertisedGcTimetamp;
@@ -148,7 +162,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
       if (nodeFound) {
         updateAdvertisedGcTimestamp(oldestTs);
       } else {
-        updateAdvertisedGcTimestamp(currentTs);
+        updateAdvertisedGcTimestamp(currentTs.get());
       }
     }
 
@@ -168,7 +182,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
       TimerTask logTask = new TimerTask() {
         @Override
         public void run() {
-          log.info("Current timestamp: {}", currentTs);
+          log.info("Current timestamp: {}", currentTs.get());
         }
       };
 
@@ -196,8 +210,13 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     this.cnxnListener = new CuratorCnxnListener();
     this.maxTsPath = ZookeeperPath.ORACLE_MAX_TIMESTAMP;
     this.oraclePath = ZookeeperPath.ORACLE_SERVER;
+    this.garbageCompactor = new GarbageCompactor(env);
   }
 
+  /**
+   * Persists a new max timestamp in Zookeeper and then advances {@link #maxTs}. Callers must hold
+   * {@link #allocationLock}.
+   */
   private void allocateTimestamp() throws Exception {
     Stat stat = new Stat();
     byte[] d = curatorFramework.getData().storingStatIn(stat).forPath(maxTsPath);
@@ -207,7 +226,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     // TODO make num allocated variable... when a server first starts allocate a small amount... the
     // longer it runs and the busier it is, allocate bigger blocks
 
-    long newMax = Long.parseLong(new String(d)) + 1000;
+    long newMax = Long.parseLong(new String(d)) + ALLOCATION_BLOCK_SIZE;
 
     curatorFramework.setData().withVersion(stat.getVersion()).forPath(maxTsPath,
         LongUtil.toByteArray(newMax));
@@ -218,6 +237,33 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     }
   }
 
+  /**
+   * Allocates the next block of timestamps in the background when the current block is running low,
+   * so that handing out timestamps does not need to wait on Zookeeper.
+   */
+  private void reserveAhead() {
+    if (reservationPending.compareAndSet(false, true)) {
+      try {
+        allocationService.execute(() -> {
+          try {
+            synchronized (allocationLock) {
+              if (isLeader && maxTs - currentTs.get() <= RESERVE_AHEAD_THRESHOLD) {
+                allocateTimestamp();
+              }
+            }
+          } catch (Exception e) {
+            log.warn("Failed to reserve timestamps ahead of time", e);
+          } finally {
+            reservationPending.set(false);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // oracle is stopping
+        reservationPending.set(false);
+      }
+    }
+  }
+
   @Override
   public Stamps getTimestamps(String id, int num) throws TException {
     long start = getTimestampsImpl(id, num);
@@ -228,7 +274,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     return new Stamps(start, gcTsTracker.advertisedGcTimetamp);
   }
 
-  private synchronized long getTimestampsImpl(String id, int num) throws TException {
+  private long getTimestampsImpl(String id, int num) throws TException {
     if (!started) {
       throw new IllegalStateException("Received timestamp request but Oracle has not started");
     }
@@ -244,14 +290,24 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     }
 
     try {
-      while (num + currentTs >= maxTs) {
-        allocateTimestamp();
+      while (true) {
+        long ts = currentTs.get();
+        if (num + ts < maxTs) {
+          if (currentTs.compareAndSet(ts, ts + num)) {
+            if (maxTs - (ts + num) <= RESERVE_AHEAD_THRESHOLD) {
+              reserveAhead();
+            }
+            return ts;
+          }
+        } else {
+          // timestamps reserved ahead of time were not sufficient, so must wait on Zookeeper
+          synchronized (allocationLock) {
+            while (num + currentTs.get() >= maxTs) {
+              allocateTimestamp();
+            }
+          }
+        }
       }
-
-      long tmp = currentTs;
-      currentTs += num;
-
-      return tmp;
     } catch (Exception e) {
       throw new TException(e);
     }
@@ -325,6 +381,8 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     leaderLatch = new LeaderLatch(curatorFramework, ZookeeperPath.ORACLE_SERVER, leaderId);
     log.info("Leader ID = " + leaderId);
     execService = Executors.newSingleThreadExecutor(new FluoThreadFactory("Oracle Server Worker"));
+    allocationService =
+        Executors.newSingleThreadExecutor(new FluoThreadFactory("Oracle Timestamp Allocator"));
     leaderLatch.addListener(new LeaderLatchListener() {
       @Override
       public void notLeader() {
@@ -378,15 +436,18 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
     }
 
     try {
-      synchronized (this) {
+      synchronized (allocationLock) {
         byte[] d = curatorFramework.getData().forPath(maxTsPath);
-        currentTs = maxTs = LongUtil.fromByteArray(d);
+        maxTs = LongUtil.fromByteArray(d);
+        currentTs.set(maxTs);
       }
 
       gcTsTracker = new GcTimestampTracker();
       gcTsTracker.start();
+      garbageCompactor.start();
 
       isLeader = true;
+      reserveAhead();
       log.info("Assumed leadership " + leaderLatch.getId());
     } catch (Exception e) {
       log.warn("Failed to become leader ", e);
@@ -405,6 +466,7 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
       if (gcTsTracker != null) {
         gcTsTracker.stop();
       }
+      garbageCompactor.stop();
 
       started = false;
 
@@ -415,8 +477,10 @@ public class OracleServer implements OracleService.Iface, PathChildrenCacheListe
         leaderLatch.close();
 
         execService.shutdown();
+        allocationService.shutdown();
 
         execService.awaitTermination(10, TimeUnit.SECONDS);
+        allocationService.awaitTermination(10, TimeUnit.SECONDS);
 
         curatorFramework.getConnectionStateListenable().removeListener(cnxnListener);
 
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.oracle;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A contiguous block of timestamps obtained from the oracle in a single request. Timestamps are
+ * handed out in increasing order until the block is exhausted or the lease expires. Leased
+ * timestamps are only suitable for use as transaction start timestamps.
+ *
+ * <p>
+ * This class is not thread safe.
+ */
+public class StampLease {
+
+  private final long start;
+  private final long end;
+  private final long gcStamp;
+  private final long expiration;
+  private long next;
+
+  StampLease(Stamp first, int num, long expiration) {
+    Preconditions.checkArgument(num > 0, "num must be positive");
+    this.start = first.getTxTimestamp();
+    this.end = start + num;
+    this.gcStamp = first.getGcTimestamp();
+    this.expiration = expiration;
+    this.next = start;
+  }
+
+  /**
+   * @param minTs The timestamp returned must be greater than this.
+   * @param currentTime The current time in millis, used to check if the lease expired.
+   * @return the next timestamp in the lease greater than minTs or null if the lease is exhausted,
+   *         expired, or has no timestamp greater than minTs. Once null is returned, the lease
+   *         should be discarded.
+   */
+  public Stamp poll(long minTs, long currentTime) {
+    if (currentTime > expiration) {
+      return null;
+    }
+
+    if (next <= minTs) {
+      // skip stamps that are too old, they are never handed out
+      next = minTs + 1;
+    }
+
+    if (next >= end) {
+      return null;
+    }
+
+    return new Stamp(next++, gcStamp);
+  }
+
+  /**
+   * @return the first timestamp in the lease
+   */
+  public long getStart() {
+    return start;
+  }
+}
@@ -18,34 +18,82 @@ package org.apache.fluo.core.util;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class FluoExecutors {
+
+  private static final Logger log = LoggerFactory.getLogger(FluoExecutors.class);
+
   public static ExecutorService newFixedThreadPool(int numThreads, String name) {
     return newFixedThreadPool(numThreads, new LinkedBlockingQueue<Runnable>(), name);
   }
 
   public static ThreadPoolExecutor newFixedThreadPool(int numThreads, BlockingQueue<Runnable> queue,
       String name) {
-    return new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS, queue,
-        new FluoThreadFactory(name)) {
-      @Override
-      protected void afterExecute(Runnable r, Throwable t) {
-        if (t != null) {
-          if (t instanceof Exception) {
-            LoggerFactory.getLogger(FluoExecutors.class).warn("Thread pool saw uncaught Exception",
-                t);
-          } else {
-            // this is likely an Error. Things may be in a really bad state, so just print it
-            // instead of logging.
-            System.err.println("Threadpool saw uncaught Throwable");
-            t.printStackTrace();
-          }
+    return newFixedThreadPool(numThreads, queue, name, false);
+  }
+
+  public static ExecutorService newFixedThreadPool(int numThreads, String name, boolean virtual) {
+    return newFixedThreadPool(numThreads, new LinkedBlockingQueue<Runnable>(), name, virtual);
+  }
+
+  /**
+   * @param virtual If true and supported by the running Java version, the pool uses virtual
+   *        threads. A pool of virtual threads is still limited to numThreads concurrent tasks, but
+   *        each blocked task costs much less than a blocked platform thread.
+   */
+  public static ThreadPoolExecutor newFixedThreadPool(int numThreads, BlockingQueue<Runnable> queue,
+      String name, boolean virtual) {
+    return new LoggingThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS, queue,
+        newThreadFactory(name, virtual));
+  }
+
+  /**
+   * Creates an executor that runs each task in a new virtual thread. Since nothing limits the
+   * number of threads, callers must limit the number of tasks they submit. Callers should check
+   * {@link VirtualThreads#isSupported()} first.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+    Preconditions.checkState(VirtualThreads.isSupported(), "Virtual threads are not supported");
+    return new LoggingThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), new FluoThreadFactory(name, true));
+  }
+
+  private static ThreadFactory newThreadFactory(String name, boolean virtual) {
+    if (virtual && !VirtualThreads.isSupported()) {
+      log.warn("Virtual threads requested for {} but are not supported by Java {}, using platform"
+          + " threads", name, System.getProperty("java.version"));
+      virtual = false;
+    }
+    return new FluoThreadFactory(name, virtual);
+  }
+
+  private static class LoggingThreadPoolExecutor extends ThreadPoolExecutor {
+
+    LoggingThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime,
+        TimeUnit unit, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+      super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+      if (t != null) {
+        if (t instanceof Exception) {
+          log.warn("Thread pool saw uncaught Exception", t);
+        } else {
+          // this is likely an Error. Things may be in a really bad state, so just print it
+          // instead of logging.
+          System.err.println("Threadpool saw uncaught Throwable");
+          t.printStackTrace();
         }
       }
-    };
+    }
   }
 }
@@ -25,15 +25,24 @@ public class FluoThreadFactory implements ThreadFactory {
 
   private String poolName;
   private int poolId;
+  private boolean virtual;
 
   public FluoThreadFactory(String poolName) {
+    this(poolName, false);
+  }
+
+  /**
+   * @param virtual If true creates virtual threads, see {@link VirtualThreads}.
+   */
+  public FluoThreadFactory(String poolName, boolean virtual) {
     this.poolName = poolName;
     this.poolId = poolCount.incrementAndGet();
+    this.virtual = virtual;
   }
 
   @Override
   public Thread newThread(Runnable r) {
-    Thread t = new Thread(r);
+    Thread t = virtual ? VirtualThreads.newThread(r) : new Thread(r);
     String name =
         String.format("Fluo-%04d-%03d-%s", poolId, threadCount.incrementAndGet(), poolName);
     t.setName(name);
@@ -46,6 +46,7 @@ import org.apache.fluo.api.data.Bytes;
 import org.apache.fluo.api.data.Column;
 import org.apache.fluo.api.data.RowColumnValue;
 import org.apache.fluo.api.data.Span;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 
 public class ScanUtil {
   public static final String FLUO_VALUE = "value";
@@ -162,7 +163,8 @@ public class ScanUtil {
     Span span = getSpan(options);
     Collection<Column> columns = getColumns(options);
 
-    try (Scanner scanner = client.createScanner(sConfig.getAccumuloTable(), Authorizations.EMPTY)) {
+    try (Scanner scanner = client.createScanner(FluoConfigurationImpl.getNotificationTable(sConfig),
+        Authorizations.EMPTY)) {
       scanner.setRange(SpanUtil.toRange(span));
 
       NotificationScanner ntfyScanner = new NotificationScanner(scanner, columns);
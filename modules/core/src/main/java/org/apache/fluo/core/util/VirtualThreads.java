@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads when running on a Java version that supports them. Fluo is compiled for
+ * Java 8, so virtual threads are created using reflection.
+ */
+public class VirtualThreads {
+
+  private static final ThreadFactory FACTORY = createFactory();
+
+  private static ThreadFactory createFactory() {
+    try {
+      // Thread.ofVirtual().factory()
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory")
+          .invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  public static boolean isSupported() {
+    return FACTORY != null;
+  }
+
+  public static Thread newThread(Runnable r) {
+    if (FACTORY == null) {
+      throw new UnsupportedOperationException(
+          "Virtual threads are not supported by Java " + System.getProperty("java.version"));
+    }
+    return FACTORY.newThread(r);
+  }
+}
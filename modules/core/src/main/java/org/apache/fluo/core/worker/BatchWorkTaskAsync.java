@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.BatchObserver;
+import org.apache.fluo.core.async.AsyncCommitObserver;
+import org.apache.fluo.core.async.AsyncTransaction;
+import org.apache.fluo.core.async.CommitManager;
+import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.Notification;
+import org.apache.fluo.core.impl.TransactionImpl;
+import org.apache.fluo.core.log.TracingTransaction;
+import org.apache.fluo.core.observer.Observers;
+import org.apache.fluo.core.util.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes a notification for a column with a {@link BatchObserver}. Before running the observer,
+ * other queued notifications for the same column are claimed so they can be processed in the same
+ * transaction.
+ */
+public class BatchWorkTaskAsync implements Runnable {
+
+  private static Logger log = LoggerFactory.getLogger(BatchWorkTaskAsync.class);
+
+  private Environment env;
+  private Notification notification;
+  private Observers observers;
+  private NotificationFinder notificationFinder;
+  private boolean batchable;
+
+  private NotificationProcessor notificationProcessor;
+
+  class BatchCommitObserver implements AsyncCommitObserver {
+
+    private final List<Notification> batch;
+
+    BatchCommitObserver(List<Notification> batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    public void committed() {
+      for (Notification n : batch) {
+        notificationProcessor.notificationProcessed(n);
+      }
+    }
+
+    @Override
+    public void failed(Throwable t) {
+      for (Notification n : batch) {
+        notificationFinder.failedToProcess(n, TxResult.ERROR);
+        notificationProcessor.notificationProcessed(n);
+      }
+      log.error("Failed to process batch of " + batch.size() + " notifications starting with "
+          + Hex.encNonAscii(notification), t);
+    }
+
+    @Override
+    public void alreadyAcknowledged() {
+      for (Notification n : batch) {
+        notificationFinder.failedToProcess(n, TxResult.AACKED);
+        notificationProcessor.notificationProcessed(n);
+      }
+    }
+
+    @Override
+    public void commitFailed(String msg) {
+      // Retry each notification in its own transaction, so that a collision on one row does not
+      // keep failing batches containing other rows.
+      for (Notification n : batch) {
+        notificationProcessor.requeueNotification(notificationFinder, n, false);
+      }
+    }
+  }
+
+  BatchWorkTaskAsync(NotificationProcessor notificationProcessor,
+      NotificationFinder notificationFinder, Environment env, Notification notification,
+      Observers observers, boolean batchable) {
+    this.notificationProcessor = notificationProcessor;
+    this.notificationFinder = notificationFinder;
+    this.env = env;
+    this.notification = notification;
+    this.observers = observers;
+    this.batchable = batchable;
+  }
+
+  @Override
+  public void run() {
+    Column col = notification.getColumn();
+    BatchObserver observer = observers.getBatchObserver(col);
+    String observerId = observers.getObserverId(col);
+
+    List<Notification> batch = new ArrayList<>();
+    batch.add(notification);
+
+    if (batchable) {
+      for (Notification n : notificationProcessor.claimBatch(notificationFinder, col)) {
+        if (notificationFinder.shouldProcess(n)) {
+          batch.add(n);
+        } else {
+          notificationProcessor.notificationProcessed(n);
+        }
+      }
+    }
+
+    try {
+      AsyncTransaction atx = new TransactionImpl(env, batch);
+
+      if (TracingTransaction.isTracingEnabled()) {
+        atx = new TracingTransaction(atx, observer.getClass(), observerId);
+      }
+
+      List<Bytes> rows = batch.stream().map(Notification::getRow).collect(Collectors.toList());
+
+      try {
+        observer.process(atx, rows, col);
+      } catch (Exception e) {
+        for (Notification n : batch) {
+          notificationFinder.failedToProcess(n, TxResult.ERROR);
+          notificationProcessor.notificationProcessed(n);
+        }
+        throw e;
+      }
+
+      CommitManager commitManager = env.getSharedResources().getCommitManager();
+      commitManager.beginCommit(atx, observerId, new BatchCommitObserver(batch));
+
+    } catch (Exception e) {
+      log.error("Failed to process batch of " + batch.size() + " notifications starting with "
+          + Hex.encNonAscii(notification), e);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.worker;
+
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+
+/**
+ * Determines what happens when a notification is found while the memory used by queued
+ * notifications is at its limit. See {@link FluoConfigurationImpl#NTFY_ADMISSION_POLICY_PROP}.
+ */
+public enum NotificationAdmissionPolicy {
+  /**
+   * Wait for queued notifications to be processed until there is memory for the new one. This
+   * stalls the scan that found the notification.
+   */
+  BLOCK,
+  /**
+   * Do not queue the new notification. Since the notification remains in the table, a later scan
+   * will find it again.
+   */
+  DROP
+}
@@ -15,24 +15,34 @@
 
 package org.apache.fluo.core.worker;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import org.apache.fluo.api.data.Column;
 import org.apache.fluo.api.data.RowColumn;
 import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.impl.Notification;
+import org.apache.fluo.core.metrics.MetricNames;
 import org.apache.fluo.core.observer.Observers;
 import org.apache.fluo.core.util.FluoExecutors;
 import org.apache.fluo.core.util.Hex;
@@ -48,112 +58,189 @@ public class NotificationProcessor implements AutoCloseable {
   private Environment env;
   private Observers observers;
   private PriorityBlockingQueue<Runnable> queue;
+  private Meter droppedMeter;
+  private int maxBatchSize;
+  // Queued tasks for columns with batch observers, used to find notifications to add to a batch. A
+  // task is removed when it runs or is claimed, so every task here is also tracked by the
+  // NotificationTracker and counts against its memory limit. Empty columns are removed.
+  private ConcurrentMap<Column, ConcurrentMap<RowColumn, FutureNotificationTask>> batchQueues =
+      new ConcurrentHashMap<>();
 
   public NotificationProcessor(Environment env) {
     int numThreads = env.getConfiguration().getWorkerThreads();
     this.env = env;
     this.queue = new PriorityBlockingQueue<>();
-    this.executor = FluoExecutors.newFixedThreadPool(numThreads, queue, "ntfyProc");
-    this.tracker = new NotificationTracker();
+    this.executor = FluoExecutors.newFixedThreadPool(numThreads, queue, "ntfyProc",
+        FluoConfigurationImpl.getVirtualThreads(env.getConfiguration()));
+    this.tracker =
+        new NotificationTracker(FluoConfigurationImpl.getNotificationMemory(env.getConfiguration()),
+            FluoConfigurationImpl.getNotificationAdmissionPolicy(env.getConfiguration()));
     this.observers = env.getConfiguredObservers().getObservers(env);
-    env.getSharedResources().getMetricRegistry().register(
-        env.getMetricNames().getNotificationQueued(), (Gauge<Integer>) () -> queue.size());
+    this.maxBatchSize = FluoConfigurationImpl.getObserverBatchMax(env.getConfiguration());
+
+    MetricRegistry registry = env.getSharedResources().getMetricRegistry();
+    MetricNames names = env.getMetricNames();
+    registry.register(names.getNotificationQueued(), (Gauge<Integer>) () -> queue.size());
+    registry.register(names.getNotificationsTracked(), (Gauge<Integer>) () -> tracker.size());
+    registry.register(names.getNotificationsMemory(), (Gauge<Long>) () -> tracker.getSizeInBytes());
+    this.droppedMeter = registry.meter(names.getNotificationsDropped());
   }
 
-  // little utility class that tracks all notifications in queue
+  private enum AddStatus {
+    ADDED, PRESENT, DROPPED
+  }
+
+  // little utility class that tracks all notifications in queue. This is called concurrently by
+  // scan threads adding notifications and by worker threads finishing them, so it avoids a single
+  // lock. Memory used by queued notifications is bounded using a semaphore where each permit is a
+  // byte.
   private class NotificationTracker {
-    private Map<RowColumn, Future<?>> queuedWork = new HashMap<>();
-    private Set<RowColumn> recentlyDeleted = new HashSet<>();
-    private long sizeInBytes = 0;
-    private Map<Long, Predicate<RowColumn>> memoryPredicates = new HashMap<>();
-    private Predicate<RowColumn> memoryPredicate = rc -> false;
-    private static final long MAX_SIZE = 1 << 24;
+    // Rough estimate of the memory used by the objects created for each queued notification. This
+    // includes the Notification, its Column and Bytes objects, the FutureNotificationTask,
+    // WorkTaskAsync, and the map and queue entries that reference them, including batch queues.
+    private static final int NOTIFICATION_OVERHEAD = 400;
+
+    private final ConcurrentMap<RowColumn, Future<?>> queuedWork = new ConcurrentHashMap<>();
+    private final Set<RowColumn> recentlyDeleted = ConcurrentHashMap.newKeySet();
+    private final Semaphore memoryPermits;
+    private final int maxSize;
+    private final NotificationAdmissionPolicy admissionPolicy;
+    private final Map<Long, Predicate<RowColumn>> memoryPredicates = new HashMap<>();
+    private volatile Predicate<RowColumn> memoryPredicate = rc -> false;
     private long nextSessionId = 0;
 
-    private long size(RowColumn rowCol) {
+    NotificationTracker(int maxSize, NotificationAdmissionPolicy admissionPolicy) {
+      this.maxSize = maxSize;
+      this.memoryPermits = new Semaphore(maxSize);
+      this.admissionPolicy = admissionPolicy;
+    }
+
+    private int size(RowColumn rowCol) {
       Column col = rowCol.getColumn();
-      return (long) rowCol.getRow().length() + col.getFamily().length()
+      long size = (long) NOTIFICATION_OVERHEAD + rowCol.getRow().length() + col.getFamily().length()
           + col.getQualifier().length() + col.getVisibility().length();
+      // a single notification larger than the limit should not block forever
+      return (int) Math.min(size, maxSize);
     }
 
-    public synchronized boolean add(RowColumn rowCol, Future<?> task) {
+    int size() {
+      return queuedWork.size();
+    }
 
-      if (queuedWork.containsKey(rowCol) || recentlyDeleted.contains(rowCol)) {
-        return false;
-      }
+    long getSizeInBytes() {
+      return (long) maxSize - memoryPermits.availablePermits();
+    }
 
-      while (sizeInBytes > MAX_SIZE) {
-        try {
-          wait(1000);
-        } catch (InterruptedException e) {
-          throw new RuntimeException(e);
-        }
+    private boolean acquire(int size) {
+      switch (admissionPolicy) {
+        case BLOCK:
+          try {
+            memoryPermits.acquire(size);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return true;
+        case DROP:
+          if (memoryPermits.tryAcquire(size)) {
+            return true;
+          }
+          droppedMeter.mark();
+          return false;
+        default:
+          throw new IllegalStateException("Unknown admission policy " + admissionPolicy);
       }
+    }
+
+    private void release(RowColumn rowCol) {
+      memoryPermits.release(size(rowCol));
+    }
+
+    public AddStatus add(RowColumn rowCol, Future<?> task) {
 
       if (queuedWork.containsKey(rowCol) || recentlyDeleted.contains(rowCol)) {
-        return false;
+        return AddStatus.PRESENT;
       }
 
-      queuedWork.put(rowCol, task);
-      sizeInBytes += size(rowCol);
-      return true;
-    }
+      int size = size(rowCol);
+      if (!acquire(size)) {
+        return AddStatus.DROPPED;
+      }
 
-    public synchronized void remove(RowColumn rowCol) {
-      if (queuedWork.remove(rowCol) != null) {
-        if (memoryPredicate.test(rowCol)) {
-          recentlyDeleted.add(rowCol);
-        }
-        sizeInBytes -= size(rowCol);
-        notify();
+      if (queuedWork.putIfAbsent(rowCol, task) != null) {
+        memoryPermits.release(size);
+        return AddStatus.PRESENT;
       }
-    }
 
-    public synchronized void clear() {
-      for (Future<?> task : queuedWork.values()) {
-        task.cancel(false);
+      // remove() adds to recentlyDeleted before removing from queuedWork, so checking after the
+      // put can not miss a notification that was deleted concurrently
+      if (recentlyDeleted.contains(rowCol)) {
+        if (queuedWork.remove(rowCol, task)) {
+          memoryPermits.release(size);
+        }
+        return AddStatus.PRESENT;
       }
 
-      queuedWork.clear();
-      sizeInBytes = 0;
-      notify();
+      return AddStatus.ADDED;
     }
 
-    public synchronized boolean requeue(RowColumn rowCol, FutureTask<?> ft) {
+    public void remove(RowColumn rowCol) {
       if (!queuedWork.containsKey(rowCol)) {
-        return false;
+        return;
       }
 
-      queuedWork.put(rowCol, ft);
+      if (memoryPredicate.test(rowCol)) {
+        recentlyDeleted.add(rowCol);
+      }
 
-      return true;
+      if (queuedWork.remove(rowCol) != null) {
+        release(rowCol);
+      }
+    }
+
+    public void clear() {
+      for (RowColumn rowCol : queuedWork.keySet()) {
+        Future<?> task = queuedWork.remove(rowCol);
+        if (task != null) {
+          task.cancel(false);
+          release(rowCol);
+        }
+      }
+    }
+
+    public boolean requeue(RowColumn rowCol, FutureTask<?> ft) {
+      return queuedWork.replace(rowCol, ft) != null;
     }
 
     private void resetMemoryPredicate() {
-      memoryPredicate = null;
+      Predicate<RowColumn> combined = null;
       for (Predicate<RowColumn> p : this.memoryPredicates.values()) {
-        if (memoryPredicate == null) {
-          memoryPredicate = p;
+        if (combined == null) {
+          combined = p;
         } else {
-          memoryPredicate = p.or(memoryPredicate);
+          combined = p.or(combined);
         }
       }
+      memoryPredicate = combined;
     }
 
-    public synchronized long beginAddingNotifications(Predicate<RowColumn> memoryPredicate) {
-      long sessionId = nextSessionId++;
-      this.memoryPredicates.put(sessionId, Objects.requireNonNull(memoryPredicate));
-      resetMemoryPredicate();
-      return sessionId;
+    public long beginAddingNotifications(Predicate<RowColumn> memoryPredicate) {
+      synchronized (memoryPredicates) {
+        long sessionId = nextSessionId++;
+        this.memoryPredicates.put(sessionId, Objects.requireNonNull(memoryPredicate));
+        resetMemoryPredicate();
+        return sessionId;
+      }
     }
 
-    public synchronized void finishAddingNotifications(long sessionId) {
-      this.memoryPredicates.remove(sessionId);
-      if (memoryPredicates.isEmpty()) {
-        recentlyDeleted.clear();
-        memoryPredicate = rc -> false;
-      } else {
-        resetMemoryPredicate();
+    public void finishAddingNotifications(long sessionId) {
+      synchronized (memoryPredicates) {
+        this.memoryPredicates.remove(sessionId);
+        if (memoryPredicates.isEmpty()) {
+          memoryPredicate = rc -> false;
+          recentlyDeleted.clear();
+        } else {
+          resetMemoryPredicate();
+        }
       }
     }
 
@@ -163,9 +250,9 @@ public class NotificationProcessor implements AutoCloseable {
 
     Notification notification;
     NotificationFinder notificationFinder;
-    WorkTaskAsync workTask;
+    Runnable workTask;
 
-    NotificationProcessingTask(Notification n, NotificationFinder nf, WorkTaskAsync wt) {
+    NotificationProcessingTask(Notification n, NotificationFinder nf, Runnable wt) {
       this.notification = n;
       this.notificationFinder = nf;
       this.workTask = wt;
@@ -193,10 +280,29 @@ public class NotificationProcessor implements AutoCloseable {
       implements Comparable<FutureNotificationTask> {
 
     private final Notification notification;
+    private final NotificationFinder notificationFinder;
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
 
-    public FutureNotificationTask(Notification n, NotificationFinder nf, WorkTaskAsync wt) {
+    public FutureNotificationTask(Notification n, NotificationFinder nf, Runnable wt) {
       super(new NotificationProcessingTask(n, nf, wt), null);
       this.notification = n;
+      this.notificationFinder = nf;
+    }
+
+    /**
+     * @return true if the caller is the only one that will process this task's notification.
+     */
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    @Override
+    public void run() {
+      // a task claimed for a batch has its notification processed by another task
+      if (claim()) {
+        removeFromBatchQueue(this);
+        super.run();
+      }
     }
 
     @Override
@@ -214,6 +320,7 @@ public class NotificationProcessor implements AutoCloseable {
 
   public class Session implements AutoCloseable {
     private long id;
+    private int dropped = 0;
 
     public Session(Predicate<RowColumn> memoryPredicate) {
       this.id = tracker.beginAddingNotifications(memoryPredicate);
@@ -222,11 +329,13 @@ public class NotificationProcessor implements AutoCloseable {
     public boolean addNotification(final NotificationFinder notificationFinder,
         final Notification notification) {
 
-      WorkTaskAsync workTask = new WorkTaskAsync(NotificationProcessor.this, notificationFinder,
-          env, notification, observers);
-      FutureTask<?> ft = new FutureNotificationTask(notification, notificationFinder, workTask);
+      FutureNotificationTask ft = newTask(notificationFinder, notification, true);
 
-      if (!tracker.add(notification.getRowColumn(), ft)) {
+      AddStatus status = tracker.add(notification.getRowColumn(), ft);
+      if (status != AddStatus.ADDED) {
+        if (status == AddStatus.DROPPED) {
+          dropped++;
+        }
         return false;
       }
 
@@ -237,9 +346,19 @@ public class NotificationProcessor implements AutoCloseable {
         throw rje;
       }
 
+      addToBatchQueue(ft, true);
+
       return true;
     }
 
+    /**
+     * @return the number of notifications not added by this session because notification memory was
+     *         full
+     */
+    public int getDropped() {
+      return dropped;
+    }
+
     @Override
     public void close() {
       tracker.finishAddingNotifications(id);
@@ -255,12 +374,86 @@ public class NotificationProcessor implements AutoCloseable {
     return new Session(memoryPredicate);
   }
 
+  private FutureNotificationTask newTask(NotificationFinder notificationFinder,
+      Notification notification, boolean batchable) {
+    Runnable workTask;
+    if (observers.getBatchObserver(notification.getColumn()) != null) {
+      workTask =
+          new BatchWorkTaskAsync(this, notificationFinder, env, notification, observers, batchable);
+    } else {
+      workTask = new WorkTaskAsync(this, notificationFinder, env, notification, observers);
+    }
+    return new FutureNotificationTask(notification, notificationFinder, workTask);
+  }
+
+  private void addToBatchQueue(FutureNotificationTask ft, boolean batchable) {
+    Column col = ft.notification.getColumn();
+    if (batchable && observers.getBatchObserver(col) != null) {
+      // done in compute so it can not race with removing the column's empty queue
+      batchQueues.compute(col, (c, batchQueue) -> {
+        if (batchQueue == null) {
+          batchQueue = new ConcurrentHashMap<>();
+        }
+        batchQueue.put(ft.notification.getRowColumn(), ft);
+        return batchQueue;
+      });
+    }
+  }
+
+  private void removeFromBatchQueue(FutureNotificationTask ft) {
+    Column col = ft.notification.getColumn();
+    if (batchQueues.containsKey(col)) {
+      batchQueues.computeIfPresent(col, (c, batchQueue) -> {
+        batchQueue.remove(ft.notification.getRowColumn(), ft);
+        return batchQueue.isEmpty() ? null : batchQueue;
+      });
+    }
+  }
+
+  /**
+   * Claims queued notifications for a column so they can be processed in the same batch as a
+   * notification that is currently being processed. A claimed notification will not be run on its
+   * own, the caller is responsible for calling {@link #notificationProcessed(Notification)} or
+   * requeueing it.
+   */
+  List<Notification> claimBatch(NotificationFinder notificationFinder, Column col) {
+    List<Notification> claimed = new ArrayList<>();
+    ConcurrentMap<RowColumn, FutureNotificationTask> batchQueue = batchQueues.get(col);
+    if (batchQueue == null) {
+      return claimed;
+    }
+
+    Iterator<FutureNotificationTask> iter = batchQueue.values().iterator();
+    while (claimed.size() < maxBatchSize - 1 && iter.hasNext()) {
+      FutureNotificationTask task = iter.next();
+
+      // Tasks that already started can not be claimed. Once claimed, a task will never run on
+      // its own. Canceling it lets the executor drop it.
+      if (task.notificationFinder == notificationFinder && task.claim()) {
+        batchQueue.remove(task.notification.getRowColumn(), task);
+        task.cancel(false);
+        claimed.add(task.notification);
+      }
+    }
+
+    batchQueues.computeIfPresent(col, (c, q) -> q.isEmpty() ? null : q);
+
+    return claimed;
+  }
+
   public void requeueNotification(final NotificationFinder notificationFinder,
       final Notification notification) {
+    requeueNotification(notificationFinder, notification, true);
+  }
 
-    WorkTaskAsync workTask =
-        new WorkTaskAsync(this, notificationFinder, env, notification, observers);
-    FutureTask<?> ft = new FutureNotificationTask(notification, notificationFinder, workTask);
+  /**
+   * @param batchable If false and the notification's column has a batch observer, then the
+   *        notification will be processed in its own transaction.
+   */
+  void requeueNotification(final NotificationFinder notificationFinder,
+      final Notification notification, boolean batchable) {
+
+    FutureNotificationTask ft = newTask(notificationFinder, notification, batchable);
 
     if (tracker.requeue(notification.getRowColumn(), ft)) {
       try {
@@ -269,6 +462,8 @@ public class NotificationProcessor implements AutoCloseable {
         tracker.remove(notification.getRowColumn());
         throw rje;
       }
+
+      addToBatchQueue(ft, batchable);
     }
   }
 
@@ -282,6 +477,7 @@ public class NotificationProcessor implements AutoCloseable {
 
   public void clear() {
     tracker.clear();
+    batchQueues.clear();
     executor.purge();
   }
 
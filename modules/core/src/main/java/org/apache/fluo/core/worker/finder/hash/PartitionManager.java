@@ -44,6 +44,8 @@ import org.apache.fluo.accumulo.iterators.NotificationHashFilter;
 import org.apache.fluo.accumulo.util.NotificationUtil;
 import org.apache.fluo.accumulo.util.ZookeeperPath;
 import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.data.RowColumn;
 import org.apache.fluo.core.impl.Environment;
 import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.impl.Notification;
@@ -352,9 +354,13 @@ public class PartitionManager {
 
   @VisibleForTesting
   static boolean shouldProcess(Notification notification, int divisor, int remainder) {
-    byte[] cfcq = NotificationUtil.encodeCol(notification.getColumn());
-    return NotificationHashFilter.accept(ByteUtil.toByteSequence(notification.getRow()),
-        new ArrayByteSequence(cfcq), divisor, remainder);
+    return shouldProcess(notification.getRow(), notification.getColumn(), divisor, remainder);
+  }
+
+  private static boolean shouldProcess(Bytes row, Column col, int divisor, int remainder) {
+    byte[] cfcq = NotificationUtil.encodeCol(col);
+    return NotificationHashFilter.accept(ByteUtil.toByteSequence(row), new ArrayByteSequence(cfcq),
+        divisor, remainder);
   }
 
   public boolean shouldProcess(Notification notification) {
@@ -366,4 +372,26 @@ public class PartitionManager {
     return pi.getMyGroupsRanges().getContaining(notification.getRow()) != null
         && shouldProcess(notification, pi.getMyGroupSize(), pi.getMyIdInGroup());
   }
+
+  /**
+   * @return the tablet to scan for the given notification if this worker is responsible for it,
+   *         otherwise null.
+   */
+  TableRange getTabletToScan(RowColumn rc) {
+    return getTabletToScan(getPartitionInfo(), rc);
+  }
+
+  static TableRange getTabletToScan(PartitionInfo pi, RowColumn rc) {
+    if (pi == null) {
+      return null;
+    }
+
+    TableRange tablet = pi.getMyGroupsRanges().getContaining(rc.getRow());
+    if (tablet != null
+        && shouldProcess(rc.getRow(), rc.getColumn(), pi.getMyGroupSize(), pi.getMyIdInGroup())) {
+      return tablet;
+    }
+
+    return null;
+  }
 }
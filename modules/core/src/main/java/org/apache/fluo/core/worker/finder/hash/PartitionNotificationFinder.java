@@ -17,6 +17,7 @@ package org.apache.fluo.core.worker.finder.hash;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.fluo.api.data.RowColumn;
 import org.apache.fluo.core.impl.Environment;
 import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.impl.Notification;
@@ -49,10 +50,28 @@ public class PartitionNotificationFinder implements NotificationFinder {
         env.getConfiguration().getInt(FluoConfigurationImpl.NTFY_FINDER_MAX_SLEEP_TIME_PROP,
             FluoConfigurationImpl.NTFY_FINDER_MAX_SLEEP_TIME_DEFAULT);
 
+    int scanThreads = FluoConfigurationImpl.getNotificationScanThreads(env.getConfiguration());
+
+    long hintDelay =
+        env.getConfiguration().getInt(FluoConfigurationImpl.NTFY_FINDER_HINT_DELAY_PROP,
+            FluoConfigurationImpl.NTFY_FINDER_HINT_DELAY_DEFAULT);
+
     partitionManager = new PartitionManager(env, minSleepTime, maxSleepTime);
 
-    scanThread = new Thread(
-        new ScanTask(this, processor, partitionManager, env, stopped, minSleepTime, maxSleepTime));
+    ScanTask scanTask = new ScanTask(this, processor, partitionManager, env, stopped, minSleepTime,
+        maxSleepTime, scanThreads, hintDelay);
+
+    // transactions committed by this worker tell the scan task about the notifications they wrote
+    env.getSharedResources().getNotificationHints().setListener(notifications -> {
+      for (RowColumn rc : notifications) {
+        TableRange tablet = partitionManager.getTabletToScan(rc);
+        if (tablet != null) {
+          scanTask.hint(tablet);
+        }
+      }
+    });
+
+    scanThread = new Thread(scanTask);
     scanThread.setName(getClass().getSimpleName() + " " + ScanTask.class.getSimpleName());
     scanThread.setDaemon(true);
     scanThread.start();
@@ -60,6 +79,7 @@ public class PartitionNotificationFinder implements NotificationFinder {
 
   @Override
   public void stop() {
+    env.getSharedResources().getNotificationHints().setListener(null);
     stopped.set(true);
 
     scanThread.interrupt();
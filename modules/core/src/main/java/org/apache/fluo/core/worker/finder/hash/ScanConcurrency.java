@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.worker.finder.hash;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Decides how many tablets {@link ScanTask} scans at once and runs those scans.
+ */
+class ScanConcurrency {
+
+  /**
+   * Scans tablets taken from a queue shared by all scan threads until it is empty.
+   */
+  @FunctionalInterface
+  interface TabletScanner<T, R> {
+    R scanTablets(Queue<T> tablets) throws Exception;
+  }
+
+  private final int maxScanThreads;
+  private final int workerThreads;
+  private int concurrency = 1;
+
+  ScanConcurrency(int maxScanThreads, int workerThreads) {
+    this.maxScanThreads = maxScanThreads;
+    this.workerThreads = workerThreads;
+  }
+
+  int get() {
+    return concurrency;
+  }
+
+  /**
+   * Doubles the number of tablets scanned concurrently when notifications were found and the
+   * processor is running out of work. Halves it when no notifications were found, so that idle
+   * workers do not put a lot of scan load on tablet servers.
+   *
+   * @param added notifications added by the last full scan
+   * @param queued notifications queued for processing after the last full scan
+   */
+  void adjust(int added, int queued) {
+    if (added > 0 && queued < workerThreads) {
+      concurrency = Math.min(maxScanThreads, concurrency * 2);
+    } else if (added == 0) {
+      concurrency = Math.max(1, concurrency / 2);
+    }
+  }
+
+  /**
+   * Orders tablets that had notifications last time first. The sort is stable, so tablets with the
+   * same count keep their order.
+   */
+  static <T> void sortBusiestFirst(List<T> tablets, ToIntFunction<T> lastAdded) {
+    tablets.sort(Comparator.comparingInt(lastAdded).reversed());
+  }
+
+  /**
+   * Scans tablets using up to {@link #get()} threads. Each thread takes the next tablet from a
+   * shared queue, so the threads stay busy even when some tablets take much longer to scan. Waits
+   * for all threads, then throws the first error other than a change of partitions.
+   *
+   * @return the results of each thread
+   */
+  <T, R> List<R> scan(ExecutorService executor, List<T> tablets, TabletScanner<T, R> scanner)
+      throws Exception {
+    Queue<T> work = new ConcurrentLinkedQueue<>(tablets);
+
+    int numThreads = Math.min(concurrency, tablets.size());
+    List<Future<R>> futures = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      futures.add(executor.submit(() -> scanner.scanTablets(work)));
+    }
+
+    List<R> results = new ArrayList<>(numThreads);
+    Exception error = null;
+    // wait for all threads before returning, even if one failed
+    for (Future<R> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException e) {
+        // the scan task notices the partition change and starts over
+        if (!(e.getCause() instanceof PartitionInfoChangedException) && error == null) {
+          error = e;
+        }
+      }
+    }
+
+    if (error != null) {
+      throw error;
+    }
+
+    return results;
+  }
+}
@@ -19,11 +19,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.accumulo.core.client.IteratorSetting;
@@ -35,6 +39,7 @@ import org.apache.accumulo.core.data.Value;
 import org.apache.fluo.accumulo.iterators.NotificationHashFilter;
 import org.apache.fluo.core.impl.Environment;
 import org.apache.fluo.core.impl.Notification;
+import org.apache.fluo.core.util.FluoExecutors;
 import org.apache.fluo.core.util.UtilWaitThread;
 import org.apache.fluo.core.worker.NotificationFinder;
 import org.apache.fluo.core.worker.NotificationProcessor;
@@ -56,13 +61,22 @@ public class ScanTask implements Runnable {
 
   private long minSleepTime;
   private long maxSleepTime;
+  private final int maxScanThreads;
+  private final ScanConcurrency concurrency;
+
+  private final long hintDelay;
+  private final Set<TableRange> hintedTablets = ConcurrentHashMap.newKeySet();
+  private final Object hintLock = new Object();
+  // time the first of the hints not yet scanned arrived, guarded by hintLock
+  private long firstHintTime = 0;
+  private long nextFullScan = 0;
 
   private static final Map<String, String> SCAN_EXEC_HINTS =
       Collections.singletonMap("scan_type", "fluo-ntfy");
 
   ScanTask(NotificationFinder finder, NotificationProcessor proccessor,
       PartitionManager partitionManager, Environment env, AtomicBoolean stopped, long minSleepTime,
-      long maxSleepTime) {
+      long maxSleepTime, int maxScanThreads, long hintDelay) {
     this.finder = finder;
     this.rangeData = new HashMap<>();
 
@@ -74,6 +88,59 @@ public class ScanTask implements Runnable {
 
     this.minSleepTime = minSleepTime;
     this.maxSleepTime = maxSleepTime;
+    this.maxScanThreads = maxScanThreads;
+    this.concurrency =
+        new ScanConcurrency(maxScanThreads, env.getConfiguration().getWorkerThreads());
+    this.hintDelay = hintDelay;
+  }
+
+  /**
+   * Requests that a tablet be scanned soon because notifications were recently written to it.
+   */
+  void hint(TableRange tablet) {
+    if (hintedTablets.add(tablet)) {
+      synchronized (hintLock) {
+        if (firstHintTime == 0) {
+          firstHintTime = System.currentTimeMillis();
+        }
+        hintLock.notifyAll();
+      }
+    }
+  }
+
+  private Set<TableRange> drainHints() {
+    Set<TableRange> hinted = new HashSet<>();
+    synchronized (hintLock) {
+      firstHintTime = 0;
+      Iterator<TableRange> iter = hintedTablets.iterator();
+      while (iter.hasNext()) {
+        hinted.add(iter.next());
+        iter.remove();
+      }
+    }
+    return hinted;
+  }
+
+  /**
+   * Sleeps for the given time or until a tablet is hinted, whichever comes first. Hinted tablets
+   * are scanned once the hint delay has passed since the first hint, so that hints arriving close
+   * together are handled in one pass. Hints that arrived while scanning may already be due.
+   */
+  private void sleepUntilHinted(long sleepTime) throws InterruptedException {
+    long now = System.currentTimeMillis();
+    long end = now + sleepTime;
+    synchronized (hintLock) {
+      while (!stopped.get() && now < end) {
+        if (hintedTablets.isEmpty()) {
+          hintLock.wait(end - now);
+        } else if (now < firstHintTime + hintDelay) {
+          hintLock.wait(Math.min(end, firstHintTime + hintDelay) - now);
+        } else {
+          break;
+        }
+        now = System.currentTimeMillis();
+      }
+    }
   }
 
   @Override
@@ -84,86 +151,125 @@ public class ScanTask implements Runnable {
 
     int qSize = proccessor.size();
 
-    while (!stopped.get()) {
-      try {
-        ranges.clear();
-        rangeSet.clear();
-
-        PartitionInfo partition = partitionManager.waitForPartitionInfo();
+    ExecutorService scanExecutor = FluoExecutors.newFixedThreadPool(maxScanThreads, "ntfyScan");
+    try {
+      while (!stopped.get()) {
+        try {
+          ranges.clear();
+          rangeSet.clear();
 
-        while (proccessor.size() > qSize / 2 && !stopped.get()) {
-          UtilWaitThread.sleep(50, stopped);
-        }
+          PartitionInfo partition = partitionManager.waitForPartitionInfo();
 
-        partition.getMyGroupsRanges().forEach(t -> {
-          ranges.add(t);
-          rangeSet.add(t);
-        });
-        Collections.shuffle(ranges, rand);
-        rangeData.keySet().retainAll(rangeSet);
+          while (proccessor.size() > qSize / 2 && !stopped.get()) {
+            UtilWaitThread.sleep(50, stopped);
+          }
 
-        long minRetryTime = maxSleepTime + System.currentTimeMillis();
-        ScanCounts ntfyCounts = new ScanCounts();
-        int tabletsScanned = 0;
-        try {
+          partition.getMyGroupsRanges().forEach(t -> {
+            ranges.add(t);
+            rangeSet.add(t);
+          });
+          Collections.shuffle(ranges, rand);
+          rangeData.keySet().retainAll(rangeSet);
+
+          // When woken early by hints only scan the hinted tablets, otherwise scan all tablets
+          // that are due. rangeData is only modified by this thread, the scan threads only read it.
+          Set<TableRange> hinted = drainHints();
+          long now = System.currentTimeMillis();
+          boolean fullScan = now >= nextFullScan;
+          List<TableRange> toScan = new ArrayList<>();
           for (TableRange tabletRange : ranges) {
             TabletData tabletData = rangeData.computeIfAbsent(tabletRange, tr -> new TabletData());
-            if (System.currentTimeMillis() >= tabletData.retryTime) {
-              ScanCounts counts;
-              PartitionInfo pi = partitionManager.getPartitionInfo();
-              if (partition.equals(pi)) {
-                try (Session session =
-                    proccessor.beginAddingNotifications(rc -> tabletRange.contains(rc.getRow()))) {
-                  // notifications could have been asynchronously queued for deletion. Let that
-                  // happen 1st before scanning
-                  env.getSharedResources().getBatchWriter().waitForAsyncFlush();
-
-                  counts = scan(session, partition, tabletRange.getRange());
-                  tabletsScanned++;
-                }
-              } else {
-                break;
-              }
-              tabletData.updateScanCount(counts.added, maxSleepTime);
-              ntfyCounts.added += counts.added;
-              ntfyCounts.seen += counts.seen;
-              if (stopped.get()) {
-                break;
-              }
+            if (hinted.contains(tabletRange)) {
+              tabletData.resetRetry();
+              toScan.add(tabletRange);
+            } else if (fullScan && now >= tabletData.retryTime) {
+              toScan.add(tabletRange);
             }
+          }
+
+          // scan tablets that had notifications last time first, tablets with the same count stay
+          // shuffled
+          ScanConcurrency.sortBusiestFirst(toScan, tr -> rangeData.get(tr).lastAdded);
+
+          ScanCounts ntfyCounts = new ScanCounts();
+          concurrency.scan(scanExecutor, toScan, work -> scanTablets(partition, work))
+              .forEach(ntfyCounts::add);
 
-            minRetryTime = Math.min(tabletData.retryTime, minRetryTime);
+          long minRetryTime = maxSleepTime + System.currentTimeMillis();
+          for (TableRange tabletRange : ranges) {
+            minRetryTime = Math.min(rangeData.get(tabletRange).retryTime, minRetryTime);
           }
-        } catch (PartitionInfoChangedException mpce) {
-          // nothing to do
-        }
 
-        long sleepTime;
-        if (!partition.equals(partitionManager.getPartitionInfo())) {
-          sleepTime = minSleepTime;
-        } else {
-          sleepTime = Math.max(minSleepTime, minRetryTime - System.currentTimeMillis());
-        }
+          long sleepTime;
+          if (!partition.equals(partitionManager.getPartitionInfo())) {
+            sleepTime = minSleepTime;
+            nextFullScan = 0;
+          } else if (fullScan) {
+            sleepTime = Math.max(minSleepTime, minRetryTime - System.currentTimeMillis());
+            nextFullScan = System.currentTimeMillis() + sleepTime;
+          } else {
+            sleepTime = Math.max(0, nextFullScan - System.currentTimeMillis());
+          }
 
-        qSize = proccessor.size();
+          qSize = proccessor.size();
 
-        log.debug("Scanned {} of {} tablets. Notifications added: {} seen: {} queued: {}",
-            tabletsScanned, ranges.size(), ntfyCounts.added, ntfyCounts.seen, qSize);
+          log.debug(
+              "Scanned {} of {} tablets ({} hinted) using {} threads. Notifications added: {} "
+                  + "dropped: {} seen: {} queued: {}",
+              ntfyCounts.tablets, ranges.size(), hinted.size(), concurrency.get(), ntfyCounts.added,
+              ntfyCounts.dropped, ntfyCounts.seen, qSize);
 
-        if (!stopped.get()) {
-          UtilWaitThread.sleep(sleepTime, stopped);
-        }
+          if (fullScan) {
+            concurrency.adjust(ntfyCounts.added, qSize);
+          }
 
-      } catch (Exception e) {
-        if (isInterruptedException(e)) {
-          log.debug("Error while looking for notifications", e);
-        } else {
-          log.error("Error while looking for notifications", e);
+          if (!stopped.get()) {
+            sleepUntilHinted(sleepTime);
+          }
+
+        } catch (Exception e) {
+          if (isInterruptedException(e)) {
+            log.debug("Error while looking for notifications", e);
+          } else {
+            log.error("Error while looking for notifications", e);
+          }
         }
       }
+    } finally {
+      scanExecutor.shutdownNow();
     }
   }
 
+  private ScanCounts scanTablets(PartitionInfo partition, Queue<TableRange> work)
+      throws TableNotFoundException {
+    ScanCounts totalCounts = new ScanCounts();
+
+    TableRange tabletRange;
+    while (!stopped.get() && (tabletRange = work.poll()) != null) {
+      if (!partition.equals(partitionManager.getPartitionInfo())) {
+        break;
+      }
+
+      ScanCounts counts;
+      final TableRange tr = tabletRange;
+      try (Session session = proccessor.beginAddingNotifications(rc -> tr.contains(rc.getRow()))) {
+        // notifications could have been asynchronously queued for deletion. Let that happen 1st
+        // before scanning
+        env.getSharedResources().waitForAsyncFlush();
+
+        counts = scan(session, partition, tabletRange.getRange());
+        counts.tablets = 1;
+        counts.dropped = session.getDropped();
+      }
+
+      // dropped notifications are counted so a tablet is not backed off as if it were empty
+      rangeData.get(tabletRange).updateScanCount(counts.added + counts.dropped, maxSleepTime);
+      totalCounts.add(counts);
+    }
+
+    return totalCounts;
+  }
+
   private boolean isInterruptedException(Exception e) {
     boolean wasInt = false;
     Throwable cause = e;
@@ -179,12 +285,21 @@ public class ScanTask implements Runnable {
   private static class ScanCounts {
     int seen = 0;
     int added = 0;
+    int dropped = 0;
+    int tablets = 0;
+
+    void add(ScanCounts other) {
+      seen += other.seen;
+      added += other.added;
+      dropped += other.dropped;
+      tablets += other.tablets;
+    }
   }
 
   private ScanCounts scan(Session session, PartitionInfo pi, Range range)
       throws TableNotFoundException {
-    try (Scanner scanner =
-        env.getAccumuloClient().createScanner(env.getTable(), env.getAuthorizations())) {
+    try (Scanner scanner = env.getAccumuloClient().createScanner(env.getNotificationTable(),
+        env.getAuthorizations())) {
 
       scanner.setRange(range);
 
@@ -108,8 +108,9 @@ public class SerializedSplits {
   public static byte[] serializeTableSplits(Environment env) {
     List<Bytes> splits;
     try {
-      splits = env.getAccumuloClient().tableOperations().listSplits(env.getTable()).stream()
-          .map(ByteUtil::toBytes).collect(Collectors.toList());
+      // notifications are scanned per tablet, so partition using the tablets of their table
+      splits = env.getAccumuloClient().tableOperations().listSplits(env.getNotificationTable())
+          .stream().map(ByteUtil::toBytes).collect(Collectors.toList());
     } catch (TableNotFoundException | AccumuloSecurityException | AccumuloException e) {
       throw new RuntimeException(e);
     }
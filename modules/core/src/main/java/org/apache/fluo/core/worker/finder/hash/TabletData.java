@@ -18,8 +18,11 @@ package org.apache.fluo.core.worker.finder.hash;
 class TabletData {
   long retryTime = 0;
   long sleepTime = 0;
+  // number of notifications added by the last scan, used to scan busy tablets first
+  int lastAdded = 0;
 
   public void updateScanCount(int count, long maxSleep) {
+    lastAdded = count;
     if (count == 0) {
       // remember if a tablet is empty an do not retry it for a bit... the more times empty, the
       // longer the retry
@@ -32,8 +35,12 @@ class TabletData {
         }
       }
     } else {
-      retryTime = 0;
-      sleepTime = 0;
+      resetRetry();
     }
   }
+
+  public void resetRetry() {
+    retryTime = 0;
+    sleepTime = 0;
+  }
 }
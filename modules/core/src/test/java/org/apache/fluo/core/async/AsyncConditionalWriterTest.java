@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.async;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.google.common.collect.Iterators;
+import org.apache.accumulo.core.client.ConditionalWriter;
+import org.apache.accumulo.core.client.ConditionalWriter.Result;
+import org.apache.accumulo.core.client.ConditionalWriter.Status;
+import org.apache.accumulo.core.data.Condition;
+import org.apache.accumulo.core.data.ConditionalMutation;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.fluo.core.util.VirtualThreads;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class AsyncConditionalWriterTest {
+
+  /**
+   * A conditional writer that returns the results of its responder. A write of the row "block"
+   * waits until {@link #unblock()} is called. Because the async writer under test uses a single
+   * thread, everything applied while it waits is written as one group.
+   */
+  private static class FakeConditionalWriter implements ConditionalWriter {
+
+    final List<List<String>> writes = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch unblock = new CountDownLatch(1);
+    final Function<List<ConditionalMutation>, Iterator<Result>> responder;
+
+    FakeConditionalWriter(Function<List<ConditionalMutation>, Iterator<Result>> responder) {
+      this.responder = responder;
+    }
+
+    void unblock() {
+      unblock.countDown();
+    }
+
+    @Override
+    public Iterator<Result> write(Iterator<ConditionalMutation> mutations) {
+      List<ConditionalMutation> written = new ArrayList<>();
+      mutations.forEachRemaining(written::add);
+      List<String> rows = new ArrayList<>();
+      written.forEach(cm -> rows.add(row(cm)));
+      writes.add(rows);
+
+      if (rows.contains("block")) {
+        blocked.countDown();
+        try {
+          unblock.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      return responder.apply(written);
+    }
+
+    @Override
+    public Result write(ConditionalMutation mutation) {
+      return Iterators.getOnlyElement(write(Iterators.singletonIterator(mutation)));
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static Iterator<Result> acceptAll(List<ConditionalMutation> mutations) {
+    List<Result> results = new ArrayList<>();
+    // like Accumulo, return copies of the mutations in a different order
+    for (int i = mutations.size() - 1; i >= 0; i--) {
+      results.add(new Result(Status.ACCEPTED, new ConditionalMutation(mutations.get(i)), "server"));
+    }
+    return results.iterator();
+  }
+
+  private static ConditionalMutation newMutation(String row) {
+    ConditionalMutation cm = new ConditionalMutation(row, new Condition("f", "q"));
+    cm.put("f", "q", "v");
+    return cm;
+  }
+
+  private static List<ConditionalMutation> newMutations(String... rows) {
+    List<ConditionalMutation> mutations = new ArrayList<>();
+    for (String row : rows) {
+      mutations.add(newMutation(row));
+    }
+    return mutations;
+  }
+
+  private static String row(ConditionalMutation cm) {
+    return new String(cm.getRow(), StandardCharsets.UTF_8);
+  }
+
+  private static List<String> rows(CompletableFuture<Iterator<Result>> future) throws Exception {
+    List<String> rows = new ArrayList<>();
+    future.get().forEachRemaining(result -> rows.add(row(result.getMutation())));
+    Collections.sort(rows);
+    return rows;
+  }
+
+  private static Throwable getCause(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get();
+      Assert.fail("Expected exception");
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+  }
+
+  private FakeConditionalWriter fcw;
+  private AsyncConditionalWriter acw;
+  private CompletableFuture<Iterator<Result>> blocker;
+
+  private void start(Function<List<ConditionalMutation>, Iterator<Result>> responder)
+      throws InterruptedException {
+    start(new FluoConfiguration(), responder);
+  }
+
+  private void start(FluoConfiguration conf,
+      Function<List<ConditionalMutation>, Iterator<Result>> responder) throws InterruptedException {
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_THREADS, 1);
+    fcw = new FakeConditionalWriter(responder);
+    acw = new AsyncConditionalWriter(conf, fcw);
+    blocker = acw.apply(newMutations("block"));
+    fcw.blocked.await();
+  }
+
+  @After
+  public void tearDown() {
+    if (fcw != null) {
+      fcw.unblock();
+    }
+    if (acw != null) {
+      acw.close();
+    }
+  }
+
+  @Test
+  public void testFanOut() throws Exception {
+    start(AsyncConditionalWriterTest::acceptAll);
+
+    CompletableFuture<Iterator<Result>> f1 = acw.apply(newMutations("a1", "a2"));
+    CompletableFuture<Iterator<Result>> f2 = acw.apply(newMutations("b1"));
+    // the same mutation from two callers gets a result for each
+    CompletableFuture<Iterator<Result>> f3 = acw.apply(newMutations("a1", "c1"));
+    fcw.unblock();
+
+    Assert.assertEquals(Arrays.asList("a1", "a2"), rows(f1));
+    Assert.assertEquals(Arrays.asList("b1"), rows(f2));
+    Assert.assertEquals(Arrays.asList("a1", "c1"), rows(f3));
+    Assert.assertEquals(Arrays.asList("block"), rows(blocker));
+
+    Assert.assertEquals(2, fcw.writes.size());
+    Assert.assertEquals(Arrays.asList("a1", "a2", "b1", "a1", "c1"), fcw.writes.get(1));
+    Assert.assertEquals(0, acw.getMemory());
+  }
+
+  @Test
+  public void testPartialResults() throws Exception {
+    start(mutations -> {
+      List<Result> results = new ArrayList<>();
+      acceptAll(mutations).forEachRemaining(result -> {
+        if (!row(result.getMutation()).equals("b2")) {
+          results.add(result);
+        }
+      });
+      // a result that does not match any mutation written is ignored
+      results.add(new Result(Status.ACCEPTED, newMutation("z"), "server"));
+      return results.iterator();
+    });
+
+    CompletableFuture<Iterator<Result>> f1 = acw.apply(newMutations("a1", "a2"));
+    CompletableFuture<Iterator<Result>> f2 = acw.apply(newMutations("b1", "b2"));
+    fcw.unblock();
+
+    Assert.assertEquals(Arrays.asList("a1", "a2"), rows(f1));
+    Assert.assertTrue(getCause(f2) instanceof IllegalStateException);
+    Assert.assertEquals(0, acw.getMemory());
+  }
+
+  @Test
+  public void testException() throws Exception {
+    start(mutations -> {
+      Iterator<Result> results = acceptAll(mutations);
+      if (mutations.size() == 1) {
+        return results;
+      }
+      // fail after returning the result for the last mutation written
+      Result first = results.next();
+      return new Iterator<Result>() {
+        boolean returned = false;
+
+        @Override
+        public boolean hasNext() {
+          return true;
+        }
+
+        @Override
+        public Result next() {
+          if (!returned) {
+            returned = true;
+            return first;
+          }
+          throw new IllegalArgumentException("tserver failed");
+        }
+      };
+    });
+
+    CompletableFuture<Iterator<Result>> f1 = acw.apply(newMutations("a1", "a2"));
+    CompletableFuture<Iterator<Result>> f2 = acw.apply(newMutations("b1"));
+    fcw.unblock();
+
+    Throwable cause = getCause(f1);
+    Assert.assertTrue(cause instanceof IllegalArgumentException);
+    Assert.assertEquals("tserver failed", cause.getMessage());
+    Assert.assertEquals(Arrays.asList("b1"), rows(f2));
+    Assert.assertEquals(0, acw.getMemory());
+  }
+
+  @Test
+  public void testMemoryLimit() throws Exception {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_MEMORY_PROP, 1);
+    start(conf, AsyncConditionalWriterTest::acceptAll);
+
+    long blockSize = AsyncConditionalWriter.estimateSize(newMutation("block"));
+    Assert.assertEquals(blockSize, acw.getMemory());
+
+    // the mutation being written uses all of the memory, so applying more blocks
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<CompletableFuture<Iterator<Result>>> applied =
+          executor.submit(() -> acw.apply(newMutations("a1")));
+      Thread.sleep(100);
+      Assert.assertFalse(applied.isDone());
+
+      // callers that reserved memory elsewhere are not limited
+      CompletableFuture<Iterator<Result>> reserved = acw.apply(newMutations("b1"), true);
+      Assert.assertEquals(blockSize + AsyncConditionalWriter.estimateSize(newMutation("b1")),
+          acw.getMemory());
+
+      fcw.unblock();
+
+      Assert.assertEquals(Arrays.asList("a1"), rows(applied.get()));
+      Assert.assertEquals(Arrays.asList("b1"), rows(reserved));
+      Assert.assertEquals(0, acw.getMemory());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testVirtualThreads() throws Exception {
+    Assume.assumeTrue(VirtualThreads.isSupported());
+
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.VIRTUAL_THREADS_PROP, true);
+    start(conf, AsyncConditionalWriterTest::acceptAll);
+
+    // each group is written by its own virtual thread, so a blocked write does not hold up others
+    CompletableFuture<Iterator<Result>> f1 = acw.apply(newMutations("a1"));
+    Assert.assertEquals(Arrays.asList("a1"), rows(f1));
+    CompletableFuture<Iterator<Result>> f2 = acw.apply(newMutations("b1", "b2"));
+    Assert.assertEquals(Arrays.asList("b1", "b2"), rows(f2));
+    Assert.assertFalse(blocker.isDone());
+
+    fcw.unblock();
+    Assert.assertEquals(Arrays.asList("block"), rows(blocker));
+    Assert.assertEquals(0, acw.getMemory());
+  }
+}
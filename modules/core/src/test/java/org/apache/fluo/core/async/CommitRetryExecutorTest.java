@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.exceptions.FluoException;
+import org.apache.fluo.core.exceptions.CommitUnknownException;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommitRetryExecutorTest {
+
+  /**
+   * Returns null for the first {@code undecided} calls and then the given outcome.
+   */
+  private static class Attempts implements Supplier<CompletableFuture<String>> {
+    final AtomicInteger calls = new AtomicInteger();
+    final int undecided;
+    final String outcome;
+
+    Attempts(int undecided, String outcome) {
+      this.undecided = undecided;
+      this.outcome = outcome;
+    }
+
+    @Override
+    public CompletableFuture<String> get() {
+      return CompletableFuture.completedFuture(calls.getAndIncrement())
+          .thenApply(call -> call < undecided ? null : outcome);
+    }
+  }
+
+  private static CommitRetryExecutor newExecutor(int retries) {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.COMMIT_UNKNOWN_RETRIES_PROP, retries);
+    return new CommitRetryExecutor(conf);
+  }
+
+  private static Throwable getCause(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get();
+      Assert.fail("Expected exception");
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+  }
+
+  @Test
+  public void testCheckDecides() throws Exception {
+    try (CommitRetryExecutor executor = newExecutor(3)) {
+      Attempts check = new Attempts(0, "accepted");
+      Attempts retry = new Attempts(0, "retried");
+
+      Assert.assertEquals("accepted", executor.resolve(check, retry, "test").get());
+      Assert.assertEquals(1, check.calls.get());
+      Assert.assertEquals(0, retry.calls.get());
+    }
+  }
+
+  @Test
+  public void testRetrySucceeds() throws Exception {
+    try (CommitRetryExecutor executor = newExecutor(3)) {
+      Attempts check = new Attempts(Integer.MAX_VALUE, null);
+      Attempts retry = new Attempts(2, "retried");
+
+      Assert.assertEquals("retried", executor.resolve(check, retry, "test").get());
+      Assert.assertEquals(3, check.calls.get());
+      Assert.assertEquals(3, retry.calls.get());
+    }
+  }
+
+  @Test
+  public void testFinalCheckDecides() throws Exception {
+    try (CommitRetryExecutor executor = newExecutor(2)) {
+      Attempts check = new Attempts(2, "rejected");
+      Attempts retry = new Attempts(Integer.MAX_VALUE, null);
+
+      Assert.assertEquals("rejected", executor.resolve(check, retry, "test").get());
+      Assert.assertEquals(3, check.calls.get());
+      Assert.assertEquals(2, retry.calls.get());
+    }
+  }
+
+  @Test
+  public void testRetriesExhausted() throws Exception {
+    try (CommitRetryExecutor executor = newExecutor(2)) {
+      Attempts check = new Attempts(Integer.MAX_VALUE, null);
+      Attempts retry = new Attempts(Integer.MAX_VALUE, null);
+
+      Throwable cause = getCause(executor.resolve(check, retry, "test"));
+      Assert.assertTrue(cause instanceof CommitUnknownException);
+      Assert.assertEquals(3, check.calls.get());
+      Assert.assertEquals(2, retry.calls.get());
+    }
+  }
+
+  @Test
+  public void testException() throws Exception {
+    try (CommitRetryExecutor executor = newExecutor(3)) {
+      Attempts check = new Attempts(Integer.MAX_VALUE, null);
+      Supplier<CompletableFuture<String>> retry = () -> {
+        throw new IllegalStateException("write failed");
+      };
+
+      Throwable cause = getCause(executor.resolve(check, retry, "test"));
+      Assert.assertTrue(cause instanceof IllegalStateException);
+      Assert.assertEquals(1, check.calls.get());
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    CommitRetryExecutor executor = newExecutor(3);
+    Attempts check = new Attempts(Integer.MAX_VALUE, null);
+    Attempts retry = new Attempts(Integer.MAX_VALUE, null);
+
+    // the first retry is scheduled after a backoff, closing cancels it
+    CompletableFuture<String> future = executor.resolve(check, retry, "test");
+    executor.close();
+
+    Throwable cause = getCause(future);
+    Assert.assertEquals(FluoException.class, cause.getClass());
+    Assert.assertEquals(1, check.calls.get());
+
+    // resolving after close does not hang
+    cause = getCause(executor.resolve(check, retry, "test"));
+    Assert.assertEquals(FluoException.class, cause.getClass());
+  }
+}
@@ -15,6 +15,7 @@
 package org.apache.fluo.core.impl;
 
 import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.worker.NotificationAdmissionPolicy;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -42,4 +43,253 @@ public class FluoConfigurationImplTest {
 
     Assert.assertEquals(5, FluoConfigurationImpl.getNumCWThreads(conf, 3));
   }
+
+  @Test
+  public void testNotificationMemory() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.NTFY_MEMORY_DEFAULT,
+        FluoConfigurationImpl.getNotificationMemory(conf));
+    Assert.assertEquals(NotificationAdmissionPolicy.BLOCK,
+        FluoConfigurationImpl.getNotificationAdmissionPolicy(conf));
+
+    conf.setProperty(FluoConfigurationImpl.NTFY_MEMORY_PROP, 1 << 26);
+    conf.setProperty(FluoConfigurationImpl.NTFY_ADMISSION_POLICY_PROP, "drop");
+
+    Assert.assertEquals(1 << 26, FluoConfigurationImpl.getNotificationMemory(conf));
+    Assert.assertEquals(NotificationAdmissionPolicy.DROP,
+        FluoConfigurationImpl.getNotificationAdmissionPolicy(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadAdmissionPolicy() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.NTFY_ADMISSION_POLICY_PROP, "evict");
+    FluoConfigurationImpl.getNotificationAdmissionPolicy(conf);
+  }
+
+  @Test
+  public void testScanThreads() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.NTFY_FINDER_SCAN_THREADS_DEFAULT,
+        FluoConfigurationImpl.getNotificationScanThreads(conf));
+
+    conf.setProperty(FluoConfigurationImpl.NTFY_FINDER_SCAN_THREADS_PROP, 16);
+
+    Assert.assertEquals(16, FluoConfigurationImpl.getNotificationScanThreads(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadScanThreads() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.NTFY_FINDER_SCAN_THREADS_PROP, 0);
+    FluoConfigurationImpl.getNotificationScanThreads(conf);
+  }
+
+  @Test
+  public void testCommitUnknownRetries() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.COMMIT_UNKNOWN_RETRIES_DEFAULT,
+        FluoConfigurationImpl.getCommitUnknownRetries(conf));
+
+    conf.setProperty(FluoConfigurationImpl.COMMIT_UNKNOWN_RETRIES_PROP, 3);
+
+    Assert.assertEquals(3, FluoConfigurationImpl.getCommitUnknownRetries(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadCommitUnknownRetries() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.COMMIT_UNKNOWN_RETRIES_PROP, 0);
+    FluoConfigurationImpl.getCommitUnknownRetries(conf);
+  }
+
+  @Test
+  public void testGroupWindow() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.ASYNC_CW_GROUP_WINDOW_DEFAULT,
+        FluoConfigurationImpl.getAsyncCWGroupWindow(conf));
+
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_GROUP_WINDOW, 5);
+
+    Assert.assertEquals(5, FluoConfigurationImpl.getAsyncCWGroupWindow(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadGroupWindow() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_GROUP_WINDOW, -1);
+    FluoConfigurationImpl.getAsyncCWGroupWindow(conf);
+  }
+
+  @Test
+  public void testAsyncCWMemory() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.ASYNC_CW_MEMORY_DEFAULT,
+        FluoConfigurationImpl.getAsyncCWMemory(conf));
+
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_MEMORY_PROP, 1 << 20);
+
+    Assert.assertEquals(1 << 20, FluoConfigurationImpl.getAsyncCWMemory(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadAsyncCWMemory() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_MEMORY_PROP, 0);
+    FluoConfigurationImpl.getAsyncCWMemory(conf);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testDeprecatedAsyncCWLimit() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.ASYNC_CW_LIMIT, 1000);
+    Assert.assertEquals(FluoConfigurationImpl.ASYNC_CW_MEMORY_DEFAULT,
+        FluoConfigurationImpl.getAsyncCWMemory(conf));
+  }
+
+  @Test
+  public void testBWShards() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.BW_SHARDS_DEFAULT,
+        FluoConfigurationImpl.getBWShards(conf));
+
+    conf.setProperty(FluoConfigurationImpl.BW_SHARDS_PROP, 4);
+
+    Assert.assertEquals(4, FluoConfigurationImpl.getBWShards(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadBWShards() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.BW_SHARDS_PROP, 0);
+    FluoConfigurationImpl.getBWShards(conf);
+  }
+
+  @Test
+  public void testBWRetries() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.BW_RETRIES_DEFAULT,
+        FluoConfigurationImpl.getBWRetries(conf));
+
+    // a value of 0 disables retries
+    conf.setProperty(FluoConfigurationImpl.BW_RETRIES_PROP, 0);
+
+    Assert.assertEquals(0, FluoConfigurationImpl.getBWRetries(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadBWRetries() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.BW_RETRIES_PROP, -1);
+    FluoConfigurationImpl.getBWRetries(conf);
+  }
+
+  @Test
+  public void testTxReadThreads() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.TX_READ_THREADS_DEFAULT,
+        FluoConfigurationImpl.getTxReadThreads(conf));
+
+    conf.setProperty(FluoConfigurationImpl.TX_READ_THREADS_PROP, 8);
+
+    Assert.assertEquals(8, FluoConfigurationImpl.getTxReadThreads(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadTxReadThreads() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.TX_READ_THREADS_PROP, 0);
+    FluoConfigurationImpl.getTxReadThreads(conf);
+  }
+
+  @Test
+  public void testGarbageCompaction() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.COMPACTION_GARBAGE_THRESHOLD_DEFAULT,
+        FluoConfigurationImpl.getCompactionGarbageThreshold(conf), 0.0);
+    Assert.assertEquals(FluoConfigurationImpl.COMPACTION_GARBAGE_CHECK_PERIOD_DEFAULT,
+        FluoConfigurationImpl.getCompactionGarbageCheckPeriod(conf));
+
+    conf.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_THRESHOLD_PROP, ".4");
+    conf.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_CHECK_PERIOD_PROP, 60000);
+
+    Assert.assertEquals(.4, FluoConfigurationImpl.getCompactionGarbageThreshold(conf), 0.0);
+    Assert.assertEquals(60000, FluoConfigurationImpl.getCompactionGarbageCheckPeriod(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadGarbageThreshold() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_THRESHOLD_PROP, "1.5");
+    FluoConfigurationImpl.getCompactionGarbageThreshold(conf);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadGarbageCheckPeriod() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_CHECK_PERIOD_PROP, 0);
+    FluoConfigurationImpl.getCompactionGarbageCheckPeriod(conf);
+  }
+
+  @Test
+  public void testGcTimestampMaxAge() {
+    FluoConfiguration conf = new FluoConfiguration();
+
+    Assert.assertEquals(FluoConfigurationImpl.GC_TIMESTAMP_MAX_AGE_DEFAULT,
+        FluoConfigurationImpl.getGcTimestampMaxAge(conf));
+
+    // a value of 0 reads the GC timestamp for every compaction
+    conf.setProperty(FluoConfigurationImpl.GC_TIMESTAMP_MAX_AGE_PROP, 0);
+
+    Assert.assertEquals(0, FluoConfigurationImpl.getGcTimestampMaxAge(conf));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadGcTimestampMaxAge() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.GC_TIMESTAMP_MAX_AGE_PROP, -1);
+    FluoConfigurationImpl.getGcTimestampMaxAge(conf);
+  }
+
+  @Test
+  public void testNotificationTable() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setAccumuloTable("data");
+
+    // notifications are stored in the data table by default
+    Assert.assertEquals("data", FluoConfigurationImpl.getNotificationTable(conf));
+    Assert.assertEquals(FluoConfigurationImpl.NOTIFY_TABLE_MAJC_RATIO_DEFAULT,
+        FluoConfigurationImpl.getNotificationTableMajcRatio(conf), 0.0);
+
+    conf.setProperty(FluoConfigurationImpl.NOTIFY_TABLE_PROP, "ntfy");
+    conf.setProperty(FluoConfigurationImpl.NOTIFY_TABLE_MAJC_RATIO_PROP, "1.2");
+
+    Assert.assertEquals("ntfy", FluoConfigurationImpl.getNotificationTable(conf));
+    Assert.assertEquals(1.2, FluoConfigurationImpl.getNotificationTableMajcRatio(conf), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadNotificationTable() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setAccumuloTable("data");
+    conf.setProperty(FluoConfigurationImpl.NOTIFY_TABLE_PROP, "data");
+    FluoConfigurationImpl.getNotificationTable(conf);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadNotificationTableMajcRatio() {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.NOTIFY_TABLE_MAJC_RATIO_PROP, ".5");
+    FluoConfigurationImpl.getNotificationTableMajcRatio(conf);
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.core.metrics.MetricNames;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedBatchWriterTest {
+
+  /**
+   * A batch writer that records the mutations it flushed. Flushing waits until {@link #unblock()}
+   * is called and fails while the shared failure count is positive.
+   */
+  private static class StubBatchWriter implements BatchWriter {
+
+    final List<Mutation> added = new ArrayList<>();
+    final List<Mutation> flushed = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch unblock = new CountDownLatch(1);
+    final AtomicInteger failures;
+
+    StubBatchWriter(boolean blocked, AtomicInteger failures) {
+      this.failures = failures;
+      if (!blocked) {
+        unblock();
+      }
+    }
+
+    void unblock() {
+      unblock.countDown();
+    }
+
+    @Override
+    public void addMutation(Mutation m) {
+      added.add(m);
+    }
+
+    @Override
+    public void addMutations(Iterable<Mutation> iterable) {
+      iterable.forEach(added::add);
+    }
+
+    @Override
+    public void flush() {
+      try {
+        unblock.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      if (failures.getAndUpdate(f -> f > 0 ? f - 1 : 0) > 0) {
+        throw new IllegalStateException("flush failed");
+      }
+      flushed.addAll(added);
+      added.clear();
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private final List<StubBatchWriter> writers = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger failures = new AtomicInteger(0);
+  private final MetricRegistry registry = new MetricRegistry();
+  private SharedBatchWriter sbw;
+
+  private SharedBatchWriter newWriter(int numShards, boolean blocked, int retries) {
+    FluoConfiguration conf = new FluoConfiguration();
+    conf.setProperty(FluoConfigurationImpl.BW_RETRIES_PROP, retries);
+    sbw = new SharedBatchWriter(() -> {
+      StubBatchWriter bw = new StubBatchWriter(blocked, failures);
+      writers.add(bw);
+      return bw;
+    }, numShards, conf, registry, "test");
+    sbw.registerMetrics(new MetricNames("test", "app"));
+    return sbw;
+  }
+
+  private int numFlushed() {
+    int flushed = 0;
+    for (StubBatchWriter bw : writers) {
+      flushed += bw.flushed.size();
+    }
+    return flushed;
+  }
+
+  private static List<Mutation> newMutations(int num) {
+    List<Mutation> mutations = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      Mutation m = new Mutation("r" + i);
+      m.put("f", "q", "v");
+      mutations.add(m);
+    }
+    return mutations;
+  }
+
+  @After
+  public void tearDown() {
+    writers.forEach(StubBatchWriter::unblock);
+    if (sbw != null) {
+      sbw.close();
+    }
+  }
+
+  @Test
+  public void testWaitForAsyncFlushCoversAllShards() throws Exception {
+    int numShards = 3;
+    newWriter(numShards, true, 0);
+    Assert.assertEquals(numShards, writers.size());
+
+    sbw.writeMutationsAsync(newMutations(100));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> waiter = executor.submit(sbw::waitForAsyncFlush);
+
+      // every shard must flush before waiting returns, regardless of the order they finish in
+      for (int i = numShards - 1; i >= 0; i--) {
+        Thread.sleep(50);
+        Assert.assertFalse(waiter.isDone());
+        writers.get(i).unblock();
+      }
+
+      waiter.get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (StubBatchWriter bw : writers) {
+      Assert.assertFalse(bw.flushed.isEmpty());
+    }
+    Assert.assertEquals(100, numFlushed());
+  }
+
+  @Test
+  public void testRetrySucceeds() throws Exception {
+    failures.set(2);
+    newWriter(1, false, 2);
+
+    sbw.writeMutationsAsyncFuture(newMutations(10)).get();
+    sbw.writeMutations(newMutations(5));
+
+    // each failure replaces the batch writer and everything is written again by the new one
+    Assert.assertEquals(3, writers.size());
+    Assert.assertTrue(writers.get(0).flushed.isEmpty());
+    Assert.assertTrue(writers.get(1).flushed.isEmpty());
+    Assert.assertEquals(15, numFlushed());
+    // every attempt is timed, including the ones that failed
+    Assert.assertEquals(4, registry.getTimers().values().iterator().next().getCount());
+  }
+
+  @Test
+  public void testRetriesExhausted() throws Exception {
+    failures.set(Integer.MAX_VALUE);
+    newWriter(1, false, 2);
+
+    CompletableFuture<Void> future = sbw.writeMutationsAsyncFuture(newMutations(10));
+    try {
+      future.get();
+      Assert.fail("Expected exception");
+    } catch (ExecutionException e) {
+      Assert.assertEquals("flush failed", e.getCause().getMessage());
+    }
+    Assert.assertEquals(3, writers.size());
+
+    try {
+      sbw.writeMutations(newMutations(5));
+      Assert.fail("Expected exception");
+    } catch (RuntimeException e) {
+      // expected
+    }
+
+    // failed async batches do not block waiting for async flushes
+    sbw.writeMutationsAsync(newMutations(5));
+    sbw.waitForAsyncFlush();
+    Assert.assertEquals(0, numFlushed());
+
+    failures.set(0);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.observer.v2;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.BatchObserver;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.fluo.api.observer.Observer.NotificationType.STRONG;
+import static org.apache.fluo.api.observer.Observer.NotificationType.WEAK;
+
+public class ObserverRegistryTest {
+
+  private static final Column STRONG_COL = new Column("f", "strong");
+  private static final Column WEAK_COL = new Column("f", "weak");
+
+  private static ObserverRegistry newRegistry() {
+    return new ObserverRegistry(ImmutableSet.of(STRONG_COL), ImmutableSet.of(WEAK_COL));
+  }
+
+  @Test
+  public void testBatchObserver() {
+    ObserverRegistry or = newRegistry();
+    BatchObserver bo = (tx, rows, col) -> {
+    };
+    or.forColumn(WEAK_COL, WEAK).withId("batch").useBatchObserver(bo);
+
+    Assert.assertSame(bo, or.batchObservers.get(WEAK_COL));
+    Assert.assertFalse(or.observers.containsKey(WEAK_COL));
+    Assert.assertEquals("batch", or.aliases.get(WEAK_COL));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBatchObserverStrong() {
+    newRegistry().forColumn(STRONG_COL, STRONG).useBatchObserver((tx, rows, col) -> {
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBatchObserverDuplicate() {
+    ObserverRegistry or = newRegistry();
+    or.forColumn(WEAK_COL, WEAK).useObserver((tx, row, col) -> {
+    });
+    or.forColumn(WEAK_COL, WEAK).useBatchObserver((tx, rows, col) -> {
+    });
+  }
+}
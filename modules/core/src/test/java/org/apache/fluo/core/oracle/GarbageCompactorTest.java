@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.oracle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.client.summary.Summary;
+import org.apache.fluo.accumulo.summarizer.FluoSummarizer;
+import org.apache.fluo.accumulo.summarizer.FluoSummarizer.Counts;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for GarbageCompactor class
+ */
+public class GarbageCompactorTest {
+
+  private static Counts newCounts(long ntfy, long ntfyDel, long txDone, long delLock, long lock,
+      long data, long write) {
+    return new Counts(ntfy, ntfyDel, txDone, delLock, lock, data, write, 0, 0, 0);
+  }
+
+  private static List<Summary> newSummaries(Counts counts, long files, long missing) {
+    Map<String, Long> stats = new HashMap<>();
+    stats.put("ntfy", counts.ntfy);
+    stats.put("ntfyDel", counts.ntfyDel);
+    stats.put("txDone", counts.txDone);
+    stats.put("delLock", counts.delLock);
+    stats.put("lock", counts.lock);
+    stats.put("data", counts.data);
+    stats.put("write", counts.write);
+    stats.put("ack", counts.ack);
+    stats.put("delrlock", counts.delrlock);
+    stats.put("rlock", counts.rlock);
+    return Collections
+        .singletonList(new Summary(stats, FluoSummarizer.CONFIG, files, missing, 0, 0, 0));
+  }
+
+  @Test
+  public void testGarbageRatio() {
+    Assert.assertEquals(0, GarbageCompactor.getGarbageRatio(newCounts(0, 0, 0, 0, 0, 0, 0)), 0);
+    Assert.assertEquals(0, GarbageCompactor.getGarbageRatio(newCounts(5, 0, 0, 0, 5, 10, 10)), 0);
+
+    // each deleted notification also hides the notification it deleted
+    Assert.assertEquals(.5, GarbageCompactor.getGarbageRatio(newCounts(10, 10, 0, 0, 0, 10, 10)),
+        0.0001);
+    // a deleted lock hides at most as many locks as exist
+    Assert.assertEquals(.3, GarbageCompactor.getGarbageRatio(newCounts(0, 0, 0, 10, 5, 25, 10)),
+        0.0001);
+    Assert.assertEquals(.2, GarbageCompactor.getGarbageRatio(newCounts(0, 0, 4, 0, 0, 8, 8)),
+        0.0001);
+  }
+
+  @Test
+  public void testShouldCompact() {
+    Counts garbage = newCounts(10, 10, 0, 0, 0, 10, 10);
+    Counts clean = newCounts(10, 0, 0, 0, 10, 50, 50);
+
+    Assert.assertTrue(GarbageCompactor.shouldCompact(newSummaries(garbage, 3, 0), .25));
+    Assert.assertFalse(GarbageCompactor.shouldCompact(newSummaries(garbage, 3, 0), .75));
+    Assert.assertFalse(GarbageCompactor.shouldCompact(newSummaries(clean, 3, 0), .25));
+
+    // a tablet with a single file was likely already compacted
+    Assert.assertFalse(GarbageCompactor.shouldCompact(newSummaries(garbage, 1, 0), .25));
+    // counts are incomplete when files are missing summaries
+    Assert.assertFalse(GarbageCompactor.shouldCompact(newSummaries(garbage, 3, 1), .25));
+    Assert.assertFalse(GarbageCompactor.shouldCompact(Collections.emptyList(), .25));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.oracle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for StampLease class
+ */
+public class StampLeaseTest {
+
+  @Test
+  public void testExhausted() {
+    StampLease lease = new StampLease(new Stamp(100, 50), 3, 1000);
+
+    Assert.assertEquals(100, lease.getStart());
+
+    for (long expected = 100; expected < 103; expected++) {
+      Stamp stamp = lease.poll(-1, 0);
+      Assert.assertEquals(expected, stamp.getTxTimestamp());
+      Assert.assertEquals(50, stamp.getGcTimestamp());
+    }
+
+    Assert.assertNull(lease.poll(-1, 0));
+  }
+
+  @Test
+  public void testExpired() {
+    StampLease lease = new StampLease(new Stamp(100, 50), 10, 1000);
+
+    Assert.assertEquals(100, lease.poll(-1, 1000).getTxTimestamp());
+    Assert.assertNull(lease.poll(-1, 1001));
+  }
+
+  @Test
+  public void testMinTs() {
+    StampLease lease = new StampLease(new Stamp(100, 50), 10, 1000);
+
+    Assert.assertEquals(100, lease.poll(50, 0).getTxTimestamp());
+    Assert.assertEquals(106, lease.poll(105, 0).getTxTimestamp());
+    Assert.assertEquals(107, lease.poll(-1, 0).getTxTimestamp());
+    Assert.assertNull(lease.poll(109, 0));
+  }
+}
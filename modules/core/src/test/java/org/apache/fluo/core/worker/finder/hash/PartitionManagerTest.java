@@ -26,6 +26,8 @@ import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
 import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.data.RowColumn;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -98,4 +100,39 @@ public class PartitionManagerTest {
       }
     }
   }
+
+  @Test
+  public void testGetTabletToScan() {
+    TreeSet<String> children = new TreeSet<>();
+    IntStream.range(0, 4).mapToObj(i -> String.format("f-%04d", i)).forEach(children::add);
+    Collection<TableRange> tablets = TableRange.fromBytes(IntStream.range(1, 10)
+        .mapToObj(i -> Bytes.of(String.format("r%06d", i * 1000))).collect(toList()));
+
+    // two groups of two workers
+    Map<String, PartitionInfo> infos = new HashMap<>();
+    for (String me : children) {
+      infos.put(me, PartitionManager.getGroupInfo(me, children, tablets, 2));
+    }
+
+    for (int r = 0; r < 10_000; r += 37) {
+      for (String col : new String[] {"c1", "c2", "c3"}) {
+        RowColumn rc = new RowColumn(String.format("r%06d", r), new Column("f", col));
+
+        // exactly one worker scans the tablet containing the notification for it
+        int found = 0;
+        for (PartitionInfo pi : infos.values()) {
+          TableRange tablet = PartitionManager.getTabletToScan(pi, rc);
+          if (tablet != null) {
+            found++;
+            Assert.assertTrue(tablet.contains(rc.getRow()));
+            Assert.assertEquals(tablet, pi.getMyGroupsRanges().getContaining(rc.getRow()));
+          }
+        }
+        Assert.assertEquals(1, found);
+      }
+    }
+
+    // a worker without partition info does not scan any tablets
+    Assert.assertNull(PartitionManager.getTabletToScan(null, new RowColumn("r000001")));
+  }
 }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.core.worker.finder.hash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScanConcurrencyTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static List<String> newTablets(int num) {
+    List<String> tablets = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      tablets.add("t" + i);
+    }
+    return tablets;
+  }
+
+  @Test
+  public void testAdjust() {
+    ScanConcurrency concurrency = new ScanConcurrency(8, 10);
+    Assert.assertEquals(1, concurrency.get());
+
+    // notifications were found and the workers are running out of work
+    concurrency.adjust(5, 0);
+    Assert.assertEquals(2, concurrency.get());
+    concurrency.adjust(5, 9);
+    Assert.assertEquals(4, concurrency.get());
+    concurrency.adjust(5, 9);
+    concurrency.adjust(5, 9);
+    Assert.assertEquals(8, concurrency.get());
+
+    // the workers have enough queued, so the same number of scan threads keeps them fed
+    concurrency.adjust(5, 10);
+    Assert.assertEquals(8, concurrency.get());
+
+    // nothing was found
+    concurrency.adjust(0, 0);
+    Assert.assertEquals(4, concurrency.get());
+    concurrency.adjust(0, 0);
+    concurrency.adjust(0, 0);
+    concurrency.adjust(0, 0);
+    Assert.assertEquals(1, concurrency.get());
+  }
+
+  @Test
+  public void testSortBusiestFirst() {
+    Map<String, Integer> lastAdded = new ConcurrentHashMap<>();
+    lastAdded.put("a", 0);
+    lastAdded.put("b", 3);
+    lastAdded.put("c", 0);
+    lastAdded.put("d", 7);
+    lastAdded.put("e", 3);
+
+    List<String> tablets = new ArrayList<>(Arrays.asList("a", "b", "c", "d", "e"));
+    ScanConcurrency.sortBusiestFirst(tablets, lastAdded::get);
+    // tablets with the same count keep their order
+    Assert.assertEquals(Arrays.asList("d", "b", "e", "a", "c"), tablets);
+  }
+
+  @Test
+  public void testSlowTabletDoesNotStallOthers() throws Exception {
+    ScanConcurrency concurrency = new ScanConcurrency(4, 10);
+    concurrency.adjust(1, 0);
+    concurrency.adjust(1, 0);
+    Assert.assertEquals(4, concurrency.get());
+
+    List<String> tablets = newTablets(20);
+    tablets.add(0, "slow");
+
+    CountDownLatch fastScanned = new CountDownLatch(20);
+    List<String> scanned = Collections.synchronizedList(new ArrayList<>());
+
+    List<Integer> counts = concurrency.scan(executor, tablets, work -> {
+      int count = 0;
+      String tablet;
+      while ((tablet = work.poll()) != null) {
+        if (tablet.equals("slow")) {
+          // the other threads scan all remaining tablets while this one is busy
+          Assert.assertTrue(fastScanned.await(10, TimeUnit.SECONDS));
+        } else {
+          fastScanned.countDown();
+        }
+        scanned.add(tablet);
+        count++;
+      }
+      return count;
+    });
+
+    Assert.assertEquals(4, counts.size());
+    Assert.assertEquals(21, counts.stream().mapToInt(Integer::intValue).sum());
+    Collections.sort(tablets);
+    Collections.sort(scanned);
+    Assert.assertEquals(tablets, scanned);
+  }
+
+  @Test
+  public void testFewerTabletsThanThreads() throws Exception {
+    ScanConcurrency concurrency = new ScanConcurrency(8, 10);
+    concurrency.adjust(1, 0);
+    concurrency.adjust(1, 0);
+
+    Assert.assertEquals(2, concurrency.scan(executor, newTablets(2), work -> {
+      work.poll();
+      return 1;
+    }).size());
+    Assert.assertTrue(
+        concurrency.scan(executor, Collections.<String>emptyList(), work -> 1).isEmpty());
+  }
+
+  @Test
+  public void testPartitionChangeIgnored() throws Exception {
+    ScanConcurrency concurrency = new ScanConcurrency(2, 10);
+    concurrency.adjust(1, 0);
+
+    CountDownLatch started = new CountDownLatch(2);
+    List<Integer> counts = concurrency.scan(executor, newTablets(2), work -> {
+      started.countDown();
+      started.await();
+      if (work.poll().equals("t0")) {
+        throw new PartitionInfoChangedException();
+      }
+      return 1;
+    });
+
+    // the results of the thread that saw the partition change are left out
+    Assert.assertEquals(Arrays.asList(1), counts);
+  }
+
+  @Test
+  public void testErrorRethrown() throws Exception {
+    ScanConcurrency concurrency = new ScanConcurrency(2, 10);
+    concurrency.adjust(1, 0);
+
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicInteger finished = new AtomicInteger(0);
+    try {
+      concurrency.scan(executor, newTablets(2), work -> {
+        started.countDown();
+        started.await();
+        if (work.poll().equals("t0")) {
+          throw new IllegalStateException("scan failed");
+        }
+        Thread.sleep(100);
+        finished.incrementAndGet();
+        return 1;
+      });
+      Assert.fail("Expected exception");
+    } catch (ExecutionException e) {
+      Assert.assertEquals("scan failed", e.getCause().getMessage());
+    }
+
+    // the error is only thrown after all threads are done
+    Assert.assertEquals(1, finished.get());
+  }
+}
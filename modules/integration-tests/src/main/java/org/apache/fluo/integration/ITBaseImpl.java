@@ -63,6 +63,8 @@ public class ITBaseImpl extends ITBase {
     }
   }
 
+  protected void setConfig(FluoConfiguration config) {}
+
   @Before
   public void setUpFluo() throws Exception {
 
@@ -82,6 +84,8 @@ public class ITBaseImpl extends ITBase {
     config.setProperty(FluoConfigurationImpl.ZK_UPDATE_PERIOD_PROP, "1000");
     config.setMiniStartAccumulo(false);
 
+    setConfig(config);
+
     try (FluoAdmin admin = FluoFactory.newAdmin(config)) {
       InitializationOptions opts =
           new InitializationOptions().setClearZookeeper(true).setClearTable(true);
@@ -109,7 +113,11 @@ public class ITBaseImpl extends ITBase {
     if (oserver.isConnected()) {
       oserver.stop();
     }
+    String notificationTable = env.getNotificationTable();
     env.close();
     aClient.tableOperations().delete(table);
+    if (!notificationTable.equals(table)) {
+      aClient.tableOperations().delete(notificationTable);
+    }
   }
 }
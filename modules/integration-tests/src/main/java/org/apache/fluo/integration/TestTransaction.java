@@ -55,8 +55,8 @@ public class TestTransaction extends AbstractTransactionBase implements Transact
   private Environment env;
 
   public static long getNotificationTS(Environment env, String row, Column col) {
-    try (Scanner scanner =
-        env.getAccumuloClient().createScanner(env.getTable(), env.getAuthorizations())) {
+    try (Scanner scanner = env.getAccumuloClient().createScanner(env.getNotificationTable(),
+        env.getAuthorizations())) {
 
       IteratorSetting iterCfg = new IteratorSetting(11, NotificationIterator.class);
       scanner.addScanIterator(iterCfg);
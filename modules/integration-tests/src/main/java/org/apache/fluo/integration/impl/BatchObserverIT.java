@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.integration.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.fluo.api.client.Transaction;
+import org.apache.fluo.api.client.TransactionBase;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.BatchObserver;
+import org.apache.fluo.api.observer.ObserverProvider;
+import org.apache.fluo.integration.ITBaseMini;
+import org.apache.fluo.integration.TestUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.apache.fluo.api.observer.Observer.NotificationType.WEAK;
+
+public class BatchObserverIT extends ITBaseMini {
+  @Rule
+  public Timeout globalTimeout = Timeout.seconds(getTestTimeout());
+
+  private static final Column DOC_VALUE = new Column("doc", "value");
+  private static final Column DOC_CHECK = new Column("doc", "check");
+  private static final Column TOTAL = new Column("stat", "total");
+
+  private static final AtomicInteger transactions = new AtomicInteger();
+  private static final AtomicInteger notifications = new AtomicInteger();
+
+  // adds the values of all documents in the batch to a single shared counter
+  public static class TotalObserver implements BatchObserver {
+    @Override
+    public void process(TransactionBase tx, List<Bytes> rows, Column col) throws Exception {
+      int sum = 0;
+      for (Bytes row : rows) {
+        sum += Integer.parseInt(tx.gets(row.toString(), DOC_VALUE));
+        tx.delete(row, DOC_VALUE);
+      }
+
+      tx.set("total", TOTAL, sum + TestUtil.getOrDefault(tx, "total", TOTAL, 0) + "");
+
+      transactions.incrementAndGet();
+      notifications.addAndGet(rows.size());
+    }
+  }
+
+  public static class BatchObserverITProvider implements ObserverProvider {
+    @Override
+    public void provide(Registry or, Context ctx) {
+      or.forColumn(DOC_CHECK, WEAK).useBatchObserver(new TotalObserver());
+    }
+  }
+
+  @Override
+  protected Class<? extends ObserverProvider> getObserverProviderClass() {
+    return BatchObserverITProvider.class;
+  }
+
+  @Test
+  public void testBatchObserver() throws Exception {
+    int expected = 0;
+
+    // notifications written together are found by the same scan, so they can be batched
+    try (Transaction tx = client.newTransaction()) {
+      for (int i = 0; i < 100; i++) {
+        tx.set("doc" + i, DOC_VALUE, i + "");
+        tx.setWeakNotification("doc" + i, DOC_CHECK);
+        expected += i;
+      }
+      tx.commit();
+    }
+
+    miniFluo.waitForObservers();
+
+    try (Transaction tx = client.newTransaction()) {
+      Assert.assertEquals(expected + "", tx.gets("total", TOTAL));
+      for (int i = 0; i < 100; i++) {
+        Assert.assertNull(tx.gets("doc" + i, DOC_VALUE));
+      }
+    }
+
+    // waitForObservers() returning shows all weak notifications in each batch were deleted
+    Assert.assertTrue(notifications.get() >= 100);
+    Assert.assertTrue(transactions.get() > 0);
+    Assert.assertTrue(
+        "transactions:" + transactions.get() + " notifications:" + notifications.get(),
+        transactions.get() < notifications.get());
+  }
+}
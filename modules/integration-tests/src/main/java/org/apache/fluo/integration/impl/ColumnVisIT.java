@@ -17,10 +17,13 @@ package org.apache.fluo.integration.impl;
 
 import java.util.Arrays;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import org.apache.accumulo.core.security.Authorizations;
 import org.apache.fluo.api.data.Column;
 import org.apache.fluo.integration.ITBaseImpl;
 import org.apache.fluo.integration.TestTransaction;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.Timeout;
@@ -82,4 +85,39 @@ public class ColumnVisIT extends ITBaseImpl {
     // expect get rows cols w/ bad col vis to fail fast
     tx1.gets(Arrays.asList("r1", "r2"), Sets.newHashSet(col1, col2)).size();
   }
+
+  @Test
+  public void testGetSingleColumn() throws Exception {
+    aClient.securityOperations().changeUserAuthorizations(USER, new Authorizations("A", "B"));
+    env.setAuthorizations(new Authorizations("A", "B"));
+
+    Column plain = new Column("f", "q");
+    Column visA = new Column("f", "q", "A");
+    Column visB = new Column("f", "q", "B");
+
+    TestTransaction tx1 = new TestTransaction(env);
+    tx1.set("r", plain, "v0");
+    tx1.set("r", visA, "v1");
+    tx1.set("r", visB, "v2");
+    tx1.set("r", new Column("f", "q2"), "v3");
+    tx1.set("r", new Column("f", "q", "A&B"), "v4");
+    tx1.set("r2", visA, "v5");
+    tx1.done();
+
+    // a get of one column only reads that column, visibility included
+    TestTransaction tx2 = new TestTransaction(env);
+    Assert.assertEquals("v0", tx2.gets("r", plain));
+    Assert.assertEquals("v1", tx2.gets("r", visA));
+    Assert.assertEquals("v2", tx2.gets("r", visB));
+    Assert.assertEquals("v3", tx2.gets("r", new Column("f", "q2")));
+    Assert.assertEquals("v4", tx2.gets("r", new Column("f", "q", "A&B")));
+    Assert.assertEquals("v5", tx2.gets("r2", visA));
+    Assert.assertNull(tx2.gets("r", new Column("f", "q", "C")));
+    Assert.assertNull(tx2.gets("r2", visB));
+
+    // matches a get of several columns
+    Assert.assertEquals(ImmutableMap.of(plain, "v0", visA, "v1"),
+        tx2.gets("r", Sets.newHashSet(plain, visA)));
+    tx2.done();
+  }
 }
@@ -15,9 +15,15 @@
 
 package org.apache.fluo.integration.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
+import java.util.Set;
 
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.TableNotFoundException;
@@ -206,6 +212,58 @@ public class FailureIT extends ITBaseImpl {
     }
   }
 
+  @Test
+  public void testResolveManyPrimaries() throws Exception {
+    // test resolving locks from many dead transactions, each with its own primary, in one read
+
+    Column col1 = new Column("fam1", "q1");
+    Column col2 = new Column("fam1", "q2");
+
+    TestTransaction tx = new TestTransaction(env);
+
+    List<Bytes> rows = new ArrayList<>();
+    for (int r = 0; r < 10; r++) {
+      rows.add(Bytes.of("r" + r));
+      tx.set("r" + r, col1, "0" + r + "0");
+      tx.set("r" + r, col2, "0" + r + "1");
+    }
+
+    tx.done();
+
+    TransactorNode t2 = new TransactorNode(env);
+
+    for (int r = 0; r < 10; r++) {
+      TestTransaction tx2 = new TestTransaction(env, t2);
+      tx2.set("r" + r, col1, "1" + r + "0");
+      tx2.set("r" + r, col2, "1" + r + "1");
+
+      CommitData cd = tx2.createCommitData();
+      Assert.assertTrue(tx2.preCommit(cd));
+
+      // roll forward even rows and roll back odd rows
+      if (r % 2 == 0) {
+        Stamp commitTs = env.getSharedResources().getOracleClient().getStamp();
+        Assert.assertTrue(tx2.commitPrimaryColumn(cd, commitTs));
+      }
+    }
+
+    t2.close();
+
+    Set<Column> cols = new HashSet<>(Arrays.asList(col1, col2));
+    for (int i = 0; i < 2; i++) {
+      // the second read checks that nothing was left locked by the first
+      TestTransaction tx3 = new TestTransaction(env);
+      Map<Bytes, Map<Column, Bytes>> results = tx3.get(rows, cols);
+      Assert.assertEquals(10, results.size());
+      for (int r = 0; r < 10; r++) {
+        String prefix = r % 2 == 0 ? "1" : "0";
+        Map<Column, Bytes> rowResult = results.get(Bytes.of("r" + r));
+        Assert.assertEquals(prefix + r + "0", rowResult.get(col1).toString());
+        Assert.assertEquals(prefix + r + "1", rowResult.get(col2).toString());
+      }
+    }
+  }
+
   @Test
   public void testRollback() throws Exception {
     // test the case where a scan encounters a stuck lock and rolls it back
@@ -330,6 +388,56 @@ public class FailureIT extends ITBaseImpl {
     tx3.close();
   }
 
+  @Test
+  public void testSingleRowDeadLock() throws Exception {
+    // test that a failed single row transaction rolls back orphaned locks on all of the columns it
+    // wrote, not only on its primary column
+
+    TransactorNode t1 = new TransactorNode(env);
+
+    TestTransaction tx1 = new TestTransaction(env);
+    tx1.set("bob", BALANCE, "10");
+    tx1.set("joe", BALANCE, "20");
+    tx1.done();
+
+    TestTransaction tx2 = new TestTransaction(env, t1);
+    tx2.set("bob", BALANCE, "3");
+    tx2.set("joe", BALANCE, "27");
+
+    CommitData cd = tx2.createCommitData();
+    Assert.assertTrue(tx2.preCommit(cd));
+
+    t1.close();
+
+    // does not read bob's balance, so only a failed commit will find the dead lock
+    Column name = new Column("account", "name");
+    TestTransaction tx3 = new TestTransaction(env);
+    tx3.set("bob", name, "Bob");
+    tx3.set("bob", BALANCE, "5");
+
+    try {
+      tx3.commit();
+      Assert.fail("Expected commit exception");
+    } catch (CommitException ce) {
+      // do nothing
+    }
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList(name, BALANCE)),
+        tx3.getStats().getRejected().get(Bytes.of("bob")));
+    Assert.assertEquals(1, tx3.getStats().getDeadLocks());
+
+    TestTransaction tx4 = new TestTransaction(env);
+    tx4.set("bob", name, "Bob");
+    tx4.set("bob", BALANCE, "5");
+    tx4.done();
+
+    TestTransaction tx5 = new TestTransaction(env);
+    Assert.assertEquals("Bob", tx5.gets("bob", name));
+    Assert.assertEquals("5", tx5.gets("bob", BALANCE));
+    Assert.assertEquals("20", tx5.gets("joe", BALANCE));
+    tx5.close();
+  }
+
   @Test
   public void testRollfoward() throws Exception {
     // test the case where a scan encounters a stuck lock (for a complete tx) and rolls it forward
@@ -408,7 +516,8 @@ public class FailureIT extends ITBaseImpl {
     Assert.assertNull(tx3.gets("idx:def", docUrl));
     Assert.assertEquals("3", tx3.gets("url0000", lastUpdate));
 
-    Scanner scanner = env.getAccumuloClient().createScanner(env.getTable(), Authorizations.EMPTY);
+    Scanner scanner =
+        env.getAccumuloClient().createScanner(env.getNotificationTable(), Authorizations.EMPTY);
     Notification.configureScanner(scanner);
     Iterator<Entry<Key, Value>> iter = scanner.iterator();
     Assert.assertTrue(iter.hasNext());
@@ -446,7 +555,7 @@ public class FailureIT extends ITBaseImpl {
     }
 
     // commit above should schedule async delete of notification
-    env.getSharedResources().getBatchWriter().waitForAsyncFlush();
+    env.getSharedResources().waitForAsyncFlush();
     iter = scanner.iterator();
     Assert.assertFalse(iter.hasNext());
   }
@@ -360,6 +360,40 @@ public class FluoIT extends ITBaseImpl {
     assertAAck(tx4);
   }
 
+  @Test
+  public void testSingleRow() throws Exception {
+    // transactions that only change one row lock and commit all of the row's columns at once
+    Column name = new Column("data", "name");
+
+    TestTransaction tx1 = new TestTransaction(env);
+    tx1.set("bob", BALANCE, "10");
+    tx1.set("bob", name, "Bob");
+    tx1.done();
+
+    long ntfyTs = TestTransaction.getNotificationTS(env, "bob", BALANCE);
+
+    TestTransaction tx2 = new TestTransaction(env, "bob", BALANCE, ntfyTs);
+
+    Assert.assertEquals("10", tx2.gets("bob", BALANCE));
+    tx2.set("bob", BALANCE, "11");
+    tx2.set("bob", name, "Robert");
+
+    TestTransaction tx3 = new TestTransaction(env);
+    Assert.assertEquals("Bob", tx3.gets("bob", name));
+    tx3.set("bob", name, "Rob");
+
+    tx2.done();
+    assertCommitFails(tx3);
+
+    // the notification that triggered tx2 should be replaced by the one tx2 wrote
+    Assert.assertTrue(TestTransaction.getNotificationTS(env, "bob", BALANCE) > ntfyTs);
+
+    TestTransaction tx4 = new TestTransaction(env);
+    Assert.assertEquals("11", tx4.gets("bob", BALANCE));
+    Assert.assertEquals("Robert", tx4.gets("bob", name));
+    tx4.done();
+  }
+
   @Test
   public void testWriteObserved() throws Exception {
     // setting an acknowledged observed column in a transaction should not affect acknowledged
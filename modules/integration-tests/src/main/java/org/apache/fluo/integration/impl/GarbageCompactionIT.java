@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.integration.impl;
+
+import org.apache.accumulo.core.client.summary.Summary;
+import org.apache.fluo.accumulo.summarizer.FluoSummarizer;
+import org.apache.fluo.api.client.Transaction;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.fluo.integration.ITBaseImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Tests that the oracle compacts tablets whose summaries show mostly garbage.
+ */
+public class GarbageCompactionIT extends ITBaseImpl {
+  @Rule
+  public Timeout globalTimeout = Timeout.seconds(getTestTimeout());
+
+  @Override
+  protected void setConfig(FluoConfiguration config) {
+    config.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_THRESHOLD_PROP, ".25");
+    config.setProperty(FluoConfigurationImpl.COMPACTION_GARBAGE_CHECK_PERIOD_PROP, 500);
+  }
+
+  private Summary getSummary() throws Exception {
+    return aClient.tableOperations().summaries(table).withConfiguration(FluoSummarizer.CONFIG)
+        .retrieve().get(0);
+  }
+
+  private void writeAndFlush(String prefix) throws Exception {
+    for (int i = 0; i < 10; i++) {
+      try (Transaction tx = client.newTransaction()) {
+        tx.set(prefix + i, new Column("f", "q"), "v" + i);
+        tx.commit();
+      }
+    }
+    aClient.tableOperations().flush(table, null, null, true);
+  }
+
+  @Test
+  public void testCompactGarbage() throws Exception {
+    // each commit leaves a deleted lock, the lock it hides and a tx done marker, which is mostly
+    // garbage. Two files of the same size are not compacted by Accumulo's default ratio.
+    writeAndFlush("a");
+    writeAndFlush("b");
+
+    Summary summary = getSummary();
+    while (summary.getFileStatistics().getTotal() > 1) {
+      Thread.sleep(100);
+      summary = getSummary();
+    }
+
+    Assert.assertEquals(0, FluoSummarizer.getCounts(summary).delLock);
+    Assert.assertEquals(20, FluoSummarizer.getCounts(summary).data);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.integration.impl;
+
+import org.apache.fluo.api.client.Snapshot;
+import org.apache.fluo.api.client.TransactionBase;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.Observer;
+import org.apache.fluo.api.observer.ObserverProvider;
+import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.fluo.core.worker.NotificationFinder;
+import org.apache.fluo.core.worker.NotificationProcessor;
+import org.apache.fluo.core.worker.finder.hash.PartitionNotificationFinder;
+import org.apache.fluo.integration.ITBaseImpl;
+import org.apache.fluo.integration.TestTransaction;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.apache.fluo.api.observer.Observer.NotificationType.STRONG;
+
+/**
+ * Tests that notifications written by observers are processed soon after they are committed,
+ * instead of waiting for the notification finder's next scan.
+ */
+public class NotificationHintIT extends ITBaseImpl {
+  @Rule
+  public Timeout globalTimeout = Timeout.seconds(getTestTimeout());
+
+  private static final int MIN_SLEEP_TIME = 30000;
+
+  private static final Column STAGE1_COL = new Column("stage", "1");
+  private static final Column STAGE2_COL = new Column("stage", "2");
+  private static final Column TIME_COL = new Column("stage", "time");
+
+  // when the first observer ran
+  private static volatile long stage1Time;
+
+  public static class Stage1Observer implements Observer {
+    @Override
+    public void process(TransactionBase tx, Bytes row, Column col) throws Exception {
+      stage1Time = System.currentTimeMillis();
+      tx.set(row, STAGE2_COL, tx.get(row, col));
+    }
+  }
+
+  public static class Stage2Observer implements Observer {
+    @Override
+    public void process(TransactionBase tx, Bytes row, Column col) throws Exception {
+      tx.set(row.toString(), TIME_COL, System.currentTimeMillis() + "");
+    }
+  }
+
+  public static class HintObserverProvider implements ObserverProvider {
+    @Override
+    public void provide(Registry or, Context ctx) {
+      or.forColumn(STAGE1_COL, STRONG).useObserver(new Stage1Observer());
+      or.forColumn(STAGE2_COL, STRONG).useObserver(new Stage2Observer());
+    }
+  }
+
+  @Override
+  protected Class<? extends ObserverProvider> getObserverProviderClass() {
+    return HintObserverProvider.class;
+  }
+
+  @Override
+  protected void setConfig(FluoConfiguration config) {
+    // without hints, notifications written after a scan are found no sooner than the next scan
+    config.setProperty(FluoConfigurationImpl.NTFY_FINDER_MIN_SLEEP_TIME_PROP, MIN_SLEEP_TIME);
+    config.setProperty(FluoConfigurationImpl.NTFY_FINDER_MAX_SLEEP_TIME_PROP, MIN_SLEEP_TIME);
+  }
+
+  @Test
+  public void testDownstreamNotification() throws Exception {
+    try (Environment workerEnv = new Environment(config);
+        NotificationProcessor processor = new NotificationProcessor(workerEnv)) {
+      NotificationFinder finder = new PartitionNotificationFinder();
+      finder.init(workerEnv, processor);
+      finder.start();
+
+      try {
+        // commit in the worker's process, so the first notification may also be hinted
+        TestTransaction tx = new TestTransaction(workerEnv);
+        tx.set("r1", STAGE1_COL, "v1");
+        tx.done();
+
+        String stage2Time = null;
+        while (stage2Time == null) {
+          Thread.sleep(10);
+          try (Snapshot snap = client.newSnapshot()) {
+            stage2Time = snap.gets("r1", TIME_COL);
+          }
+        }
+
+        // the notification written by the first observer was hinted and processed right away
+        long delay = Long.parseLong(stage2Time) - stage1Time;
+        Assert.assertTrue("Downstream notification took " + delay + "ms",
+            delay < MIN_SLEEP_TIME / 10);
+      } finally {
+        finder.stop();
+      }
+    }
+  }
+}
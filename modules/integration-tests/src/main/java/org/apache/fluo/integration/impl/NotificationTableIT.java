@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.fluo.integration.impl;
+
+import com.google.common.collect.Iterables;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.fluo.accumulo.util.ColumnConstants;
+import org.apache.fluo.api.client.Snapshot;
+import org.apache.fluo.api.client.Transaction;
+import org.apache.fluo.api.client.TransactionBase;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.api.observer.Observer;
+import org.apache.fluo.api.observer.ObserverProvider;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
+import org.apache.fluo.core.util.ByteUtil;
+import org.apache.fluo.integration.ITBaseMini;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.apache.fluo.api.observer.Observer.NotificationType.STRONG;
+
+/**
+ * Runs observers with notifications stored in a separate table.
+ */
+public class NotificationTableIT extends ITBaseMini {
+  @Rule
+  public Timeout globalTimeout = Timeout.seconds(getTestTimeout());
+
+  private static final Column COUNT_COL = new Column("stat", "count");
+  private static final Column COPY_COL = new Column("stat", "copy");
+  private static final Column SOURCE_COL = new Column("idx", "source");
+
+  public static class CopyObserver implements Observer {
+    @Override
+    public void process(TransactionBase tx, Bytes row, Column col) throws Exception {
+      String count = tx.gets(row.toString(), COUNT_COL);
+      tx.set(row.toString(), COPY_COL, count);
+      if (row.toString().startsWith("m")) {
+        // makes this a multi row transaction
+        tx.set("idx" + count, SOURCE_COL, row.toString());
+      }
+    }
+  }
+
+  public static class NotificationTableITObserverProvider implements ObserverProvider {
+    @Override
+    public void provide(Registry or, Context ctx) {
+      or.forColumn(COUNT_COL, STRONG).useObserver(new CopyObserver());
+    }
+  }
+
+  @Override
+  protected Class<? extends ObserverProvider> getObserverProviderClass() {
+    return NotificationTableITObserverProvider.class;
+  }
+
+  @Override
+  protected void setConfig(FluoConfiguration config) {
+    config.setProperty(FluoConfigurationImpl.NOTIFY_TABLE_PROP,
+        config.getAccumuloTable() + "_ntfy");
+  }
+
+  private int countNotificationEntries(String table) throws Exception {
+    try (Scanner scanner = aClient.createScanner(table, Authorizations.EMPTY)) {
+      scanner.fetchColumnFamily(ByteUtil.toText(ColumnConstants.NOTIFY_CF));
+      return Iterables.size(scanner);
+    }
+  }
+
+  @Test
+  public void testSeparateTable() throws Exception {
+    String ntfyTable = FluoConfigurationImpl.getNotificationTable(config);
+    Assert.assertNotEquals(config.getAccumuloTable(), ntfyTable);
+    Assert.assertTrue(aClient.tableOperations().exists(ntfyTable));
+
+    try (Transaction tx = client.newTransaction()) {
+      tx.set("s1", COUNT_COL, "1");
+      tx.set("m1", COUNT_COL, "2");
+      tx.commit();
+    }
+
+    try (Transaction tx = client.newTransaction()) {
+      tx.set("s2", COUNT_COL, "3");
+      tx.commit();
+    }
+
+    miniFluo.waitForObservers();
+
+    try (Snapshot snap = client.newSnapshot()) {
+      Assert.assertEquals("1", snap.gets("s1", COPY_COL));
+      Assert.assertEquals("2", snap.gets("m1", COPY_COL));
+      Assert.assertEquals("3", snap.gets("s2", COPY_COL));
+      Assert.assertEquals("m1", snap.gets("idx2", SOURCE_COL));
+    }
+
+    // notifications and their deletes were only written to the notification table
+    Assert.assertEquals(0, countNotificationEntries(config.getAccumuloTable()));
+    Assert.assertTrue(countNotificationEntries(ntfyTable) > 0);
+  }
+}
@@ -28,7 +28,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
+import org.apache.fluo.api.config.FluoConfiguration;
 import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.oracle.OracleClient;
 import org.apache.fluo.core.oracle.OracleServer;
 import org.apache.fluo.core.util.HostUtil;
@@ -138,6 +140,19 @@ public class OracleIT extends ITBaseImpl {
 
   @Test
   public void threadTest() throws Exception {
+    runThreadTest(env);
+  }
+
+  @Test
+  public void pipelinedThreadTest() throws Exception {
+    FluoConfiguration conf = new FluoConfiguration(config);
+    conf.setProperty(FluoConfigurationImpl.ORACLE_CLIENT_SLOTS_PROP, 4);
+    try (Environment env2 = new Environment(conf)) {
+      runThreadTest(env2);
+    }
+  }
+
+  private void runThreadTest(Environment env) throws Exception {
 
     int numThreads = 20;
     int numTimes = 100;
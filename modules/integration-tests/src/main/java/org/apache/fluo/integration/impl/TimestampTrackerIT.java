@@ -15,16 +15,28 @@
 
 package org.apache.fluo.integration.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.fluo.accumulo.util.LongUtil;
 import org.apache.fluo.accumulo.util.ZookeeperPath;
+import org.apache.fluo.accumulo.util.ZookeeperUtil;
+import org.apache.fluo.api.config.FluoConfiguration;
+import org.apache.fluo.api.data.Column;
+import org.apache.fluo.core.impl.Environment;
+import org.apache.fluo.core.impl.FluoConfigurationImpl;
 import org.apache.fluo.core.impl.TimestampTracker;
 import org.apache.fluo.core.impl.TransactorID;
 import org.apache.fluo.integration.ITBaseImpl;
+import org.apache.fluo.integration.TestTransaction;
 import org.apache.zookeeper.KeeperException.NoNodeException;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -119,6 +131,95 @@ public class TimestampTrackerIT extends ITBaseImpl {
     tr3.close();
   }
 
+  private Environment newLeaseEnv() {
+    FluoConfiguration leaseConfig = new FluoConfiguration(config);
+    leaseConfig.setProperty(FluoConfigurationImpl.ORACLE_LEASE_SIZE_PROP, 100);
+    leaseConfig.setProperty(FluoConfigurationImpl.ORACLE_LEASE_TIME_PROP, 60000);
+    return new Environment(leaseConfig);
+  }
+
+  @Test
+  public void testLeasedStartTimestamps() throws Exception {
+    try (Environment leaseEnv = newLeaseEnv()) {
+      long prevStart = -1;
+      for (int i = 0; i < 10; i++) {
+        TestTransaction tx = new TestTransaction(leaseEnv);
+        long start = tx.getStartTimestamp();
+        if (prevStart != -1) {
+          // consecutive timestamps from the lease, even though commits got timestamps in between
+          Assert.assertEquals(prevStart + 1, start);
+        }
+        tx.set("r" + i, new Column("f", "q"), "v" + i);
+        tx.done();
+        prevStart = start;
+      }
+
+      // concurrent transactions using several leases get unique and increasing start timestamps
+      Set<Long> starts = ConcurrentHashMap.newKeySet();
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+          futures.add(executor.submit(() -> {
+            long prev = -1;
+            for (int i = 0; i < 100; i++) {
+              TestTransaction tx = new TestTransaction(leaseEnv);
+              long start = tx.getStartTimestamp();
+              Assert.assertTrue(start > prev);
+              Assert.assertTrue(starts.add(start));
+              tx.close();
+              prev = start;
+            }
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      Assert.assertEquals(400, starts.size());
+    }
+  }
+
+  @Test
+  public void testGcTimestampWithLease() throws Exception {
+    try (Environment leaseEnv = newLeaseEnv()) {
+      TestTransaction open = new TestTransaction(leaseEnv);
+      long openStart = open.getStartTimestamp();
+
+      // transactions that start and commit later do not let the GC timestamp pass the open one
+      for (int i = 0; i < 10; i++) {
+        TestTransaction tx = new TestTransaction(leaseEnv);
+        tx.set("r" + i, new Column("f", "q"), "v" + i);
+        tx.done();
+        TestTransaction tx2 = new TestTransaction(env);
+        tx2.set("s" + i, new Column("f", "q"), "v" + i);
+        tx2.done();
+      }
+
+      leaseEnv.getSharedResources().getTimestampTracker().updateZkNode();
+      long gcTs = ZookeeperUtil.getGcTimestamp(config.getAppZookeepers());
+      while (gcTs < openStart) {
+        Thread.sleep(100);
+        gcTs = ZookeeperUtil.getGcTimestamp(config.getAppZookeepers());
+      }
+      Assert.assertEquals(openStart, gcTs);
+
+      // give the oracle time for a few more updates
+      Thread.sleep(3000);
+      Assert.assertEquals(openStart, ZookeeperUtil.getGcTimestamp(config.getAppZookeepers()));
+
+      open.close();
+
+      gcTs = ZookeeperUtil.getGcTimestamp(config.getAppZookeepers());
+      while (gcTs <= openStart) {
+        Thread.sleep(100);
+        gcTs = ZookeeperUtil.getGcTimestamp(config.getAppZookeepers());
+      }
+    }
+  }
+
   private long getOldestTs() throws Exception {
 
     CuratorFramework curator = env.getSharedResources().getCurator();
@@ -239,6 +239,53 @@ public class LogIT extends ITBaseMini {
         + "committed: false class: TestObserver.*"));
   }
 
+  @Test
+  public void testCommitStepLogging() throws Exception {
+    Logger logger = Logger.getLogger("fluo.tx.steps");
+
+    StringWriter writer = new StringWriter();
+    WriterAppender appender = new WriterAppender(new PatternLayout("%p, %m%n"), writer);
+
+    Level level = logger.getLevel();
+    boolean additivity = logger.getAdditivity();
+
+    try {
+      logger.setLevel(Level.TRACE);
+      logger.setAdditivity(false);
+      logger.addAppender(appender);
+
+      try (LoaderExecutor le = client.newLoaderExecutor()) {
+        le.execute(new SimpleLoader());
+      }
+
+      try (LoaderExecutor le = client.newLoaderExecutor()) {
+        le.execute(new BinaryLoader1());
+      }
+
+      miniFluo.waitForObservers();
+    } finally {
+      logger.removeAppender(appender);
+      logger.setAdditivity(additivity);
+      logger.setLevel(level);
+    }
+
+    String logMsgs = writer.toString();
+    logMsgs = logMsgs.replace('\n', ' ');
+
+    String step = "\\{start=\\d+, micros=\\d+, mutations=";
+
+    String prefix = ".*txid: \\d+ commitTs: \\d+ committed: true steps: \\[";
+
+    // a single row transaction locks and commits with one conditional mutation each
+    Assert.assertTrue(logMsgs.matches(prefix + "lock_row" + step + "1\\}, get_commit_stamp" + step
+        + "0\\}, commit_row" + step + "1\\}\\].*"));
+
+    Assert.assertTrue(logMsgs.matches(
+        prefix + "lock_primary" + step + "1\\}, lock_other" + step + "1\\}, get_commit_stamp" + step
+            + "0\\}, write_notifications" + step + "\\d+\\}, commit_primary" + step
+            + "1\\}, delete_locks" + step + "\\d+\\}, finish_commit" + step + "\\d+\\}\\].*"));
+  }
+
   @Test
   public void testAllLogging() throws Exception {
     Logger logger = Logger.getLogger("fluo.tx");